@@ -1,9 +1,12 @@
 package com.minicat.controller;
 
+import com.minicat.dto.CdcSubscriptionRequest;
 import com.minicat.dto.DataCompareRequest;
 import com.minicat.dto.DataDiffResult;
 import com.minicat.dto.DataSyncRequest;
 import com.minicat.dto.DataSyncResponse;
+import com.minicat.entity.CdcSubscription;
+import com.minicat.service.ChangeCaptureService;
 import com.minicat.service.DataComparatorService;
 import com.minicat.service.DataSyncService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,9 +14,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * 数据比对和同步控制器
  */
@@ -26,6 +36,7 @@ public class DataController {
 
     private final DataComparatorService dataComparatorService;
     private final DataSyncService dataSyncService;
+    private final ChangeCaptureService changeCaptureService;
     
     /**
      * 比对数据
@@ -36,10 +47,11 @@ public class DataController {
     @PostMapping("/compare")
     @Operation(summary = "比对数据", description = "比对两个数据库的表数据差异")
     public ResponseEntity<DataDiffResult> compareData(@Valid @RequestBody DataCompareRequest request) {
-        log.info("收到数据比对请求: 源库={}, 目标库={}, 表数量={}",
+        log.info("收到数据比对请求: 源库={}, 目标库={}, 表数量={}, 包含模式={}",
                 request.getSourceConnectionId(),
                 request.getTargetConnectionId(),
-                request.getTableNames().size());
+                CollectionUtils.size(request.getTableNames()),
+                request.getIncludePatterns());
 
         DataDiffResult result = dataComparatorService.compareData(request);
 
@@ -65,5 +77,86 @@ public class DataController {
 
         return ResponseEntity.ok(result);
     }
-}
 
+    /**
+     * 继续同步任务
+     *
+     * @param taskId 失败或取消的同步任务 ID
+     * @return 同步结果
+     */
+    @PostMapping("/sync/{taskId}/resume")
+    @Operation(summary = "继续同步任务", description = "从最后一次提交的检查点继续执行失败或取消的同步任务")
+    public ResponseEntity<DataSyncResponse> resumeSync(@PathVariable String taskId) {
+        log.info("收到继续同步请求: 任务={}", taskId);
+
+        DataSyncResponse result = dataSyncService.resumeSync(taskId);
+
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 下载模拟执行脚本
+     *
+     * @param taskId 模拟执行的同步任务 ID
+     * @return gzip 压缩的 SQL 脚本，支持 Range 请求
+     */
+    @GetMapping("/sync/{taskId}/script")
+    @Operation(summary = "下载模拟执行脚本", description = "下载 dryRun 模式生成的 gzip 压缩 SQL 脚本，支持断点续传")
+    public ResponseEntity<Resource> downloadDryRunScript(@PathVariable String taskId) {
+        log.info("收到模拟执行脚本下载请求: 任务={}", taskId);
+
+        Resource script = dataSyncService.getDryRunScript(taskId);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(script.getFilename())
+                        .build()
+                        .toString())
+                .body(script);
+    }
+
+    /**
+     * 创建增量同步订阅
+     *
+     * @param request 订阅请求
+     * @return 订阅信息
+     */
+    @PostMapping("/cdc")
+    @Operation(summary = "创建增量同步订阅", description = "可选在源表安装变更捕获触发器，后台持续把变更应用到目标库")
+    public ResponseEntity<CdcSubscription> createSubscription(@Valid @RequestBody CdcSubscriptionRequest request) {
+        log.info("收到增量同步订阅请求: 源库={}, 目标库={}, 表数量={}, 安装触发器={}",
+                request.getSourceConnectionId(),
+                request.getTargetConnectionId(),
+                request.getTableNames().size(),
+                request.getInstallTriggers());
+
+        return ResponseEntity.ok(changeCaptureService.createSubscription(request));
+    }
+
+    @GetMapping("/cdc")
+    @Operation(summary = "获取增量同步订阅列表", description = "返回所有订阅及其消费位置")
+    public ResponseEntity<List<CdcSubscription>> getSubscriptions() {
+        return ResponseEntity.ok(changeCaptureService.getSubscriptions());
+    }
+
+    @PostMapping("/cdc/{id}/start")
+    @Operation(summary = "启动增量同步订阅", description = "从记录的消费位置继续轮询变更日志")
+    public ResponseEntity<CdcSubscription> startSubscription(@PathVariable String id) {
+        return ResponseEntity.ok(changeCaptureService.startSubscription(id));
+    }
+
+    @PostMapping("/cdc/{id}/stop")
+    @Operation(summary = "停止增量同步订阅", description = "停止轮询，触发器继续记录变更")
+    public ResponseEntity<CdcSubscription> stopSubscription(@PathVariable String id) {
+        return ResponseEntity.ok(changeCaptureService.stopSubscription(id));
+    }
+
+    @DeleteMapping("/cdc/{id}")
+    @Operation(summary = "删除增量同步订阅", description = "删除订阅，可选移除不再使用的捕获触发器")
+    public ResponseEntity<Void> deleteSubscription(@PathVariable String id,
+                                                   @RequestParam(defaultValue = "false") boolean dropTriggers) {
+        changeCaptureService.deleteSubscription(id, dropTriggers);
+        return ResponseEntity.noContent().build();
+    }
+}
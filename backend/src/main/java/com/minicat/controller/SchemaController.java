@@ -1,13 +1,17 @@
 package com.minicat.controller;
 
 import com.minicat.dto.*;
+import com.minicat.manager.MetadataCatalogCache;
 import com.minicat.service.SchemaComparatorService;
+import com.minicat.service.SchemaSnapshotService;
 import com.minicat.service.SchemaSyncService;
+import com.minicat.service.schema.TableFilter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -27,23 +31,47 @@ public class SchemaController {
 
     private final SchemaComparatorService schemaComparatorService;
     private final SchemaSyncService schemaSyncService;
+    private final SchemaSnapshotService schemaSnapshotService;
+    private final MetadataCatalogCache metadataCatalogCache;
     
     /**
      * 获取数据库的表列表
      *
-     * @param connectionId 连接ID
+     * @param connectionId       连接ID
+     * @param include            表名包含模式（glob 或 regex: 前缀的正则）
+     * @param exclude            表名排除模式
+     * @param collapsePartitions 是否把分区子表折叠到父表
      * @return 表名列表
      */
     @GetMapping("/tables/{connectionId}")
-    @Operation(summary = "获取数据库表列表", description = "获取指定数据库连接的所有表名")
-    public ResponseEntity<java.util.List<String>> getTables(@PathVariable String connectionId) {
+    @Operation(summary = "获取数据库表列表", description = "获取指定数据库连接的表名，可按包含/排除模式过滤")
+    public ResponseEntity<java.util.List<String>> getTables(
+            @PathVariable String connectionId,
+            @RequestParam(required = false) List<String> include,
+            @RequestParam(required = false) List<String> exclude,
+            @RequestParam(defaultValue = "true") boolean collapsePartitions) {
         log.info("获取数据库表列表: 连接ID={}", connectionId);
 
-        java.util.List<String> tables = schemaComparatorService.getTableNames(connectionId);
+        java.util.List<String> tables = schemaComparatorService.getTableNames(
+                connectionId, TableFilter.of(null, include, exclude, collapsePartitions));
 
         return ResponseEntity.ok(tables);
     }
 
+    /**
+     * 获取数据库的表依赖图
+     *
+     * @param connectionId 连接ID
+     * @return 按外键分层的依赖图
+     */
+    @GetMapping("/dependencies/{connectionId}")
+    @Operation(summary = "获取表依赖图", description = "按外键引用关系返回表的拓扑层级和循环依赖")
+    public ResponseEntity<DependencyGraph> getDependencyGraph(@PathVariable String connectionId) {
+        log.info("获取表依赖图: 连接ID={}", connectionId);
+
+        return ResponseEntity.ok(schemaComparatorService.getDependencyGraph(connectionId));
+    }
+
     /**
      * 比对数据库结构
      *
@@ -61,27 +89,37 @@ public class SchemaController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * 批量比对：一个基准对多个目标库
+     *
+     * @param request 批量比对请求
+     * @return 漂移矩阵及各目标库结果
+     */
+    @PostMapping("/fleet-compare")
+    @Operation(summary = "批量结构比对", description = "以一个连接或快照为基准，并发比对多个目标库的结构漂移")
+    public ResponseEntity<FleetCompareResult> compareFleet(@Valid @RequestBody FleetCompareRequest request) {
+        log.info("收到批量结构比对请求: 基准={}, 目标数={}",
+                StringUtils.defaultIfBlank(request.getBaselineSnapshotId(), request.getBaselineConnectionId()),
+                request.getTargetConnectionIds().size());
+
+        return ResponseEntity.ok(schemaComparatorService.compareFleet(request));
+    }
+
     /**
      * 生成同步 SQL
      *
      * @param diffResult 比对结果
+     * @param online     是否生成在线 DDL
      * @return SQL 语句列表
      */
     @PostMapping("/generate-sync-sql")
-    @Operation(summary = "生成同步SQL", description = "根据比对结果生成同步SQL语句")
-    public ResponseEntity<SchemaSyncResponse> generateSyncSql(@Valid @RequestBody SchemaDiffResult diffResult) {
-        log.info("生成同步 SQL: 任务ID={}", diffResult.getTaskId());
+    @Operation(summary = "生成同步SQL", description = "根据比对结果生成同步SQL语句，online=true 时生成不阻塞读写的在线 DDL")
+    public ResponseEntity<SchemaSyncResponse> generateSyncSql(
+            @Valid @RequestBody SchemaDiffResult diffResult,
+            @RequestParam(defaultValue = "false") boolean online) {
+        log.info("生成同步 SQL: 任务ID={}, 在线模式={}", diffResult.getTaskId(), online);
 
-        List<String> sqlStatements = schemaSyncService.generateSyncSql(diffResult);
-
-        SchemaSyncResponse response = SchemaSyncResponse.builder()
-                .sqlStatements(sqlStatements)
-                .sqlCount(sqlStatements.size())
-                .previewOnly(true)
-                .message("SQL 生成成功")
-                .build();
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(schemaSyncService.generateSyncSql(diffResult, online));
     }
 
     /**
@@ -123,5 +161,87 @@ public class SchemaController {
 
         return ResponseEntity.ok(response);
     }
-}
 
+    /**
+     * 采集结构快照
+     *
+     * @param request 采集请求
+     * @return 快照摘要
+     */
+    @PostMapping("/snapshots")
+    @Operation(summary = "采集结构快照", description = "将连接当前的表结构保存为快照文件，之后可代替在线库参与结构比对")
+    public ResponseEntity<SchemaSnapshot> captureSnapshot(@Valid @RequestBody SchemaSnapshotRequest request) {
+        log.info("采集结构快照: 连接ID={}", request.getConnectionId());
+
+        return ResponseEntity.ok(schemaSnapshotService.captureSnapshot(request));
+    }
+
+    /**
+     * 获取结构快照列表
+     *
+     * @param connectionId 连接ID，为空时返回全部
+     * @return 快照摘要列表
+     */
+    @GetMapping("/snapshots")
+    @Operation(summary = "获取结构快照列表", description = "按采集时间倒序返回快照摘要")
+    public ResponseEntity<List<SchemaSnapshot>> getSnapshots(@RequestParam(required = false) String connectionId) {
+        return ResponseEntity.ok(schemaSnapshotService.getSnapshots(connectionId));
+    }
+
+    /**
+     * 获取结构快照详情
+     *
+     * @param snapshotId 快照ID
+     * @return 完整快照
+     */
+    @GetMapping("/snapshots/{snapshotId}")
+    @Operation(summary = "获取结构快照详情", description = "返回快照中的完整表结构")
+    public ResponseEntity<SchemaSnapshot> getSnapshot(@PathVariable String snapshotId) {
+        return ResponseEntity.ok(schemaSnapshotService.getSnapshot(snapshotId));
+    }
+
+    /**
+     * 删除结构快照
+     *
+     * @param snapshotId 快照ID
+     */
+    @DeleteMapping("/snapshots/{snapshotId}")
+    @Operation(summary = "删除结构快照", description = "删除快照文件")
+    public ResponseEntity<Void> deleteSnapshot(@PathVariable String snapshotId) {
+        log.info("删除结构快照: {}", snapshotId);
+
+        return schemaSnapshotService.deleteSnapshot(snapshotId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * 获取表元数据缓存统计
+     *
+     * @return 命中/未命中等统计
+     */
+    @GetMapping("/metadata-cache")
+    @Operation(summary = "获取元数据缓存统计", description = "查看结构比对、数据比对和数据同步共用的表元数据缓存命中情况")
+    public ResponseEntity<MetadataCacheStats> getMetadataCacheStats() {
+        return ResponseEntity.ok(metadataCatalogCache.stats());
+    }
+
+    /**
+     * 清除表元数据缓存
+     *
+     * @param connectionId 连接ID，为空时清除全部
+     * @return 清除后的统计
+     */
+    @DeleteMapping("/metadata-cache")
+    @Operation(summary = "清除元数据缓存", description = "在外部修改表结构后手动清除缓存，不指定连接时清除全部")
+    public ResponseEntity<MetadataCacheStats> invalidateMetadataCache(
+            @RequestParam(required = false) String connectionId) {
+        log.info("清除表元数据缓存: 连接ID={}", connectionId);
+        if (connectionId == null || connectionId.isBlank()) {
+            metadataCatalogCache.invalidateAll();
+        } else {
+            metadataCatalogCache.invalidate(connectionId);
+        }
+        return ResponseEntity.ok(metadataCatalogCache.stats());
+    }
+}
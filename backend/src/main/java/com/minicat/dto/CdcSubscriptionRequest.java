@@ -0,0 +1,67 @@
+package com.minicat.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 增量同步订阅请求
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CdcSubscriptionRequest {
+    
+    /**
+     * 源数据库连接 ID
+     */
+    @NotBlank(message = "源数据库连接ID不能为空")
+    private String sourceConnectionId;
+    
+    /**
+     * 目标数据库连接 ID
+     */
+    @NotBlank(message = "目标数据库连接ID不能为空")
+    private String targetConnectionId;
+    
+    /**
+     * 表名列表（必须有主键）
+     */
+    @NotEmpty(message = "表名列表不能为空")
+    private List<String> tableNames;
+    
+    /**
+     * 是否在源库创建变更日志表和捕获触发器；为 false 时要求已手动安装
+     */
+    @Builder.Default
+    private Boolean installTriggers = false;
+    
+    /**
+     * 轮询间隔（毫秒）
+     */
+    @Builder.Default
+    @Min(value = 100, message = "轮询间隔不能小于100毫秒")
+    private Long pollIntervalMs = 1000L;
+    
+    /**
+     * 每次轮询读取的最大变更日志条数
+     */
+    @Builder.Default
+    @Min(value = 1, message = "批次大小必须大于0")
+    @Max(value = 10000, message = "批次大小不能超过10000")
+    private Integer batchSize = 1000;
+    
+    /**
+     * 是否清理所有订阅都已应用的变更日志
+     */
+    @Builder.Default
+    private Boolean purgeApplied = true;
+}
@@ -1,11 +1,14 @@
 package com.minicat.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import java.util.List;
 
@@ -27,21 +30,65 @@ public class DataCompareRequest {
     /**
      * 目标数据库连接 ID
      */
-    @NotBlank(message = "目标数据库连接ID不能为空")
     private String targetConnectionId;
     
     /**
-     * 要比对的表名列表
+     * 多个目标数据库连接 ID（设置后源表只读取一次，同时与所有目标比对）
+     */
+    private List<String> targetConnectionIds;
+    
+    /**
+     * 要比对的表名列表（与 includePatterns 至少指定一个）
      */
-    @NotEmpty(message = "表名列表不能为空")
     private List<String> tableNames;
     
+    /**
+     * 表名包含模式，glob（如 order_*）或 regex: 前缀的正则，整名匹配；指定后从源库目录解析出要比对的表
+     */
+    private List<String> includePatterns;
+    
+    /**
+     * 表名排除模式，语法同 includePatterns
+     */
+    private List<String> excludePatterns;
+    
+    /**
+     * 按模式解析表名时是否把分区子表折叠到父表（PostgreSQL），默认折叠
+     */
+    @Builder.Default
+    private Boolean collapsePartitions = true;
+    
     /**
      * 比对选项
      */
     @Builder.Default
     private CompareOptions options = new CompareOptions();
     
+    /**
+     * 单目标或多目标至少指定一个
+     */
+    @JsonIgnore
+    @AssertTrue(message = "目标数据库连接ID不能为空")
+    public boolean isTargetSpecified() {
+        return StringUtils.isNotBlank(targetConnectionId) || CollectionUtils.isNotEmpty(targetConnectionIds);
+    }
+    
+    /**
+     * 表名列表和包含模式至少指定一个，避免误比对整个库的数据
+     */
+    @JsonIgnore
+    @AssertTrue(message = "表名列表和表名包含模式不能同时为空")
+    public boolean isTablesSpecified() {
+        return CollectionUtils.isNotEmpty(tableNames) || CollectionUtils.isNotEmpty(includePatterns);
+    }
+    
+    /**
+     * 是否需要按模式从源库目录解析表名
+     */
+    public boolean hasTablePatterns() {
+        return CollectionUtils.isNotEmpty(includePatterns) || CollectionUtils.isNotEmpty(excludePatterns);
+    }
+    
     /**
      * 比对选项
      */
@@ -80,6 +127,12 @@ public class DataCompareRequest {
          */
         @Builder.Default
         private Boolean ignoreTrimSpace = false;
+        
+        /**
+         * 多目标比对时每个目标的源数据缓冲行数，缓冲满时源读取等待该目标
+         */
+        @Builder.Default
+        private Integer fanOutBufferSize = 10000;
     }
 }
 
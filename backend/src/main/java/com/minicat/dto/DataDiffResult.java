@@ -74,6 +74,11 @@ public class DataDiffResult {
      */
     private String errorMessage;
     
+    /**
+     * 多目标比对时各目标的比对结果
+     */
+    private List<DataDiffResult> targetResults;
+    
     /**
      * 统计信息
      */
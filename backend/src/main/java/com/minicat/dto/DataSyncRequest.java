@@ -1,11 +1,15 @@
 package com.minicat.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import java.util.List;
 
@@ -27,9 +31,13 @@ public class DataSyncRequest {
     /**
      * 目标数据库连接 ID
      */
-    @NotBlank(message = "目标数据库连接ID不能为空")
     private String targetConnectionId;
     
+    /**
+     * 多个目标数据库连接 ID（设置后源表只读取一次，比对结果分别同步到每个目标）
+     */
+    private List<String> targetConnectionIds;
+    
     /**
      * 表名列表
      */
@@ -42,6 +50,15 @@ public class DataSyncRequest {
     @Builder.Default
     private SyncOptions options = new SyncOptions();
     
+    /**
+     * 单目标或多目标至少指定一个
+     */
+    @JsonIgnore
+    @AssertTrue(message = "目标数据库连接ID不能为空")
+    public boolean isTargetSpecified() {
+        return StringUtils.isNotBlank(targetConnectionId) || CollectionUtils.isNotEmpty(targetConnectionIds);
+    }
+    
     /**
      * 同步选项
      */
@@ -75,17 +92,136 @@ public class DataSyncRequest {
         @Builder.Default
         private Integer batchSize = 1000;
         
+        /**
+         * 是否根据 executeBatch 耗时自动调整批次大小（batchSize 作为初始值）
+         */
+        @Builder.Default
+        private Boolean adaptiveBatchSize = false;
+        
+        /**
+         * 自适应模式下单个批次的目标耗时（毫秒）
+         */
+        @Builder.Default
+        private Long targetBatchLatencyMs = 200L;
+        
+        /**
+         * 自适应模式下的最小批次大小
+         */
+        @Builder.Default
+        private Integer minBatchSize = 50;
+        
+        /**
+         * 自适应模式下的最大批次大小
+         */
+        @Builder.Default
+        private Integer maxBatchSize = 20000;
+        
         /**
          * 是否使用事务
          */
         @Builder.Default
         private Boolean useTransaction = true;
         
+        /**
+         * 批次遇到死锁、锁等待超时等可重试错误时的最大重试次数
+         */
+        @Builder.Default
+        private Integer maxRetries = 3;
+        
+        /**
+         * 重试退避基准时间（毫秒），按指数增长并加随机抖动
+         */
+        @Builder.Default
+        private Long retryBackoffMs = 100L;
+        
+        /**
+         * 单表允许跳过的失败行数上限，超过后中止该表同步
+         */
+        @Builder.Default
+        private Integer maxRejectedRows = 1000;
+        
+        /**
+         * 提交间隔：每执行 N 个批次提交一次并记录检查点，0 表示整表一个事务
+         */
+        @Builder.Default
+        private Integer commitInterval = 0;
+        
+        /**
+         * 目标库上同时同步的最大表数量（按外键依赖分层，同层内并行）
+         */
+        @Builder.Default
+        private Integer maxParallelTables = 4;
+        
+        /**
+         * 写入速率上限（行/秒），为空或不大于 0 表示不限制；并行表共享配额
+         */
+        private Double maxRowsPerSecond;
+        
+        /**
+         * 批次速率上限（批次/秒），为空或不大于 0 表示不限制
+         */
+        private Double maxBatchesPerSecond;
+        
+        /**
+         * 目标库复制延迟查询，返回首行首列为延迟秒数；为空表示不检查延迟
+         */
+        private String lagQuery;
+        
+        /**
+         * 复制延迟阈值（秒），超过时暂停写入直到回落
+         */
+        @Builder.Default
+        private Double maxReplicationLagSeconds = 10.0;
+        
+        /**
+         * 复制延迟检查间隔（毫秒）
+         */
+        @Builder.Default
+        private Long lagCheckIntervalMs = 1000L;
+        
+        /**
+         * 同步完成后是否回查本次写入的行，比对源库和目标库的服务端行哈希（仅限同类型数据库）
+         */
+        @Builder.Default
+        private Boolean verifyAfterSync = false;
+        
+        /**
+         * 校验时每批回查的主键数量
+         */
+        @Builder.Default
+        private Integer verifyBatchSize = 500;
+        
+        /**
+         * 目标表接近空表时，同步前移除非唯一二级索引并在结束后重建，写入连接上关闭外键检查
+         */
+        @Builder.Default
+        private Boolean deferIndexes = false;
+        
+        /**
+         * 延迟索引的目标表行数上限，超过该行数的表照常同步，0 表示不限制
+         */
+        @Builder.Default
+        private Long deferIndexMaxTargetRows = 10000L;
+        
         /**
          * 是否只生成 SQL 不执行
          */
         @Builder.Default
         private Boolean dryRun = false;
+        
+        /**
+         * 批量删除阈值：删除行数达到该值时改用集合式删除（IN 列表 / 临时键表关联），0 表示禁用
+         */
+        @Builder.Default
+        private Integer bulkDeleteThreshold = 1000;
+        
+        /**
+         * 暂存表合并阈值：差异行数达到该值时先装载到目标库临时表再集合式合并，默认 0 表示禁用。
+         * 合并以整表为单位执行，没有逐行重试和拒绝行记录（maxRetries、maxRejectedRows 不生效），
+         * 任意一行冲突都会使整张表的合并失败，只在确认数据可以整体写入时开启
+         */
+        @Builder.Default
+        private Integer stagingMergeThreshold = 0;
     }
 }
 
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 数据同步响应
@@ -75,11 +76,31 @@ public class DataSyncResponse {
     private String errorMessage;
     
     /**
-     * 生成的 SQL 语句列表（dryRun 模式）
+     * 表执行计划（按外键依赖分层）
+     */
+    private SyncPlan syncPlan;
+    
+    /**
+     * 生成的 SQL 语句预览（dryRun 模式，仅前若干条，完整脚本见 dryRunScript）
      */
     @Builder.Default
     private List<String> generatedSqls = new ArrayList<>();
     
+    /**
+     * 模拟执行脚本文件（dryRun 模式）
+     */
+    private DryRunScript dryRunScript;
+    
+    /**
+     * 多目标同步时各目标的同步结果
+     */
+    private List<DataSyncResponse> targetResults;
+    
+    /**
+     * 同步期间暂时移除并在结束后重建的二级索引
+     */
+    private List<DeferredIndex> deferredIndexes;
+    
     /**
      * 计算统计信息
      */
@@ -155,6 +176,176 @@ public class DataSyncResponse {
          * 执行时间（毫秒）
          */
         private Long executionTime;
+        
+        /**
+         * 批次大小变化序列（自适应模式下记录每次调整）
+         */
+        private List<Integer> batchSizes;
+        
+        /**
+         * 写入吞吐（行/秒）
+         */
+        private Double rowsPerSecond;
+        
+        /**
+         * 重试和拆分后仍然失败而被跳过的行数
+         */
+        private Long rejectedCount;
+        
+        /**
+         * 被跳过的行明细
+         */
+        private List<RejectedRow> rejectedRows;
+        
+        /**
+         * 同步后校验一致的行数（verifyAfterSync 开启时）
+         */
+        private Long verifiedRows;
+        
+        /**
+         * 同步后校验不一致的行数
+         */
+        private Long mismatchedRows;
+        
+        /**
+         * 校验不一致的主键样例
+         */
+        private List<Map<String, Object>> mismatchedKeys;
+        
+        /**
+         * 校验未执行或失败的原因
+         */
+        private String verificationMessage;
+    }
+    
+    /**
+     * 同步失败被跳过的行
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedRow {
+        
+        /**
+         * 操作类型：INSERT, UPDATE, DELETE
+         */
+        private String action;
+        
+        /**
+         * 主键值
+         */
+        private Map<String, Object> primaryKey;
+        
+        /**
+         * SQLSTATE
+         */
+        private String sqlState;
+        
+        /**
+         * 错误信息
+         */
+        private String errorMessage;
+    }
+    
+    /**
+     * 延迟重建的二级索引
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DeferredIndex {
+        
+        /**
+         * 表名
+         */
+        private String tableName;
+        
+        /**
+         * 索引名
+         */
+        private String indexName;
+        
+        /**
+         * 状态：RESTORED, FAILED
+         */
+        private String status;
+        
+        /**
+         * 重建耗时（毫秒）
+         */
+        private Long rebuildTime;
+        
+        /**
+         * 错误信息
+         */
+        private String errorMessage;
+    }
+    
+    /**
+     * 表执行计划
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SyncPlan {
+        
+        /**
+         * INSERT/UPDATE 执行层级（父表在前，同层并行）
+         */
+        private List<List<String>> upsertLevels;
+        
+        /**
+         * DELETE 执行层级（子表在前，同层并行）
+         */
+        private List<List<String>> deleteLevels;
+        
+        /**
+         * 外键依赖环
+         */
+        private List<List<String>> cycles;
+        
+        /**
+         * 并行度
+         */
+        private Integer parallelism;
+    }
+    
+    /**
+     * 模拟执行脚本文件信息
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DryRunScript {
+        
+        /**
+         * 文件名（gzip 压缩的 SQL 脚本）
+         */
+        private String fileName;
+        
+        /**
+         * 下载路径（相对于接口根路径，支持 Range 分段下载）
+         */
+        private String downloadPath;
+        
+        /**
+         * 语句总数
+         */
+        private Long statementCount;
+        
+        /**
+         * 各表语句数
+         */
+        private Map<String, Long> tableStatementCounts;
+        
+        /**
+         * 压缩后文件大小（字节）
+         */
+        private Long fileSize;
     }
     
     /**
@@ -0,0 +1,43 @@
+package com.minicat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 带锁行为说明的同步 DDL 语句
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DdlStatement {
+
+    /**
+     * SQL 语句
+     */
+    private String sql;
+
+    /**
+     * 预期持有的锁：MySQL 为 ALTER TABLE 的 LOCK 级别（NONE、SHARED、EXCLUSIVE），
+     * PostgreSQL 为表级锁模式（如 ACCESS EXCLUSIVE、SHARE UPDATE EXCLUSIVE）；注释行为空
+     */
+    private String lock;
+
+    /**
+     * 执行期间是否阻塞目标表的并发写入
+     */
+    private Boolean blocksWrites;
+
+    /**
+     * 在线模式下不满足在线条件，数据库会在开始变更前直接拒绝该语句
+     */
+    @Builder.Default
+    private Boolean failFast = false;
+
+    /**
+     * 锁行为说明
+     */
+    private String description;
+}
@@ -0,0 +1,42 @@
+package com.minicat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 表依赖图
+ *
+ * 按外键引用关系分层：同一层的表之间没有依赖，可以并行处理；
+ * 第 N 层的表只引用前 N-1 层的表。循环依赖的表放在同一层，需先建表、后建外键
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DependencyGraph {
+    
+    /**
+     * 拓扑层级，第 0 层不引用其他表
+     */
+    @Builder.Default
+    private List<List<String>> levels = new ArrayList<>();
+    
+    /**
+     * 循环依赖的表组（强连通分量），自引用不计入
+     */
+    @Builder.Default
+    private List<List<String>> cycles = new ArrayList<>();
+    
+    /**
+     * 表到其引用表的映射，只包含有外键引用的表
+     */
+    @Builder.Default
+    private Map<String, List<String>> dependencies = new LinkedHashMap<>();
+}
@@ -0,0 +1,98 @@
+package com.minicat.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+
+/**
+ * 批量结构比对请求
+ *
+ * 一个基准（连接或结构快照）对比多个目标库，基准结构只加载一次
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetCompareRequest {
+    
+    /**
+     * 基准连接 ID（与 baselineSnapshotId 二选一）
+     */
+    private String baselineConnectionId;
+    
+    /**
+     * 基准结构快照 ID
+     */
+    private String baselineSnapshotId;
+    
+    /**
+     * 目标连接 ID 列表
+     */
+    @NotEmpty(message = "目标数据库连接ID列表不能为空")
+    private List<String> targetConnectionIds;
+    
+    /**
+     * 要比对的表名列表（可选，为空则比对所有表）
+     */
+    private List<String> tables;
+    
+    /**
+     * 表名包含模式，glob（如 order_*）或 regex: 前缀的正则，整名匹配；为空表示不限
+     */
+    private List<String> includePatterns;
+    
+    /**
+     * 表名排除模式，语法同 includePatterns
+     */
+    private List<String> excludePatterns;
+    
+    /**
+     * 是否把分区子表折叠到父表（PostgreSQL），默认折叠
+     */
+    @Builder.Default
+    private Boolean collapsePartitions = true;
+    
+    /**
+     * 是否比对索引
+     */
+    @Builder.Default
+    private Boolean compareIndexes = true;
+    
+    /**
+     * 是否比对外键
+     */
+    @Builder.Default
+    private Boolean compareForeignKeys = true;
+    
+    /**
+     * 是否比对注释
+     */
+    @Builder.Default
+    private Boolean compareComments = false;
+    
+    /**
+     * 同时比对的目标库数量
+     */
+    @Builder.Default
+    @Min(value = 1, message = "并发数不能小于 1")
+    @Max(value = 32, message = "并发数不能大于 32")
+    private Integer parallelism = 4;
+    
+    /**
+     * 基准连接和基准快照必须且只能指定一个
+     */
+    @JsonIgnore
+    @AssertTrue(message = "基准需要且只能指定连接ID或快照ID之一")
+    public boolean isBaselineSpecified() {
+        return StringUtils.isNotBlank(baselineConnectionId) != StringUtils.isNotBlank(baselineSnapshotId);
+    }
+}
@@ -0,0 +1,134 @@
+package com.minicat.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 批量结构比对结果
+ *
+ * 漂移矩阵只包含至少在一个目标库中存在差异的表；详细差异只保留给发生漂移的目标库
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetCompareResult {
+    
+    /**
+     * 任务 ID
+     */
+    private String taskId;
+    
+    /**
+     * 基准连接或快照 ID
+     */
+    private String baselineId;
+    
+    /**
+     * 基准名称
+     */
+    private String baselineName;
+    
+    /**
+     * 基准整库指纹
+     */
+    private String baselineFingerprint;
+    
+    /**
+     * 基准表数量
+     */
+    private Integer baselineTableCount;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime startTime;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime endTime;
+    
+    /**
+     * 比对状态：RUNNING、COMPLETED、FAILED
+     */
+    private String status;
+    
+    /**
+     * 各目标库结果
+     */
+    @Builder.Default
+    private List<FleetTarget> targets = new ArrayList<>();
+    
+    /**
+     * 漂移矩阵：表名 -> 目标连接 ID -> 差异类型（ADD、DELETE、MODIFY）
+     */
+    @Builder.Default
+    private Map<String, Map<String, String>> driftMatrix = new TreeMap<>();
+    
+    /**
+     * 结构一致的目标库数量
+     */
+    private int identicalCount;
+    
+    /**
+     * 发生漂移的目标库数量
+     */
+    private int driftedCount;
+    
+    /**
+     * 比对失败的目标库数量
+     */
+    private int failedCount;
+    
+    /**
+     * 错误信息（如果失败）
+     */
+    private String errorMessage;
+    
+    /**
+     * 单个目标库的比对结果
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FleetTarget {
+        
+        private String connectionId;
+        
+        private String connectionName;
+        
+        /**
+         * IDENTICAL、DRIFTED、FAILED
+         */
+        private String status;
+        
+        /**
+         * 目标整库指纹
+         */
+        private String fingerprint;
+        
+        /**
+         * 存在差异的表数量
+         */
+        private int driftedTableCount;
+        
+        /**
+         * 比对耗时（毫秒）
+         */
+        private long elapsedMs;
+        
+        /**
+         * 详细差异，只包含有差异的表；结构一致时为空
+         */
+        private SchemaDiffResult diff;
+        
+        private String errorMessage;
+    }
+}
@@ -43,6 +43,11 @@ public class IndexDiff {
      */
     private String description;
     
+    /**
+     * 目标表行数估算（来自统计信息），用于评估缺失索引的影响
+     */
+    private Long targetRowEstimate;
+    
     /**
      * 索引信息
      */
@@ -76,10 +81,20 @@ public class IndexDiff {
          */
         private List<String> columns;
         
+        /**
+         * 前缀索引长度（MySQL），与 columns 一一对应，整列索引为 null；为空表示没有前缀列
+         */
+        private List<Integer> prefixLengths;
+        
         /**
          * 索引注释
          */
         private String comment;
+        
+        /**
+         * 是否由约束创建（PostgreSQL 唯一约束），删除时需 DROP CONSTRAINT
+         */
+        private Boolean constraint;
     }
 }
 
@@ -0,0 +1,51 @@
+package com.minicat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 表元数据缓存统计
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetadataCacheStats {
+    
+    /**
+     * 命中次数
+     */
+    private Long hits;
+    
+    /**
+     * 未命中次数（包括过期）
+     */
+    private Long misses;
+    
+    /**
+     * 命中率
+     */
+    private Double hitRate;
+    
+    /**
+     * 因过期重新加载的次数
+     */
+    private Long expirations;
+    
+    /**
+     * 显式失效的条目数
+     */
+    private Long invalidations;
+    
+    /**
+     * 当前缓存条目数
+     */
+    private Integer entries;
+    
+    /**
+     * 缓存有效期（秒）
+     */
+    private Long ttlSeconds;
+}
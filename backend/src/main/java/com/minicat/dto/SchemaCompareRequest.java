@@ -1,10 +1,12 @@
 package com.minicat.dto;
 
-import jakarta.validation.constraints.NotBlank;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import lombok.Data;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
 
 import java.util.List;
 
@@ -20,22 +22,46 @@ import java.util.List;
 public class SchemaCompareRequest {
     
     /**
-     * 源数据库连接 ID
+     * 源数据库连接 ID（与 sourceSnapshotId 二选一）
      */
-    @NotBlank(message = "源数据库连接ID不能为空")
     private String sourceConnectionId;
     
     /**
-     * 目标数据库连接 ID
+     * 源结构快照 ID
+     */
+    private String sourceSnapshotId;
+    
+    /**
+     * 目标数据库连接 ID（与 targetSnapshotId 二选一）
      */
-    @NotBlank(message = "目标数据库连接ID不能为空")
     private String targetConnectionId;
     
+    /**
+     * 目标结构快照 ID
+     */
+    private String targetSnapshotId;
+    
     /**
      * 要比对的表名列表（可选，为空则比对所有表）
      */
     private List<String> tables;
     
+    /**
+     * 表名包含模式，glob（如 order_*）或 regex: 前缀的正则，整名匹配；为空表示不限
+     */
+    private List<String> includePatterns;
+    
+    /**
+     * 表名排除模式，语法同 includePatterns
+     */
+    private List<String> excludePatterns;
+    
+    /**
+     * 是否把分区子表折叠到父表（PostgreSQL），默认折叠
+     */
+    @Builder.Default
+    private Boolean collapsePartitions = true;
+    
     /**
      * 是否比对索引
      */
@@ -50,5 +76,28 @@ public class SchemaCompareRequest {
      * 是否比对注释
      */
     private Boolean compareComments = false;
+    
+    /**
+     * 是否启用结构指纹快速路径：同方言两侧指纹相同的表直接判定为相同，只对指纹不同的表做详细比对
+     */
+    @Builder.Default
+    private Boolean useFingerprint = true;
+    
+    /**
+     * 源库连接和源快照必须且只能指定一个
+     */
+    @JsonIgnore
+    @AssertTrue(message = "源库需要且只能指定连接ID或快照ID之一")
+    public boolean isSourceSpecified() {
+        return StringUtils.isNotBlank(sourceConnectionId) != StringUtils.isNotBlank(sourceSnapshotId);
+    }
+    
+    /**
+     * 目标库连接和目标快照必须且只能指定一个
+     */
+    @JsonIgnore
+    @AssertTrue(message = "目标库需要且只能指定连接ID或快照ID之一")
+    public boolean isTargetSpecified() {
+        return StringUtils.isNotBlank(targetConnectionId) != StringUtils.isNotBlank(targetSnapshotId);
+    }
 }
-
@@ -36,6 +36,11 @@ public class SchemaDiffResult {
      */
     private String sourceConnectionName;
     
+    /**
+     * 源结构快照 ID（源为快照时）
+     */
+    private String sourceSnapshotId;
+    
     /**
      * 目标数据库连接 ID
      */
@@ -46,6 +51,16 @@ public class SchemaDiffResult {
      */
     private String targetConnectionName;
     
+    /**
+     * 目标结构快照 ID（目标为快照时）
+     */
+    private String targetSnapshotId;
+    
+    /**
+     * 目标数据库类型，用于生成同步 SQL
+     */
+    private String targetDatabaseType;
+    
     /**
      * 比对开始时间
      */
@@ -63,12 +78,27 @@ public class SchemaDiffResult {
      */
     private String status;
     
+    /**
+     * 源库结构指纹（未启用指纹快速路径时为空）
+     */
+    private String sourceFingerprint;
+    
+    /**
+     * 目标库结构指纹
+     */
+    private String targetFingerprint;
+    
     /**
      * 表差异列表
      */
     @Builder.Default
     private List<TableDiff> tableDiffs = new ArrayList<>();
     
+    /**
+     * 源库表依赖图（按外键分层）
+     */
+    private DependencyGraph dependencyGraph;
+    
     /**
      * 统计信息
      */
@@ -117,6 +147,11 @@ public class SchemaDiffResult {
          */
         private int identicalTableCount;
         
+        /**
+         * 指纹一致、跳过详细比对的表数量
+         */
+        private int fingerprintMatchedCount;
+        
         /**
          * 列差异总数
          */
@@ -127,6 +162,11 @@ public class SchemaDiffResult {
          */
         private int indexDiffCount;
         
+        /**
+         * 已有表上缺失的索引数量
+         */
+        private int missingIndexCount;
+        
         /**
          * 外键差异总数
          */
@@ -170,6 +210,12 @@ public class SchemaDiffResult {
                 .mapToInt(t -> t.getIndexDiffs().size())
                 .sum();
         
+        statistics.missingIndexCount = (int) tableDiffs.stream()
+                .filter(t -> "MODIFY".equals(t.getDiffType()))
+                .flatMap(t -> t.getIndexDiffs().stream())
+                .filter(i -> "ADD".equals(i.getDiffType()))
+                .count();
+        
         statistics.foreignKeyDiffCount = tableDiffs.stream()
                 .mapToInt(t -> t.getForeignKeyDiffs().size())
                 .sum();
@@ -0,0 +1,127 @@
+package com.minicat.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 结构快照
+ *
+ * 某一时刻连接的完整结构（列、主键、索引、外键、行数估算）及分类指纹摘要，
+ * 以 gzip 压缩的 JSON 保存在 diffs/schema 目录，可代替在线库参与结构比对。
+ * 摘要字段写在表结构之前，列表接口读到 tables 即可停止解析
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"id", "description", "connectionId", "connectionName", "databaseType", "schemaName",
+        "createdTime", "tableCount", "fingerprint", "fileSize", "tables", "references"})
+public class SchemaSnapshot {
+    
+    /**
+     * 快照 ID
+     */
+    private String id;
+    
+    /**
+     * 快照描述（如发布版本号）
+     */
+    private String description;
+    
+    /**
+     * 采集来源连接 ID
+     */
+    private String connectionId;
+    
+    /**
+     * 采集来源连接名称
+     */
+    private String connectionName;
+    
+    /**
+     * 数据库类型：mysql、postgresql
+     */
+    private String databaseType;
+    
+    /**
+     * MySQL 为数据库名，PostgreSQL 为 schema 名
+     */
+    private String schemaName;
+    
+    /**
+     * 采集时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdTime;
+    
+    /**
+     * 表数量
+     */
+    private Integer tableCount;
+    
+    /**
+     * 整库指纹（包含全部描述类别）
+     */
+    private String fingerprint;
+    
+    /**
+     * 快照文件大小（字节）
+     */
+    private Long fileSize;
+    
+    /**
+     * 表结构，列表接口中不返回
+     */
+    private Map<String, TableSnapshot> tables;
+    
+    /**
+     * 表到其引用表的映射
+     */
+    private Map<String, List<String>> references;
+    
+    /**
+     * 单表结构
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class TableSnapshot {
+        
+        @Builder.Default
+        private List<ColumnDiff.ColumnInfo> columns = new ArrayList<>();
+        
+        @Builder.Default
+        private List<String> primaryKeys = new ArrayList<>();
+        
+        @Builder.Default
+        private List<IndexDiff.IndexInfo> indexes = new ArrayList<>();
+        
+        @Builder.Default
+        private List<ForeignKeyDiff.ForeignKeyInfo> foreignKeys = new ArrayList<>();
+        
+        /**
+         * 行数估算
+         */
+        private Long rowEstimate;
+        
+        /**
+         * 各描述类别的指纹摘要
+         */
+        @Builder.Default
+        private Map<String, String> fingerprints = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,28 @@
+package com.minicat.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 采集结构快照请求
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaSnapshotRequest {
+    
+    /**
+     * 连接 ID
+     */
+    @NotBlank(message = "连接ID不能为空")
+    private String connectionId;
+    
+    /**
+     * 快照描述
+     */
+    private String description;
+}
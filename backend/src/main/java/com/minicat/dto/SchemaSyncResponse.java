@@ -26,11 +26,26 @@ public class SchemaSyncResponse {
      */
     private List<String> sqlStatements;
     
+    /**
+     * 与 sqlStatements 一一对应，附带每条语句预期的锁行为
+     */
+    private List<DdlStatement> statements;
+    
+    /**
+     * 是否按在线 DDL 方式生成
+     */
+    private Boolean online;
+    
     /**
      * SQL 语句数量
      */
     private Integer sqlCount;
     
+    /**
+     * 每张表的变更合并为一条 ALTER TABLE 后避免的整表重建次数
+     */
+    private Integer avoidedRebuilds;
+    
     /**
      * 是否为预览模式
      */
@@ -0,0 +1,74 @@
+package com.minicat.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 增量同步订阅
+ * 记录源库变更日志的消费位置，后台轮询据此持续把变更应用到目标库
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "cdc_subscriptions")
+public class CdcSubscription {
+    
+    @Id
+    private String id;
+    
+    @Column(nullable = false)
+    private String sourceConnectionId;
+    
+    @Column(nullable = false)
+    private String targetConnectionId;
+    
+    @Column(nullable = false, length = 4000)
+    private String tableNames; // JSON array of table names
+    
+    @Column(nullable = false)
+    private String status; // RUNNING, STOPPED, FAILED
+    
+    @Column
+    private Long lastChangeId; // 已应用的最大变更日志 ID
+    
+    @Column
+    private Long appliedChanges;
+    
+    @Column
+    private Long pollIntervalMs;
+    
+    @Column
+    private Integer batchSize;
+    
+    @Column
+    private Boolean purgeApplied;
+    
+    @Column(length = 2000)
+    private String lastError;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdTime;
+    
+    @Column
+    private LocalDateTime updatedTime;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (createdTime == null) {
+            createdTime = LocalDateTime.now();
+        }
+        if (lastChangeId == null) {
+            lastChangeId = 0L;
+        }
+        if (appliedChanges == null) {
+            appliedChanges = 0L;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.minicat.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 数据同步检查点
+ * 记录每个任务、每张表、每种动作已提交的行数
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "sync_checkpoints")
+public class SyncCheckpoint {
+    
+    @Id
+    private String id; // taskId:tableName:action
+    
+    @Column(nullable = false)
+    private String taskId;
+    
+    @Column(nullable = false)
+    private String tableName;
+    
+    @Column(nullable = false)
+    private String action; // INSERT, UPDATE, DELETE, TABLE（整表完成标记）, INDEX:<索引名>（已移除待重建的索引）
+    
+    @Column(length = 4000)
+    private String restoreStatement; // 索引重建语句
+    
+    @Column
+    private Long committedRows;
+    
+    @Column
+    private Boolean completed;
+    
+    @Column
+    private LocalDateTime updatedTime;
+}
@@ -1,5 +1,6 @@
 package com.minicat.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -45,6 +46,10 @@ public class Task {
     @Column(length = 10000)
     private String logs; // JSON array of log messages
     
+    @JsonIgnore
+    @Column(length = 100000)
+    private String requestPayload; // JSON of the original request, used to resume the task
+    
     @PrePersist
     protected void onCreate() {
         if (startTime == null) {
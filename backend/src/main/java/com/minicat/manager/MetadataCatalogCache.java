@@ -0,0 +1,179 @@
+package com.minicat.manager;
+
+import com.minicat.dto.ConnectionDto;
+import com.minicat.dto.MetadataCacheStats;
+import com.minicat.service.schema.SchemaModel;
+import com.minicat.service.sync.ColumnMetadata;
+import com.minicat.service.sync.TableMetadataLoader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按连接缓存表元数据
+ *
+ * 一次比对加同步会在结构比对、数据比对和数据同步中反复读取同一张表的列和主键，
+ * 这里按连接 ID 缓存，过期后重新加载；执行 DDL 或修改连接配置后需调用 {@link #invalidate(String)}
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MetadataCatalogCache {
+
+    private final DatabaseConnectionManager connectionManager;
+
+    @Value("${minicat.metadata-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final Map<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    public List<ColumnMetadata> columns(ConnectionDto connection, String tableName) throws SQLException {
+        return columns(connection.getId(), connectionManager.getDataSource(connection), tableName);
+    }
+
+    public List<String> primaryKeys(ConnectionDto connection, String tableName) throws SQLException {
+        return primaryKeys(connection.getId(), connectionManager.getDataSource(connection), tableName);
+    }
+
+    /**
+     * 缓存批量加载的结构模型；已缓存模型包含所需的表且加载了所需的索引/外键时命中
+     */
+    public SchemaModel schemaModel(
+            String connectionId,
+            Collection<String> tables,
+            boolean withIndexes,
+            boolean withForeignKeys,
+            Loader<SchemaModel> loader) throws SQLException {
+        CacheKey key = new CacheKey(connectionId, Kind.SCHEMA, "");
+        CacheEntry entry = fresh(key);
+        if (entry != null && entry.value() instanceof SchemaEntry cached
+                && cached.model().tableNames().containsAll(tables)
+                && (cached.withIndexes() || !withIndexes)
+                && (cached.withForeignKeys() || !withForeignKeys)) {
+            hits.increment();
+            return cached.model();
+        }
+        misses.increment();
+        SchemaModel model = loader.load();
+        entries.put(key, new CacheEntry(new SchemaEntry(model, withIndexes, withForeignKeys), System.nanoTime()));
+        return model;
+    }
+
+    /**
+     * 使指定连接的所有缓存失效
+     */
+    public void invalidate(String connectionId) {
+        int before = entries.size();
+        entries.keySet().removeIf(key -> key.connectionId().equals(connectionId));
+        int removed = before - entries.size();
+        if (removed > 0) {
+            invalidations.add(removed);
+            log.info("表元数据缓存失效 连接{} 条目{}", connectionId, removed);
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.add(entries.size());
+        entries.clear();
+        log.info("表元数据缓存已全部清空");
+    }
+
+    public MetadataCacheStats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return MetadataCacheStats.builder()
+                .hits(hitCount)
+                .misses(missCount)
+                .hitRate(total == 0 ? 0.0 : (double) hitCount / total)
+                .expirations(expirations.sum())
+                .invalidations(invalidations.sum())
+                .entries(entries.size())
+                .ttlSeconds(ttlSeconds)
+                .build();
+    }
+
+    private List<ColumnMetadata> columns(String connectionId, DataSource dataSource, String tableName) throws SQLException {
+        return get(connectionId, Kind.COLUMNS, tableName, () -> {
+            try (Connection connection = dataSource.getConnection()) {
+                return TableMetadataLoader.loadColumns(connection, tableName);
+            }
+        });
+    }
+
+    private List<String> primaryKeys(String connectionId, DataSource dataSource, String tableName) throws SQLException {
+        return get(connectionId, Kind.PRIMARY_KEYS, tableName, () -> {
+            try (Connection connection = dataSource.getConnection()) {
+                return TableMetadataLoader.loadPrimaryKeys(connection, tableName);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String connectionId, Kind kind, String tableName, Loader<T> loader) throws SQLException {
+        if (connectionId == null) {
+            return loader.load();
+        }
+        CacheKey key = new CacheKey(connectionId, kind, tableName);
+        CacheEntry entry = fresh(key);
+        if (entry != null) {
+            hits.increment();
+            return (T) entry.value();
+        }
+        misses.increment();
+        T value = loader.load();
+        // 空结果多半是表名错误或表尚未创建，不缓存
+        if (!(value instanceof Collection<?> collection) || !collection.isEmpty()) {
+            entries.put(key, new CacheEntry(value, System.nanoTime()));
+        }
+        return value;
+    }
+
+    private CacheEntry fresh(CacheKey key) {
+        CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt() > TimeUnit.SECONDS.toNanos(ttlSeconds)) {
+            entries.remove(key, entry);
+            expirations.increment();
+            return null;
+        }
+        return entry;
+    }
+
+    private enum Kind {
+        COLUMNS,
+        PRIMARY_KEYS,
+        SCHEMA
+    }
+
+    private record CacheKey(String connectionId, Kind kind, String tableName) {
+    }
+
+    private record CacheEntry(Object value, long loadedAt) {
+    }
+
+    private record SchemaEntry(SchemaModel model, boolean withIndexes, boolean withForeignKeys) {
+    }
+}
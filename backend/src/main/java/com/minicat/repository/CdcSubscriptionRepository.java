@@ -0,0 +1,15 @@
+package com.minicat.repository;
+
+import com.minicat.entity.CdcSubscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CdcSubscriptionRepository extends JpaRepository<CdcSubscription, String> {
+    
+    List<CdcSubscription> findByStatus(String status);
+    
+    List<CdcSubscription> findBySourceConnectionId(String sourceConnectionId);
+}
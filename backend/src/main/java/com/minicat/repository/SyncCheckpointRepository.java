@@ -0,0 +1,13 @@
+package com.minicat.repository;
+
+import com.minicat.entity.SyncCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SyncCheckpointRepository extends JpaRepository<SyncCheckpoint, String> {
+    
+    List<SyncCheckpoint> findByTaskId(String taskId);
+}
@@ -0,0 +1,663 @@
+package com.minicat.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minicat.dto.CdcSubscriptionRequest;
+import com.minicat.dto.ConnectionDto;
+import com.minicat.entity.CdcSubscription;
+import com.minicat.manager.DatabaseConnectionManager;
+import com.minicat.repository.CdcSubscriptionRepository;
+import com.minicat.service.sync.BinderPlan;
+import com.minicat.service.sync.ColumnMetadata;
+import com.minicat.service.sync.DatabaseDialect;
+import com.minicat.service.sync.TableMetadataLoader;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 基于触发器的增量同步服务
+ *
+ * 源表上的捕获触发器把变更行的主键写入变更日志表，后台轮询按 ID 顺序读取日志，
+ * 同一主键只保留最后一次操作：最后为删除的在目标库删除，其余按主键回查源库当前行后 upsert。
+ * 目标库事务提交后才推进消费位置，重复应用是幂等的，因此进程中断后可从记录的位置继续。
+ * 日志 ID 在插入时分配、提交后才可见，消费位置不会越过可能仍在进行中的事务留下的 ID 空洞。
+ * 订阅只捕获创建之后的变更，历史数据需先订阅、再执行一次全量同步。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeCaptureService {
+
+    static final String CHANGELOG_TABLE = "minicat_changelog";
+
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_STOPPED = "STOPPED";
+    private static final String OP_DELETE = "D";
+    private static final int FETCH_CHUNK_SIZE = 500;
+    private static final int MAX_DRAIN_ROUNDS = 10;
+
+    /**
+     * 无法查询源库进行中的事务时，ID 空洞最多等待的时间
+     */
+    private static final long GAP_TIMEOUT_MS = 5 * 60 * 1000L;
+    private static final TypeReference<List<String>> TABLES_TYPE = new TypeReference<>() {};
+    private static final TypeReference<Map<String, Object>> KEY_TYPE = new TypeReference<>() {};
+
+    private final CdcSubscriptionRepository subscriptionRepository;
+    private final ConnectionService connectionService;
+    private final DatabaseConnectionManager connectionManager;
+    private final ObjectMapper objectMapper;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, new CaptureThreadFactory());
+    private final Map<String, ScheduledFuture<?>> pollers = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, CaptureTable>> tableCache = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    /**
+     * 每个订阅同一时间只允许一个 drain：停止后立即启动时，被取消的轮询可能仍在执行
+     */
+    private final Map<String, Object> drainLocks = new ConcurrentHashMap<>();
+    private final Map<String, GapWatch> gapWatches = new ConcurrentHashMap<>();
+
+    /**
+     * 应用启动后恢复运行中的订阅
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeSubscriptions() {
+        for (CdcSubscription subscription : subscriptionRepository.findByStatus(STATUS_RUNNING)) {
+            log.info("恢复增量同步订阅: {}, 位置={}", subscription.getId(), subscription.getLastChangeId());
+            schedule(subscription);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 创建订阅：校验表结构，按需在源库安装变更日志表和触发器，并从当前日志末尾开始消费
+     */
+    public CdcSubscription createSubscription(CdcSubscriptionRequest request) {
+        ConnectionDto sourceConnection = connectionService.getConnectionById(request.getSourceConnectionId());
+        ConnectionDto targetConnection = connectionService.getConnectionById(request.getTargetConnectionId());
+        DatabaseDialect sourceDialect = DatabaseDialect.fromType(sourceConnection.getType());
+        List<String> tableNames = request.getTableNames().stream()
+                .filter(StringUtils::isNotBlank)
+                .distinct()
+                .collect(Collectors.toList());
+
+        DataSource sourceDataSource = connectionManager.getDataSource(sourceConnection);
+        DataSource targetDataSource = connectionManager.getDataSource(targetConnection);
+        Map<String, CaptureTable> tables = loadCaptureTables(sourceDataSource, targetDataSource, tableNames);
+
+        long startId;
+        try (Connection connection = sourceDataSource.getConnection()) {
+            if (Boolean.TRUE.equals(request.getInstallTriggers())) {
+                installTriggers(connection, sourceDialect, tables.values());
+            }
+            startId = currentChangeId(connection, sourceDialect);
+        } catch (SQLException e) {
+            throw new IllegalArgumentException("变更日志表不可用，请开启 installTriggers 或手动安装触发器: " + e.getMessage(), e);
+        }
+
+        CdcSubscription subscription = CdcSubscription.builder()
+                .id(UUID.randomUUID().toString())
+                .sourceConnectionId(request.getSourceConnectionId())
+                .targetConnectionId(request.getTargetConnectionId())
+                .tableNames(writeTables(tableNames))
+                .status(STATUS_RUNNING)
+                .lastChangeId(startId)
+                .appliedChanges(0L)
+                .pollIntervalMs(request.getPollIntervalMs())
+                .batchSize(request.getBatchSize())
+                .purgeApplied(request.getPurgeApplied())
+                .updatedTime(LocalDateTime.now())
+                .build();
+        subscription = subscriptionRepository.save(subscription);
+        tableCache.put(subscription.getId(), tables);
+
+        log.info("创建增量同步订阅: {}, 表={}, 起始位置={}", subscription.getId(), tableNames, startId);
+        schedule(subscription);
+        return subscription;
+    }
+
+    public List<CdcSubscription> getSubscriptions() {
+        return subscriptionRepository.findAll();
+    }
+
+    public CdcSubscription stopSubscription(String id) {
+        synchronized (lockFor(id)) {
+            CdcSubscription subscription = getSubscription(id);
+            cancel(id);
+            subscription.setStatus(STATUS_STOPPED);
+            subscription.setUpdatedTime(LocalDateTime.now());
+            log.info("停止增量同步订阅: {}", id);
+            return subscriptionRepository.save(subscription);
+        }
+    }
+
+    public CdcSubscription startSubscription(String id) {
+        synchronized (lockFor(id)) {
+            CdcSubscription subscription = getSubscription(id);
+            if (STATUS_RUNNING.equals(subscription.getStatus()) && pollers.containsKey(id)) {
+                return subscription;
+            }
+            subscription.setStatus(STATUS_RUNNING);
+            subscription.setLastError(null);
+            subscription.setUpdatedTime(LocalDateTime.now());
+            subscription = subscriptionRepository.save(subscription);
+            schedule(subscription);
+            log.info("启动增量同步订阅: {}, 位置={}", id, subscription.getLastChangeId());
+            return subscription;
+        }
+    }
+
+    /**
+     * 删除订阅；dropTriggers 为 true 时移除不再被同一源库其他订阅使用的表上的触发器
+     */
+    public void deleteSubscription(String id, boolean dropTriggers) {
+        synchronized (lockFor(id)) {
+            CdcSubscription subscription = getSubscription(id);
+            cancel(id);
+            subscriptionRepository.delete(subscription);
+            locks.remove(id);
+            drainLocks.remove(id);
+
+            if (dropTriggers) {
+                Set<String> stillCaptured = subscriptionRepository.findBySourceConnectionId(subscription.getSourceConnectionId()).stream()
+                        .flatMap(other -> readTables(other.getTableNames()).stream())
+                        .collect(Collectors.toSet());
+                List<String> tables = readTables(subscription.getTableNames()).stream()
+                        .filter(table -> !stillCaptured.contains(table))
+                        .collect(Collectors.toList());
+                dropTriggers(subscription.getSourceConnectionId(), tables);
+            }
+            log.info("删除增量同步订阅: {}", id);
+        }
+    }
+
+    private void schedule(CdcSubscription subscription) {
+        String id = subscription.getId();
+        long interval = Math.max(100L, subscription.getPollIntervalMs() == null ? 1000L : subscription.getPollIntervalMs());
+        cancel(id);
+        pollers.put(id, scheduler.scheduleWithFixedDelay(() -> poll(id), 0, interval, TimeUnit.MILLISECONDS));
+    }
+
+    private void cancel(String id) {
+        ScheduledFuture<?> future = pollers.remove(id);
+        if (future != null) {
+            future.cancel(false);
+        }
+        tableCache.remove(id);
+        gapWatches.remove(id);
+    }
+
+    /**
+     * 一次轮询：连续读取整批日志时继续消费，读不满一批或达到轮次上限时让出
+     */
+    private void poll(String id) {
+        try {
+            synchronized (drainLockFor(id)) {
+                for (int round = 0; round < MAX_DRAIN_ROUNDS; round++) {
+                    CdcSubscription subscription = subscriptionRepository.findById(id).orElse(null);
+                    if (subscription == null || !STATUS_RUNNING.equals(subscription.getStatus())) {
+                        cancel(id);
+                        return;
+                    }
+                    int consumed = drain(subscription);
+                    if (consumed < subscription.getBatchSize()) {
+                        return;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("增量同步轮询失败: {}, {}", id, e.getMessage());
+            tableCache.remove(id);
+            synchronized (lockFor(id)) {
+                subscriptionRepository.findById(id).ifPresent(subscription -> {
+                    subscription.setLastError(StringUtils.abbreviate(e.getMessage(), 2000));
+                    subscription.setUpdatedTime(LocalDateTime.now());
+                    subscriptionRepository.save(subscription);
+                });
+            }
+        }
+    }
+
+    private int drain(CdcSubscription subscription) throws SQLException, IOException {
+        ConnectionDto sourceConnection = connectionService.getConnectionById(subscription.getSourceConnectionId());
+        ConnectionDto targetConnection = connectionService.getConnectionById(subscription.getTargetConnectionId());
+        DatabaseDialect sourceDialect = DatabaseDialect.fromType(sourceConnection.getType());
+        DatabaseDialect targetDialect = DatabaseDialect.fromType(targetConnection.getType());
+        DataSource sourceDataSource = connectionManager.getDataSource(sourceConnection);
+        DataSource targetDataSource = connectionManager.getDataSource(targetConnection);
+        List<String> tableNames = readTables(subscription.getTableNames());
+        Map<String, CaptureTable> tables = tableCache.computeIfAbsent(subscription.getId(),
+                id -> loadCaptureTables(sourceDataSource, targetDataSource, tableNames));
+
+        List<ChangeEntry> changes;
+        long capturedChanges = 0;
+        long appliedRows = 0;
+        try (Connection source = sourceDataSource.getConnection();
+             Connection target = targetDataSource.getConnection()) {
+            long afterId = subscription.getLastChangeId() == null ? 0L : subscription.getLastChangeId();
+            changes = consumablePrefix(subscription.getId(), source, sourceDialect, afterId,
+                    readChanges(source, sourceDialect, afterId, subscription.getBatchSize()));
+            if (changes.isEmpty()) {
+                return 0;
+            }
+
+            // 同一主键只保留最后一次操作，按表分组；其他订阅的表只推进位置
+            Map<String, Map<String, ChangeEntry>> latestByTable = new LinkedHashMap<>();
+            for (ChangeEntry change : changes) {
+                if (tables.containsKey(change.tableName())) {
+                    latestByTable.computeIfAbsent(change.tableName(), table -> new LinkedHashMap<>())
+                            .put(change.keyJson(), change);
+                    capturedChanges++;
+                }
+            }
+
+            boolean autoCommit = target.getAutoCommit();
+            target.setAutoCommit(false);
+            try {
+                for (Map.Entry<String, Map<String, ChangeEntry>> entry : latestByTable.entrySet()) {
+                    CaptureTable table = tables.get(entry.getKey());
+                    if (table != null) {
+                        appliedRows += applyChanges(source, target, sourceDialect, targetDialect, table, entry.getValue().values());
+                    }
+                }
+                target.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                target.rollback();
+                throw e;
+            } finally {
+                target.setAutoCommit(autoCommit);
+            }
+        }
+
+        long lastChangeId = changes.get(changes.size() - 1).id();
+        synchronized (lockFor(subscription.getId())) {
+            CdcSubscription current = subscriptionRepository.findById(subscription.getId()).orElse(null);
+            if (current == null) {
+                return changes.size();
+            }
+            current.setLastChangeId(lastChangeId);
+            current.setAppliedChanges((current.getAppliedChanges() == null ? 0L : current.getAppliedChanges()) + capturedChanges);
+            current.setLastError(null);
+            current.setUpdatedTime(LocalDateTime.now());
+            subscriptionRepository.save(current);
+        }
+        log.debug("增量同步订阅 {} 应用 {} 条变更（{} 行），位置={}", subscription.getId(), capturedChanges, appliedRows, lastChangeId);
+
+        if (Boolean.TRUE.equals(subscription.getPurgeApplied())) {
+            purgeChangelog(subscription.getSourceConnectionId(), sourceDataSource, sourceDialect);
+        }
+        return changes.size();
+    }
+
+    private long applyChanges(
+            Connection source,
+            Connection target,
+            DatabaseDialect sourceDialect,
+            DatabaseDialect targetDialect,
+            CaptureTable table,
+            Iterable<ChangeEntry> changes) throws SQLException, IOException {
+        List<Map<String, Object>> deletedKeys = new ArrayList<>();
+        List<Map<String, Object>> changedKeys = new ArrayList<>();
+        for (ChangeEntry change : changes) {
+            Map<String, Object> key = objectMapper.readerFor(KEY_TYPE)
+                    .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                    .readValue(change.keyJson());
+            (OP_DELETE.equals(change.op()) ? deletedKeys : changedKeys).add(key);
+        }
+
+        long affected = 0;
+        if (!deletedKeys.isEmpty()) {
+            String sql = "DELETE FROM " + targetDialect.table(table.tableName()) + " WHERE " + keyCondition(targetDialect, table.keyColumns());
+            try (PreparedStatement statement = target.prepareStatement(sql)) {
+                for (Map<String, Object> key : deletedKeys) {
+                    table.targetBinders().bind(statement, 1, table.keyColumns(), key);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            affected += deletedKeys.size();
+        }
+
+        // 最后一次为插入/更新但源库已查不到的行，说明之后又被删除，删除日志会在后续批次中处理
+        for (int from = 0; from < changedKeys.size(); from += FETCH_CHUNK_SIZE) {
+            List<Map<String, Object>> chunk = changedKeys.subList(from, Math.min(from + FETCH_CHUNK_SIZE, changedKeys.size()));
+            List<Map<String, Object>> rows = fetchSourceRows(source, sourceDialect, table, chunk);
+            if (rows.isEmpty()) {
+                continue;
+            }
+            List<String> columns = table.targetColumns().stream()
+                    .filter(rows.get(0)::containsKey)
+                    .collect(Collectors.toList());
+            try (PreparedStatement statement = target.prepareStatement(targetDialect.upsert(table.tableName(), columns, table.keyColumns()))) {
+                for (Map<String, Object> row : rows) {
+                    table.targetBinders().bind(statement, 1, columns, row);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            affected += rows.size();
+        }
+        return affected;
+    }
+
+    private List<Map<String, Object>> fetchSourceRows(
+            Connection source,
+            DatabaseDialect dialect,
+            CaptureTable table,
+            List<Map<String, Object>> keys) throws SQLException {
+        String condition = keys.stream()
+                .map(key -> "(" + keyCondition(dialect, table.keyColumns()) + ")")
+                .collect(Collectors.joining(" OR "));
+        String sql = "SELECT * FROM " + dialect.table(table.tableName()) + " WHERE " + condition;
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (PreparedStatement statement = source.prepareStatement(sql)) {
+            int index = 1;
+            for (Map<String, Object> key : keys) {
+                index = table.sourceBinders().bind(statement, index, table.keyColumns(), key);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                while (rs.next()) {
+                    Map<String, Object> row = new HashMap<>();
+                    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                        row.put(metaData.getColumnLabel(i), rs.getObject(i));
+                    }
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 读取位置之后的日志；同一源库的日志 ID 连续分配，需要读取所有表的日志才能识别空洞
+     */
+    private List<ChangeEntry> readChanges(
+            Connection source,
+            DatabaseDialect dialect,
+            long afterId,
+            int limit) throws SQLException {
+        String sql = "SELECT " + dialect.quote("id") + ", " + dialect.quote("table_name") + ", "
+                + dialect.quote("pk_json") + ", " + dialect.quote("op")
+                + " FROM " + dialect.table(CHANGELOG_TABLE)
+                + " WHERE " + dialect.quote("id") + " > ?"
+                + " ORDER BY " + dialect.quote("id");
+
+        List<ChangeEntry> changes = new ArrayList<>();
+        try (PreparedStatement statement = source.prepareStatement(sql)) {
+            statement.setMaxRows(limit);
+            statement.setLong(1, afterId);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    changes.add(new ChangeEntry(rs.getLong(1), rs.getString(2), rs.getString(3), StringUtils.trim(rs.getString(4))));
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * 截取可以安全消费的连续前缀
+     *
+     * 日志 ID 在插入时分配、事务提交后才可见，较小的 ID 可能晚于较大的 ID 提交；直接越过空洞推进位置
+     * 会永久漏掉这些变更，清理时还会把它们删除。遇到空洞时记录一次进行中事务的观测标记，
+     * 观测时已开始的事务全部结束后，观测时已读到的 ID 范围内仍存在的空洞才视为回滚留下的永久空洞
+     */
+    private List<ChangeEntry> consumablePrefix(
+            String subscriptionId,
+            Connection source,
+            DatabaseDialect dialect,
+            long afterId,
+            List<ChangeEntry> changes) throws SQLException {
+        if (changes.isEmpty()) {
+            return changes;
+        }
+        GapWatch watch = gapWatches.get(subscriptionId);
+        boolean settled = watch != null && transactionsSettled(source, dialect, watch);
+        long settledUpTo = settled ? watch.upToId() : afterId;
+
+        long expected = afterId + 1;
+        int end = 0;
+        for (ChangeEntry change : changes) {
+            if (change.id() != expected && change.id() > settledUpTo + 1) {
+                break;
+            }
+            expected = change.id() + 1;
+            end++;
+        }
+
+        if (settled) {
+            gapWatches.remove(subscriptionId);
+        }
+        if (end < changes.size() && (watch == null || settled)) {
+            long upToId = changes.get(changes.size() - 1).id();
+            gapWatches.put(subscriptionId, new GapWatch(upToId, transactionMarker(source, dialect), System.currentTimeMillis()));
+            log.debug("增量同步订阅 {} 在变更日志 ID {} 处遇到空洞，等待进行中的事务结束", subscriptionId, expected);
+        }
+        return changes.subList(0, end);
+    }
+
+    private Object transactionMarker(Connection source, DatabaseDialect dialect) throws SQLException {
+        try (Statement statement = source.createStatement();
+             ResultSet rs = statement.executeQuery(dialect.transactionMarkerSql())) {
+            return rs.next() ? rs.getObject(1) : null;
+        }
+    }
+
+    /**
+     * 观测标记时已开始的事务是否都已结束；无权限查询时退化为按时间等待
+     */
+    private boolean transactionsSettled(Connection source, DatabaseDialect dialect, GapWatch watch) {
+        try (PreparedStatement statement = source.prepareStatement(dialect.pendingTransactionsSql())) {
+            statement.setObject(1, watch.marker());
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getLong(1) == 0;
+            }
+        } catch (SQLException e) {
+            log.debug("查询源库进行中的事务失败，按超时等待空洞: {}", e.getMessage());
+            return System.currentTimeMillis() - watch.observedAt() >= GAP_TIMEOUT_MS;
+        }
+    }
+
+    private long currentChangeId(Connection source, DatabaseDialect dialect) throws SQLException {
+        try (Statement statement = source.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT MAX(" + dialect.quote("id") + ") FROM " + dialect.table(CHANGELOG_TABLE))) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    /**
+     * 清理同一源库所有订阅都已应用的变更日志；消费位置不会越过未确认的空洞，因此不会删除仍可能提交的日志
+     */
+    private void purgeChangelog(String sourceConnectionId, DataSource sourceDataSource, DatabaseDialect dialect) {
+        long minApplied = subscriptionRepository.findBySourceConnectionId(sourceConnectionId).stream()
+                .mapToLong(subscription -> subscription.getLastChangeId() == null ? 0L : subscription.getLastChangeId())
+                .min()
+                .orElse(0L);
+        if (minApplied <= 0) {
+            return;
+        }
+        String sql = "DELETE FROM " + dialect.table(CHANGELOG_TABLE) + " WHERE " + dialect.quote("id") + " <= ?";
+        try (Connection connection = sourceDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, minApplied);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            log.warn("清理变更日志失败: {}", e.getMessage());
+        }
+    }
+
+    private void installTriggers(Connection connection, DatabaseDialect dialect, Iterable<CaptureTable> tables) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : dialect.changelogTableDdl(CHANGELOG_TABLE)) {
+                statement.execute(sql);
+            }
+            for (CaptureTable table : tables) {
+                for (String sql : dialect.captureTriggerDdl(CHANGELOG_TABLE, table.tableName(), table.keyColumns())) {
+                    statement.execute(sql);
+                }
+                log.info("已在源表 {} 上安装变更捕获触发器", table.tableName());
+            }
+        }
+    }
+
+    private void dropTriggers(String sourceConnectionId, List<String> tableNames) {
+        if (CollectionUtils.isEmpty(tableNames)) {
+            return;
+        }
+        ConnectionDto sourceConnection = connectionService.getConnectionById(sourceConnectionId);
+        DatabaseDialect dialect = DatabaseDialect.fromType(sourceConnection.getType());
+        try (Connection connection = connectionManager.getDataSource(sourceConnection).getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String table : tableNames) {
+                for (String sql : dialect.dropCaptureTriggerDdl(table)) {
+                    statement.execute(sql);
+                }
+                log.info("已移除源表 {} 上的变更捕获触发器", table);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("移除变更捕获触发器失败: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<String, CaptureTable> loadCaptureTables(DataSource sourceDataSource, DataSource targetDataSource, List<String> tableNames) {
+        Map<String, CaptureTable> tables = new LinkedHashMap<>();
+        try (Connection source = sourceDataSource.getConnection();
+             Connection target = targetDataSource.getConnection()) {
+            for (String tableName : tableNames) {
+                List<String> keyColumns = TableMetadataLoader.loadPrimaryKeys(source, tableName);
+                if (keyColumns.isEmpty()) {
+                    throw new IllegalArgumentException("表没有主键，无法捕获变更: " + tableName);
+                }
+                List<ColumnMetadata> sourceColumns = TableMetadataLoader.loadColumns(source, tableName);
+                List<ColumnMetadata> targetColumns = TableMetadataLoader.loadColumns(target, tableName);
+                if (targetColumns.isEmpty()) {
+                    throw new IllegalArgumentException("目标表不存在: " + tableName);
+                }
+                Set<String> targetColumnNames = targetColumns.stream()
+                        .map(ColumnMetadata::name)
+                        .collect(Collectors.toCollection(LinkedHashSet::new));
+                if (!targetColumnNames.containsAll(keyColumns)) {
+                    throw new IllegalArgumentException("目标表缺少主键列: " + tableName);
+                }
+                tables.put(tableName, new CaptureTable(
+                        tableName,
+                        keyColumns,
+                        new ArrayList<>(targetColumnNames),
+                        new BinderPlan(sourceColumns),
+                        new BinderPlan(targetColumns)));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("读取表结构失败: " + e.getMessage(), e);
+        }
+        return tables;
+    }
+
+    private String keyCondition(DatabaseDialect dialect, List<String> keyColumns) {
+        return keyColumns.stream()
+                .map(column -> dialect.quote(column) + " = ?")
+                .collect(Collectors.joining(" AND "));
+    }
+
+    private CdcSubscription getSubscription(String id) {
+        return subscriptionRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("增量同步订阅不存在: " + id));
+    }
+
+    private Object lockFor(String id) {
+        return locks.computeIfAbsent(id, key -> new Object());
+    }
+
+    private Object drainLockFor(String id) {
+        return drainLocks.computeIfAbsent(id, key -> new Object());
+    }
+
+    private String writeTables(List<String> tableNames) {
+        try {
+            return objectMapper.writeValueAsString(tableNames);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化表名列表失败", e);
+        }
+    }
+
+    private List<String> readTables(String json) {
+        try {
+            return StringUtils.isBlank(json) ? List.of() : objectMapper.readValue(json, TABLES_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("解析表名列表失败", e);
+        }
+    }
+
+    private record ChangeEntry(long id, String tableName, String keyJson, String op) {
+    }
+
+    /**
+     * ID 空洞的观测记录
+     *
+     * @param upToId     观测时已读到的最大日志 ID
+     * @param marker     观测时的进行中事务标记
+     * @param observedAt 观测时间
+     */
+    private record GapWatch(long upToId, Object marker, long observedAt) {
+    }
+
+    private record CaptureTable(
+            String tableName,
+            List<String> keyColumns,
+            List<String> targetColumns,
+            BinderPlan sourceBinders,
+            BinderPlan targetBinders) {
+    }
+
+    private static final class CaptureThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "minicat-cdc-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
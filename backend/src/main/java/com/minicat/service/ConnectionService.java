@@ -7,6 +7,7 @@ import com.minicat.dto.ConnectionDto;
 import com.minicat.exception.ConnectionNotFoundException;
 import com.minicat.exception.ConnectionTestException;
 import com.minicat.manager.DatabaseConnectionManager;
+import com.minicat.manager.MetadataCatalogCache;
 import com.minicat.util.EncryptionUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -29,11 +30,16 @@ public class ConnectionService {
 
     private final EncryptionUtil encryptionUtil;
     private final DatabaseConnectionManager connectionManager;
+    private final MetadataCatalogCache metadataCatalogCache;
     private final ObjectMapper objectMapper;
 
-    public ConnectionService(EncryptionUtil encryptionUtil, DatabaseConnectionManager connectionManager) {
+    public ConnectionService(
+            EncryptionUtil encryptionUtil,
+            DatabaseConnectionManager connectionManager,
+            MetadataCatalogCache metadataCatalogCache) {
         this.encryptionUtil = encryptionUtil;
         this.connectionManager = connectionManager;
+        this.metadataCatalogCache = metadataCatalogCache;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
     }
@@ -109,6 +115,8 @@ public class ConnectionService {
 
                 connections.set(i, connection);
                 saveConnections(connections);
+                // 连接可能已指向其他库，缓存的表结构不再可信
+                metadataCatalogCache.invalidate(id);
                 return connection;
             }
         }
@@ -122,6 +130,7 @@ public class ConnectionService {
         boolean removed = connections.removeIf(c -> c.getId().equals(id));
         if (removed) {
             saveConnections(connections);
+            metadataCatalogCache.invalidate(id);
         }
         return removed;
     }
@@ -3,6 +3,7 @@ package com.minicat.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.minicat.dto.*;
 import com.minicat.entity.Task;
+import com.minicat.service.schema.TableFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -11,6 +12,13 @@ import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 数据比对服务
@@ -24,6 +32,7 @@ public class DataComparatorService {
     
     private final ConnectionService connectionService;
     private final com.minicat.manager.DatabaseConnectionManager connectionManager;
+    private final com.minicat.manager.MetadataCatalogCache metadataCatalogCache;
     private final SchemaComparatorService schemaComparatorService;
     private final TaskService taskService;
     private final ObjectMapper objectMapper;
@@ -35,6 +44,13 @@ public class DataComparatorService {
      * @return 比对结果
      */
     public DataDiffResult compareData(DataCompareRequest request) {
+        if (request.hasTablePatterns()) {
+            request.setTableNames(resolveTableNames(request));
+        }
+        if (request.getTargetConnectionIds() != null && !request.getTargetConnectionIds().isEmpty()) {
+            return compareDataFanOut(request);
+        }
+
         log.info("开始数据比对: 源库={}, 目标库={}, 表数量={}", 
                 request.getSourceConnectionId(), 
                 request.getTargetConnectionId(),
@@ -120,6 +136,197 @@ public class DataComparatorService {
         return result;
     }
     
+    /**
+     * 按包含/排除模式从源库目录解析要比对的表，已指定的表名作为额外的限制条件
+     */
+    private List<String> resolveTableNames(DataCompareRequest request) {
+        TableFilter filter = TableFilter.of(request.getTableNames(), request.getIncludePatterns(),
+                request.getExcludePatterns(), request.getCollapsePartitions());
+        List<String> tableNames = schemaComparatorService.getTableNames(request.getSourceConnectionId(), filter);
+        if (tableNames.isEmpty()) {
+            throw new IllegalArgumentException("源库中没有与表名模式匹配的表");
+        }
+        log.info("按表名模式解析出 {} 张表", tableNames.size());
+        return tableNames;
+    }
+    
+    /**
+     * 多目标比对
+     * 
+     * 每张表的源数据只读取一次，逐行分发到各目标的比对流水线；
+     * 每个目标有独立的有界缓冲，慢目标最多让源读取等待一个缓冲的长度，单个目标失败不影响其他目标
+     */
+    public DataDiffResult compareDataFanOut(DataCompareRequest request) {
+        List<String> targetIds = new ArrayList<>(new LinkedHashSet<>(request.getTargetConnectionIds()));
+        log.info("开始多目标数据比对: 源库={}, 目标库={}, 表数量={}",
+                request.getSourceConnectionId(), targetIds, request.getTableNames().size());
+        
+        Task task = taskService.createTask("data_compare");
+        
+        DataDiffResult result = DataDiffResult.builder()
+                .taskId(task.getId())
+                .sourceConnectionId(request.getSourceConnectionId())
+                .startTime(LocalDateTime.now())
+                .status("RUNNING")
+                .tableDiffs(new ArrayList<>())
+                .targetResults(new ArrayList<>())
+                .build();
+        
+        ExecutorService executor = null;
+        try {
+            ConnectionDto sourceConn = connectionService.getConnectionById(request.getSourceConnectionId());
+            result.setSourceConnectionName(sourceConn.getName());
+            DataSource sourceDs = connectionManager.getDataSource(sourceConn);
+            
+            // 目标连接不可用时只标记该目标失败
+            List<FanOutTarget> targets = new ArrayList<>();
+            for (String targetId : targetIds) {
+                DataDiffResult targetResult = DataDiffResult.builder()
+                        .taskId(task.getId())
+                        .sourceConnectionId(request.getSourceConnectionId())
+                        .sourceConnectionName(sourceConn.getName())
+                        .targetConnectionId(targetId)
+                        .startTime(result.getStartTime())
+                        .status("RUNNING")
+                        .tableDiffs(new ArrayList<>())
+                        .build();
+                result.getTargetResults().add(targetResult);
+                try {
+                    ConnectionDto targetConn = connectionService.getConnectionById(targetId);
+                    targetResult.setTargetConnectionName(targetConn.getName());
+                    targets.add(new FanOutTarget(targetConn, connectionManager.getDataSource(targetConn), targetResult));
+                } catch (Exception e) {
+                    log.error("目标库 {} 不可用", targetId, e);
+                    targetResult.setStatus("FAILED");
+                    targetResult.setErrorMessage(e.getMessage());
+                    targetResult.setEndTime(LocalDateTime.now());
+                }
+            }
+            
+            if (!targets.isEmpty()) {
+                executor = Executors.newFixedThreadPool(targets.size());
+                int tableIndex = 0;
+                for (String tableName : request.getTableNames()) {
+                    log.info("开始多目标比对表: {}", tableName);
+                    compareTableFanOut(sourceDs, sourceConn, targets, tableName, request.getOptions(), executor);
+                    tableIndex++;
+                    taskService.updateTaskProgress(task.getId(),
+                            Math.min(99, tableIndex * 100 / request.getTableNames().size()),
+                            "表 " + tableName + " 多目标比对完成");
+                }
+            }
+            
+            for (FanOutTarget target : targets) {
+                target.result().setStatus("COMPLETED");
+                target.result().setEndTime(LocalDateTime.now());
+                target.result().calculateStatistics();
+            }
+            
+            result.setStatus("COMPLETED");
+            result.setEndTime(LocalDateTime.now());
+            log.info("多目标数据比对完成: 目标数={}", targetIds.size());
+            
+            taskService.updateTaskProgress(task.getId(), 100, "多目标数据比对完成");
+            
+        } catch (Exception e) {
+            log.error("多目标数据比对失败", e);
+            result.setStatus("FAILED");
+            result.setErrorMessage(e.getMessage());
+            result.setEndTime(LocalDateTime.now());
+            
+            taskService.failTask(task.getId(), e.getMessage());
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * 多目标比对单个表：源表读取一次，分发给各目标流水线
+     */
+    private void compareTableFanOut(
+            DataSource sourceDs,
+            ConnectionDto sourceConn,
+            List<FanOutTarget> targets,
+            String tableName,
+            DataCompareRequest.CompareOptions options,
+            ExecutorService executor) throws InterruptedException {
+        
+        List<String> primaryKeys;
+        long sourceRowCount;
+        try {
+            primaryKeys = metadataCatalogCache.primaryKeys(sourceConn, tableName);
+            sourceRowCount = primaryKeys.isEmpty() ? 0 : countRows(sourceDs, tableName, sourceConn.getType());
+        } catch (SQLException e) {
+            log.error("读取源表 {} 失败", tableName, e);
+            targets.forEach(target -> target.result().getTableDiffs().add(TableDataDiff.builder()
+                    .tableName(tableName)
+                    .status("FAILED")
+                    .errorMessage(e.getMessage())
+                    .build()));
+            return;
+        }
+        
+        if (primaryKeys.isEmpty()) {
+            log.warn("表 {} 没有主键，无法进行数据比对", tableName);
+            targets.forEach(target -> target.result().getTableDiffs().add(TableDataDiff.builder()
+                    .tableName(tableName)
+                    .status("NO_PRIMARY_KEY")
+                    .errorMessage("表没有主键，无法进行数据比对")
+                    .build()));
+            return;
+        }
+        
+        boolean compareContent = Boolean.TRUE.equals(options.getCompareContent());
+        int bufferSize = Math.max(1, options.getFanOutBufferSize() != null ? options.getFanOutBufferSize() : 10000);
+        List<TargetPipeline> pipelines = new ArrayList<>();
+        List<Future<TableDataDiff>> futures = new ArrayList<>();
+        for (FanOutTarget target : targets) {
+            TargetPipeline pipeline = new TargetPipeline(target, bufferSize);
+            pipelines.add(pipeline);
+            futures.add(executor.submit(() -> pipeline.compare(tableName, primaryKeys, sourceRowCount, compareContent, options)));
+        }
+        
+        String sourceError = null;
+        if (compareContent) {
+            try {
+                streamTableData(sourceDs, tableName, primaryKeys, sourceConn.getType(), options, (pkValue, row) -> {
+                    for (TargetPipeline pipeline : pipelines) {
+                        pipeline.offer(new SourceRow(pkValue, row));
+                    }
+                });
+            } catch (SQLException e) {
+                log.error("读取源表 {} 数据失败", tableName, e);
+                sourceError = e.getMessage();
+                pipelines.forEach(TargetPipeline::abort);
+            }
+            for (TargetPipeline pipeline : pipelines) {
+                pipeline.offer(SourceRow.END);
+            }
+        }
+        
+        for (int i = 0; i < targets.size(); i++) {
+            TableDataDiff tableDiff;
+            try {
+                tableDiff = futures.get(i).get();
+                if (sourceError != null) {
+                    tableDiff = TableDataDiff.builder().tableName(tableName).status("FAILED").errorMessage(sourceError).build();
+                }
+            } catch (ExecutionException e) {
+                log.error("目标库 {} 比对表 {} 失败", targets.get(i).connection().getName(), tableName, e.getCause());
+                tableDiff = TableDataDiff.builder()
+                        .tableName(tableName)
+                        .status("FAILED")
+                        .errorMessage(sourceError != null ? sourceError : e.getCause().getMessage())
+                        .build();
+            }
+            targets.get(i).result().getTableDiffs().add(tableDiff);
+        }
+    }
+    
     /**
      * 比对单个表的数据
      */
@@ -136,7 +343,7 @@ public class DataComparatorService {
                 .status("SUCCESS");
         
         // 获取主键列
-        List<String> primaryKeys = getPrimaryKeys(sourceDs, tableName, sourceConn);
+        List<String> primaryKeys = metadataCatalogCache.primaryKeys(sourceConn, tableName);
         
         if (primaryKeys.isEmpty()) {
             log.warn("表 {} 没有主键，无法进行数据比对", tableName);
@@ -207,64 +414,9 @@ public class DataComparatorService {
         allKeys.addAll(sourceData.keySet());
         allKeys.addAll(targetData.keySet());
 
-        // 样本采集策略：确保每种类型都能被采集到
-        int maxSamplesPerType = 5; // 每种类型最多5条样本
-        int insertSampleCount = 0;
-        int updateSampleCount = 0;
-        int deleteSampleCount = 0;
-
         // 比对每一行
         for (String pkValue : allKeys) {
-            Map<String, Object> sourceRow = sourceData.get(pkValue);
-            Map<String, Object> targetRow = targetData.get(pkValue);
-
-            if (sourceRow != null && targetRow != null) {
-                // 两边都有，检查是否相同
-                if (rowsEqual(sourceRow, targetRow, options)) {
-                    counts.identicalCount++;
-                } else {
-                    counts.updateCount++;
-
-                    TableDataDiff.RowDiff rowDiff = createRowDiff("UPDATE", pkValue, sourceRow, targetRow);
-
-                    // 保存到所有差异列表
-                    counts.allDiffs.add(rowDiff);
-
-                    // 保存UPDATE样本
-                    if (updateSampleCount < maxSamplesPerType) {
-                        counts.sampleDiffs.add(rowDiff);
-                        updateSampleCount++;
-                    }
-                }
-            } else if (sourceRow != null) {
-                // 只在源库存在
-                counts.insertCount++;
-
-                TableDataDiff.RowDiff rowDiff = createRowDiff("INSERT", pkValue, sourceRow, null);
-
-                // 保存到所有差异列表
-                counts.allDiffs.add(rowDiff);
-
-                // 保存INSERT样本
-                if (insertSampleCount < maxSamplesPerType) {
-                    counts.sampleDiffs.add(rowDiff);
-                    insertSampleCount++;
-                }
-            } else {
-                // 只在目标库存在
-                counts.deleteCount++;
-
-                TableDataDiff.RowDiff rowDiff = createRowDiff("DELETE", pkValue, null, targetRow);
-
-                // 保存到所有差异列表
-                counts.allDiffs.add(rowDiff);
-
-                // 保存DELETE样本
-                if (deleteSampleCount < maxSamplesPerType) {
-                    counts.sampleDiffs.add(rowDiff);
-                    deleteSampleCount++;
-                }
-            }
+            recordRow(counts, pkValue, sourceData.get(pkValue), targetData.get(pkValue), options);
         }
 
         log.info("表 {} 差异统计: INSERT={}, UPDATE={}, DELETE={}, 样本数={}",
@@ -273,6 +425,35 @@ public class DataComparatorService {
         return counts;
     }
     
+    /**
+     * 比对一行并计入差异，每种差异类型最多保留若干条样本
+     */
+    private void recordRow(
+            DataDiffCounts counts,
+            String pkValue,
+            Map<String, Object> sourceRow,
+            Map<String, Object> targetRow,
+            DataCompareRequest.CompareOptions options) {
+
+        if (sourceRow != null && targetRow != null) {
+            // 两边都有，检查是否相同
+            if (rowsEqual(sourceRow, targetRow, options)) {
+                counts.identicalCount++;
+            } else {
+                counts.updateCount++;
+                counts.addDiff(createRowDiff("UPDATE", pkValue, sourceRow, targetRow));
+            }
+        } else if (sourceRow != null) {
+            // 只在源库存在
+            counts.insertCount++;
+            counts.addDiff(createRowDiff("INSERT", pkValue, sourceRow, null));
+        } else if (targetRow != null) {
+            // 只在目标库存在
+            counts.deleteCount++;
+            counts.addDiff(createRowDiff("DELETE", pkValue, null, targetRow));
+        }
+    }
+
     /**
      * 获取表的所有数据
      */
@@ -281,47 +462,75 @@ public class DataComparatorService {
             String tableName,
             List<String> primaryKeys,
             String dbType,
-            DataCompareRequest.CompareOptions options) throws SQLException {
+            DataCompareRequest.CompareOptions options) throws SQLException, InterruptedException {
 
         Map<String, Map<String, Object>> data = new LinkedHashMap<>();
+        streamTableData(dataSource, tableName, primaryKeys, dbType, options, data::put);
+        return data;
+    }
+
+    /**
+     * 按主键顺序逐行读取表数据（游标方式，不在驱动中缓存整个结果集）
+     */
+    private void streamTableData(
+            DataSource dataSource,
+            String tableName,
+            List<String> primaryKeys,
+            String dbType,
+            DataCompareRequest.CompareOptions options,
+            RowHandler handler) throws SQLException, InterruptedException {
 
         String sql = buildSelectSql(tableName, primaryKeys, dbType);
         
-        try (Connection conn = dataSource.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
-            
-            int rowCount = 0;
-            int maxRows = options.getMaxRows() != null ? options.getMaxRows() : 0;
-            
-            while (rs.next()) {
-                // 检查最大行数限制
-                if (maxRows > 0 && rowCount >= maxRows) {
-                    log.info("达到最大行数限制: {}", maxRows);
-                    break;
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            // PostgreSQL 仅在非自动提交下按 fetchSize 分批读取；MySQL 以 Integer.MIN_VALUE 开启流式读取
+            if (!"mysql".equals(dbType)) {
+                conn.setAutoCommit(false);
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.setFetchSize("mysql".equals(dbType) ? Integer.MIN_VALUE
+                        : (options.getBatchSize() != null ? options.getBatchSize() : 1000));
+                if (options.getMaxRows() != null && options.getMaxRows() > 0) {
+                    stmt.setMaxRows(options.getMaxRows());
                 }
-                
-                Map<String, Object> row = new LinkedHashMap<>();
-                
-                // 读取所有列
-                for (int i = 1; i <= columnCount; i++) {
-                    String columnName = metaData.getColumnName(i);
-                    Object value = rs.getObject(i);
-                    row.put(columnName, value);
+
+                try (ResultSet rs = stmt.executeQuery(sql)) {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    int columnCount = metaData.getColumnCount();
+                    
+                    int rowCount = 0;
+                    int maxRows = options.getMaxRows() != null ? options.getMaxRows() : 0;
+                    
+                    while (rs.next()) {
+                        // 检查最大行数限制
+                        if (maxRows > 0 && rowCount >= maxRows) {
+                            log.info("达到最大行数限制: {}", maxRows);
+                            break;
+                        }
+                        
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        
+                        // 读取所有列
+                        for (int i = 1; i <= columnCount; i++) {
+                            String columnName = metaData.getColumnName(i);
+                            Object value = rs.getObject(i);
+                            row.put(columnName, value);
+                        }
+                        
+                        // 构建主键值
+                        handler.accept(buildPrimaryKeyValue(row, primaryKeys), row);
+                        
+                        rowCount++;
+                    }
+                }
+            } finally {
+                if (!"mysql".equals(dbType)) {
+                    conn.rollback();
+                    conn.setAutoCommit(autoCommit);
                 }
-                
-                // 构建主键值
-                String pkValue = buildPrimaryKeyValue(row, primaryKeys);
-                data.put(pkValue, row);
-                
-                rowCount++;
             }
         }
-        
-        return data;
     }
     
     /**
@@ -567,61 +776,171 @@ public class DataComparatorService {
         return 0;
     }
 
+    @FunctionalInterface
+    private interface RowHandler {
+        void accept(String pkValue, Map<String, Object> row) throws InterruptedException;
+    }
+    
     /**
-     * 获取主键列（复用 SchemaComparatorService 的方法）
+     * 源表中的一行，END 为结束标记
      */
-    private List<String> getPrimaryKeys(
-            DataSource dataSource,
-            String tableName,
-            ConnectionDto connection) throws SQLException {
-
-        List<String> primaryKeys = new ArrayList<>();
-
-        try (Connection conn = dataSource.getConnection()) {
-            DatabaseMetaData metaData = conn.getMetaData();
-
-            String catalog = null;
-            String schema = null;
-
-            if ("mysql".equals(connection.getType())) {
-                catalog = connection.getDatabase();
-            }
-
-            if ("postgresql".equals(connection.getType())) {
-                schema = connection.getOptions() != null ?
-                        (String) connection.getOptions().get("schema") : "public";
+    private record SourceRow(String pkValue, Map<String, Object> row) {
+        static final SourceRow END = new SourceRow(null, null);
+    }
+    
+    private record FanOutTarget(ConnectionDto connection, DataSource dataSource, DataDiffResult result) {
+    }
+    
+    /**
+     * 单个目标的比对流水线：流式读取目标表，同时消费有界队列中的源数据行
+     */
+    private class TargetPipeline {
+        
+        private final FanOutTarget target;
+        private final BlockingQueue<SourceRow> queue;
+        private volatile boolean closed;
+        
+        TargetPipeline(FanOutTarget target, int bufferSize) {
+            this.target = target;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+        
+        /**
+         * 放入一行；流水线已失败或关闭时直接丢弃，不阻塞其他目标
+         */
+        void offer(SourceRow row) throws InterruptedException {
+            while (!closed) {
+                if (queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
             }
-
-            try (ResultSet rs = metaData.getPrimaryKeys(catalog, schema, tableName)) {
-                Map<Integer, String> pkMap = new TreeMap<>();
-
-                while (rs.next()) {
-                    String columnName = rs.getString("COLUMN_NAME");
-                    String pkTableName = rs.getString("TABLE_NAME");
-                    int keySeq = rs.getInt("KEY_SEQ");
-
-                    if (tableName.equalsIgnoreCase(pkTableName)) {
-                        pkMap.put(keySeq, columnName);
+        }
+        
+        void abort() {
+            closed = true;
+        }
+        
+        TableDataDiff compare(
+                String tableName,
+                List<String> primaryKeys,
+                long sourceRowCount,
+                boolean compareContent,
+                DataCompareRequest.CompareOptions options) throws Exception {
+            try {
+                TableDataDiff.TableDataDiffBuilder builder = TableDataDiff.builder()
+                        .tableName(tableName)
+                        .status("SUCCESS")
+                        .primaryKeys(primaryKeys)
+                        .sourceRowCount(sourceRowCount)
+                        .targetRowCount(countRows(target.dataSource(), tableName, target.connection().getType()));
+                if (!compareContent) {
+                    return builder.build();
+                }
+                
+                // 读取目标表的同时消费源数据行，两侧未配对的行暂存，配对后立即比对释放；
+                // 源数据不必等目标表加载完成，两侧按主键顺序读取时暂存的行很少
+                DataDiffCounts counts = new DataDiffCounts();
+                Map<String, Map<String, Object>> pendingSource = new HashMap<>();
+                Map<String, Map<String, Object>> pendingTarget = new HashMap<>();
+                List<SourceRow> drained = new ArrayList<>();
+                boolean[] sourceDone = {false};
+                streamTableData(target.dataSource(), tableName, primaryKeys, target.connection().getType(), options, (pkValue, row) -> {
+                    Map<String, Object> sourceRow = pendingSource.remove(pkValue);
+                    if (sourceRow != null) {
+                        recordRow(counts, pkValue, sourceRow, row, options);
+                    } else {
+                        pendingTarget.put(pkValue, row);
+                    }
+                    if (!sourceDone[0]) {
+                        queue.drainTo(drained);
+                        for (SourceRow drainedRow : drained) {
+                            sourceDone[0] |= acceptSourceRow(drainedRow, counts, pendingSource, pendingTarget, options);
+                        }
+                        drained.clear();
                     }
+                });
+                
+                // 目标表读取完毕，继续消费剩余的源数据
+                while (!sourceDone[0]) {
+                    SourceRow sourceRow = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (sourceRow == null) {
+                        if (closed) {
+                            throw new IllegalStateException("源表数据读取中断");
+                        }
+                        continue;
+                    }
+                    sourceDone[0] = acceptSourceRow(sourceRow, counts, pendingSource, pendingTarget, options);
                 }
-
-                primaryKeys.addAll(pkMap.values());
+                
+                // 未配对的源行在目标库中不存在，未配对的目标行在源库中不存在
+                pendingSource.forEach((pkValue, row) -> recordRow(counts, pkValue, row, null, options));
+                pendingTarget.forEach((pkValue, row) -> recordRow(counts, pkValue, null, row, options));
+                
+                log.info("目标库 {} 表 {} 差异统计: INSERT={}, UPDATE={}, DELETE={}",
+                        target.connection().getName(), tableName, counts.insertCount, counts.updateCount, counts.deleteCount);
+                
+                return builder
+                        .insertCount(counts.insertCount)
+                        .updateCount(counts.updateCount)
+                        .deleteCount(counts.deleteCount)
+                        .identicalCount(counts.identicalCount)
+                        .sampleDiffs(counts.sampleDiffs)
+                        .allDiffs(counts.allDiffs)
+                        .build();
+            } finally {
+                closed = true;
+                queue.clear();
             }
         }
-
-        return primaryKeys;
+        
+        /**
+         * 处理一行源数据
+         *
+         * @return 是否为结束标记
+         */
+        private boolean acceptSourceRow(
+                SourceRow sourceRow,
+                DataDiffCounts counts,
+                Map<String, Map<String, Object>> pendingSource,
+                Map<String, Map<String, Object>> pendingTarget,
+                DataCompareRequest.CompareOptions options) {
+            if (sourceRow == SourceRow.END) {
+                return true;
+            }
+            Map<String, Object> targetRow = pendingTarget.remove(sourceRow.pkValue());
+            if (targetRow != null) {
+                recordRow(counts, sourceRow.pkValue(), sourceRow.row(), targetRow, options);
+            } else {
+                pendingSource.put(sourceRow.pkValue(), sourceRow.row());
+            }
+            return false;
+        }
     }
-
+    
     /**
      * 数据差异计数
      */
     private static class DataDiffCounts {
+        // 样本采集策略：确保每种类型都能被采集到，每种类型最多5条样本
+        static final int MAX_SAMPLES_PER_TYPE = 5;
+
         long insertCount = 0;
         long updateCount = 0;
         long deleteCount = 0;
         long identicalCount = 0;
         List<TableDataDiff.RowDiff> sampleDiffs = new ArrayList<>();
         List<TableDataDiff.RowDiff> allDiffs = new ArrayList<>();
+        Map<String, Integer> sampleCounts = new HashMap<>();
+
+        void addDiff(TableDataDiff.RowDiff rowDiff) {
+            if (rowDiff == null) {
+                return;
+            }
+            allDiffs.add(rowDiff);
+            if (sampleCounts.merge(rowDiff.getDiffType(), 1, Integer::sum) <= MAX_SAMPLES_PER_TYPE) {
+                sampleDiffs.add(rowDiff);
+            }
+        }
     }
 }
 
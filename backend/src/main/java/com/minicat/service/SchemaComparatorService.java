@@ -2,14 +2,27 @@ package com.minicat.service;
 
 import com.minicat.dto.*;
 import com.minicat.manager.DatabaseConnectionManager;
+import com.minicat.manager.MetadataCatalogCache;
+import com.minicat.service.dependency.TableDependencyGraph;
+import com.minicat.service.schema.LiveSchemaSide;
+import com.minicat.service.schema.SchemaFingerprint;
+import com.minicat.service.schema.SchemaModel;
+import com.minicat.service.schema.SchemaSide;
+import com.minicat.service.schema.SnapshotSchemaSide;
+import com.minicat.service.schema.TableFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.SetUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
-import javax.sql.DataSource;
-import java.sql.*;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 /**
@@ -23,8 +36,10 @@ import java.util.stream.Collectors;
 public class SchemaComparatorService {
 
     private final DatabaseConnectionManager connectionManager;
+    private final MetadataCatalogCache metadataCatalogCache;
     private final ConnectionService connectionService;
     private final TaskService taskService;
+    private final SchemaSnapshotService schemaSnapshotService;
 
     /**
      * 获取数据库的表列表
@@ -33,17 +48,25 @@ public class SchemaComparatorService {
      * @return 表名列表
      */
     public List<String> getTableNames(String connectionId) {
+        return getTableNames(connectionId, TableFilter.all());
+    }
+
+    /**
+     * 获取满足过滤条件的表列表，显式表名和 glob 模式下推到目录查询
+     *
+     * @param connectionId 连接ID
+     * @param filter       表过滤条件
+     * @return 排序后的表名列表
+     */
+    public List<String> getTableNames(String connectionId, TableFilter filter) {
         log.info("获取数据库表列表: 连接ID={}", connectionId);
 
         try {
             // 获取连接信息
             ConnectionDto connection = connectionService.getConnectionById(connectionId);
 
-            // 获取数据源
-            DataSource dataSource = connectionManager.getDataSource(connection);
-
             // 获取表列表
-            Set<String> tables = getTableNames(dataSource, connection);
+            Set<String> tables = liveSide(connection).tableNames(filter);
 
             // 转换为列表并排序
             List<String> tableList = new ArrayList<>(tables);
@@ -65,12 +88,148 @@ public class SchemaComparatorService {
      * @return 比对结果
      */
     public SchemaDiffResult compareSchema(SchemaCompareRequest request) {
-        log.info("开始结构比对: 源库={}, 目标库={}",
-                request.getSourceConnectionId(), request.getTargetConnectionId());
+        SchemaSide source = resolveSide(request.getSourceConnectionId(), request.getSourceSnapshotId(), "源");
+        SchemaSide target = resolveSide(request.getTargetConnectionId(), request.getTargetSnapshotId(), "目标");
+        return compareSides(source, target, request);
+    }
 
-        // 获取连接信息
-        ConnectionDto sourceConn = connectionService.getConnectionById(request.getSourceConnectionId());
-        ConnectionDto targetConn = connectionService.getConnectionById(request.getTargetConnectionId());
+    /**
+     * 批量结构比对：基准结构只加载一次（在线基准先读成内存快照），并发比对各目标库
+     *
+     * @param request 批量比对请求
+     * @return 漂移矩阵及发生漂移的目标库的详细差异
+     */
+    public FleetCompareResult compareFleet(FleetCompareRequest request) {
+        TableFilter filter = TableFilter.of(request.getTables(), request.getIncludePatterns(),
+                request.getExcludePatterns(), request.getCollapsePartitions());
+        boolean fromSnapshot = StringUtils.isNotBlank(request.getBaselineSnapshotId());
+        SchemaSnapshot snapshot = fromSnapshot
+                ? schemaSnapshotService.getSnapshot(request.getBaselineSnapshotId())
+                : schemaSnapshotService.buildSnapshot(
+                        connectionService.getConnectionById(request.getBaselineConnectionId()), null, filter);
+        SchemaSide baseline = new SnapshotSchemaSide(snapshot);
+        List<String> targetIds = new ArrayList<>(new LinkedHashSet<>(request.getTargetConnectionIds()));
+        log.info("开始批量结构比对: 基准={}, 目标数={}, 并发={}", baseline.name(), targetIds.size(), request.getParallelism());
+
+        FleetCompareResult result = FleetCompareResult.builder()
+                .taskId("fleet_compare_" + System.currentTimeMillis())
+                .baselineId(fromSnapshot ? snapshot.getId() : snapshot.getConnectionId())
+                .baselineName(fromSnapshot ? baseline.name() : snapshot.getConnectionName())
+                .startTime(LocalDateTime.now())
+                .status("RUNNING")
+                .build();
+
+        SchemaCompareRequest compareRequest = SchemaCompareRequest.builder()
+                .tables(request.getTables())
+                .includePatterns(request.getIncludePatterns())
+                .excludePatterns(request.getExcludePatterns())
+                .collapsePartitions(request.getCollapsePartitions())
+                .compareIndexes(request.getCompareIndexes())
+                .compareForeignKeys(request.getCompareForeignKeys())
+                .compareComments(request.getCompareComments())
+                .useFingerprint(true)
+                .build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(request.getParallelism(), targetIds.size()));
+        try {
+            List<Future<FleetCompareResult.FleetTarget>> futures = new ArrayList<>();
+            for (String targetId : targetIds) {
+                futures.add(executor.submit(() -> compareFleetTarget(baseline, targetId, compareRequest)));
+            }
+            for (Future<FleetCompareResult.FleetTarget> future : futures) {
+                result.getTargets().add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.setStatus("FAILED");
+            result.setErrorMessage("批量结构比对被中断");
+        } catch (ExecutionException e) {
+            log.error("批量结构比对失败", e.getCause());
+            result.setStatus("FAILED");
+            result.setErrorMessage(e.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try {
+            Set<String> baselineTables = baseline.tableNames(filter);
+            result.setBaselineTableCount(baselineTables.size());
+            result.setBaselineFingerprint(SchemaFingerprint.combine(SchemaFingerprint.tableFingerprints(
+                    baseline.fingerprints(baselineTables),
+                    SchemaFingerprint.parts(
+                            Boolean.TRUE.equals(request.getCompareIndexes()),
+                            Boolean.TRUE.equals(request.getCompareForeignKeys()),
+                            Boolean.TRUE.equals(request.getCompareComments())))));
+        } catch (SQLException e) {
+            // 快照基准不访问数据库，不会发生
+            throw new IllegalStateException(e);
+        }
+
+        for (FleetCompareResult.FleetTarget target : result.getTargets()) {
+            switch (target.getStatus()) {
+                case "IDENTICAL" -> result.setIdenticalCount(result.getIdenticalCount() + 1);
+                case "DRIFTED" -> {
+                    result.setDriftedCount(result.getDriftedCount() + 1);
+                    for (TableDiff tableDiff : target.getDiff().getTableDiffs()) {
+                        result.getDriftMatrix()
+                                .computeIfAbsent(tableDiff.getTableName(), table -> new TreeMap<>())
+                                .put(target.getConnectionId(), tableDiff.getDiffType());
+                    }
+                }
+                default -> result.setFailedCount(result.getFailedCount() + 1);
+            }
+        }
+
+        if (!"FAILED".equals(result.getStatus())) {
+            result.setStatus("COMPLETED");
+        }
+        result.setEndTime(LocalDateTime.now());
+        log.info("批量结构比对完成: 一致={}, 漂移={}, 失败={}",
+                result.getIdenticalCount(), result.getDriftedCount(), result.getFailedCount());
+        return result;
+    }
+
+    /**
+     * 比对单个目标库，只保留有差异的表
+     */
+    private FleetCompareResult.FleetTarget compareFleetTarget(SchemaSide baseline, String targetId, SchemaCompareRequest request) {
+        long start = System.currentTimeMillis();
+        FleetCompareResult.FleetTarget target = FleetCompareResult.FleetTarget.builder()
+                .connectionId(targetId)
+                .build();
+        try {
+            ConnectionDto connection = connectionService.getConnectionById(targetId);
+            target.setConnectionName(connection.getName());
+
+            SchemaDiffResult diff = compareSides(baseline, liveSide(connection), request);
+            target.setFingerprint(diff.getTargetFingerprint());
+            if ("FAILED".equals(diff.getStatus())) {
+                target.setStatus("FAILED");
+                target.setErrorMessage(diff.getErrorMessage());
+            } else {
+                diff.getTableDiffs().removeIf(tableDiff -> "IDENTICAL".equals(tableDiff.getDiffType()));
+                target.setDriftedTableCount(diff.getTableDiffs().size());
+                if (diff.getTableDiffs().isEmpty()) {
+                    target.setStatus("IDENTICAL");
+                } else {
+                    // 依赖图属于基准，各目标相同，不重复返回
+                    diff.setDependencyGraph(null);
+                    target.setStatus("DRIFTED");
+                    target.setDiff(diff);
+                }
+            }
+        } catch (Exception e) {
+            log.error("目标库 {} 结构比对失败", targetId, e);
+            target.setStatus("FAILED");
+            target.setErrorMessage(e.getMessage());
+        }
+        target.setElapsedMs(System.currentTimeMillis() - start);
+        return target;
+    }
+
+    private SchemaDiffResult compareSides(SchemaSide source, SchemaSide target, SchemaCompareRequest request) {
+        TableFilter filter = tableFilter(request);
+        log.info("开始结构比对: 源={}, 目标={}", source.name(), target.name());
 
         // 创建任务
         String taskId = "schema_compare_" + System.currentTimeMillis();
@@ -78,37 +237,60 @@ public class SchemaComparatorService {
         // 初始化结果
         SchemaDiffResult result = SchemaDiffResult.builder()
                 .taskId(taskId)
-                .sourceConnectionId(sourceConn.getId())
-                .sourceConnectionName(sourceConn.getName())
-                .targetConnectionId(targetConn.getId())
-                .targetConnectionName(targetConn.getName())
+                .sourceConnectionId(source.snapshot() ? null : source.id())
+                .sourceConnectionName(source.name())
+                .sourceSnapshotId(source.snapshot() ? source.id() : null)
+                .targetConnectionId(target.snapshot() ? null : target.id())
+                .targetConnectionName(target.name())
+                .targetSnapshotId(target.snapshot() ? target.id() : null)
+                .targetDatabaseType(target.databaseType())
                 .startTime(LocalDateTime.now())
                 .status("RUNNING")
                 .tableDiffs(new ArrayList<>())
                 .build();
 
         try {
-            // 获取数据源
-            DataSource sourceDs = connectionManager.getDataSource(sourceConn);
-            DataSource targetDs = connectionManager.getDataSource(targetConn);
-
-            // 获取表列表
-            Set<String> sourceTables = getTableNames(sourceDs, sourceConn);
-            Set<String> targetTables = getTableNames(targetDs, targetConn);
+            // 获取表列表，指定的表名和模式下推到目录查询
+            Set<String> sourceTables = source.tableNames(filter);
+            Set<String> targetTables = target.tableNames(filter);
 
             log.info("源库表数量: {}, 目标库表数量: {}", sourceTables.size(), targetTables.size());
 
-            // 如果指定了要比对的表，则只比对这些表
-            if (request.getTables() != null && !request.getTables().isEmpty()) {
-                sourceTables.retainAll(request.getTables());
-                targetTables.retainAll(request.getTables());
-            }
-
             // 合并所有表名
             Set<String> allTables = new HashSet<>();
             allTables.addAll(sourceTables);
             allTables.addAll(targetTables);
 
+            // 同方言时先比对结构指纹，指纹一致的表不再加载详细元数据
+            Set<String> identicalTables = new HashSet<>();
+            if (Boolean.TRUE.equals(request.getUseFingerprint())
+                    && Objects.equals(source.databaseType(), target.databaseType())) {
+                Set<SchemaFingerprint.Part> parts = SchemaFingerprint.parts(
+                        Boolean.TRUE.equals(request.getCompareIndexes()),
+                        Boolean.TRUE.equals(request.getCompareForeignKeys()),
+                        Boolean.TRUE.equals(request.getCompareComments()));
+                Map<String, String> sourcePrints = SchemaFingerprint.tableFingerprints(source.fingerprints(sourceTables), parts);
+                Map<String, String> targetPrints = SchemaFingerprint.tableFingerprints(target.fingerprints(targetTables), parts);
+                result.setSourceFingerprint(SchemaFingerprint.combine(sourcePrints));
+                result.setTargetFingerprint(SchemaFingerprint.combine(targetPrints));
+                sourcePrints.forEach((tableName, fingerprint) -> {
+                    if (fingerprint.equals(targetPrints.get(tableName))) {
+                        identicalTables.add(tableName);
+                    }
+                });
+                log.info("结构指纹一致的表: {}/{}, 整库指纹{}", identicalTables.size(), allTables.size(),
+                        result.getSourceFingerprint().equals(result.getTargetFingerprint()) ? "一致" : "不一致");
+            }
+
+            // 源库的表依赖图，供同步时按层级建表
+            result.setDependencyGraph(analyzeDependencies(source.tableReferences(), sourceTables));
+
+            // 两侧各用一个连接、每类元数据一次集合查询加载结构模型，之后的比对都基于内存模型
+            boolean withIndexes = Boolean.TRUE.equals(request.getCompareIndexes());
+            boolean withForeignKeys = Boolean.TRUE.equals(request.getCompareForeignKeys());
+            SchemaModel sourceModel = source.model(SetUtils.difference(sourceTables, identicalTables), withIndexes, withForeignKeys);
+            SchemaModel targetModel = target.model(SetUtils.difference(targetTables, identicalTables), withIndexes, withForeignKeys);
+
             // 比对每个表
             for (String tableName : allTables) {
                 log.info("正在比对表: {}", tableName);
@@ -118,17 +300,21 @@ public class SchemaComparatorService {
 
                 TableDiff tableDiff;
 
-                if (inSource && inTarget) {
+                if (identicalTables.contains(tableName)) {
+                    tableDiff = TableDiff.builder()
+                            .tableName(tableName)
+                            .diffType("IDENTICAL")
+                            .build();
+                } else if (inSource && inTarget) {
                     // 表在两边都存在，比对详细结构
                     tableDiff = compareTableStructure(
-                            sourceDs, targetDs,
-                            tableName,
-                            sourceConn, targetConn,
+                            sourceModel.table(tableName),
+                            targetModel.table(tableName),
                             request
                     );
                 } else if (inSource) {
                     // 表只在源库存在 - 需要获取源表的完整结构
-                    tableDiff = getSourceTableStructure(sourceDs, tableName, sourceConn);
+                    tableDiff = getSourceTableStructure(sourceModel.table(tableName));
                     tableDiff.setDiffType("ADD");
                     log.info("表 {} 需要在目标库中新增", tableName);
                 } else {
@@ -149,6 +335,7 @@ public class SchemaComparatorService {
             result.calculateStatistics();
             result.getStatistics().setSourceTableCount(sourceTables.size());
             result.getStatistics().setTargetTableCount(targetTables.size());
+            result.getStatistics().setFingerprintMatchedCount(identicalTables.size());
 
             log.info("结构比对完成: 总差异数={}", result.getStatistics().getTotalDiffCount());
 
@@ -163,50 +350,63 @@ public class SchemaComparatorService {
     }
 
     /**
-     * 获取数据库中的所有表名
+     * 获取数据库的表依赖图
+     *
+     * @param connectionId 连接ID
+     * @return 按外键引用分层的依赖图
      */
-    private Set<String> getTableNames(DataSource dataSource, ConnectionDto connection) throws SQLException {
-        Set<String> tables = new HashSet<>();
-
-        try (Connection conn = dataSource.getConnection()) {
-            DatabaseMetaData metaData = conn.getMetaData();
+    public DependencyGraph getDependencyGraph(String connectionId) {
+        LiveSchemaSide side = liveSide(connectionService.getConnectionById(connectionId));
+        try {
+            return analyzeDependencies(side.tableReferences(), side.tableNames(TableFilter.all()));
+        } catch (SQLException e) {
+            log.error("获取表依赖图失败", e);
+            throw new RuntimeException("获取表依赖图失败: " + e.getMessage(), e);
+        }
+    }
 
-            String schema = null;
-            if ("postgresql".equals(connection.getType())) {
-                schema = connection.getOptions() != null ?
-                        (String) connection.getOptions().get("schema") : "public";
-            }
+    private TableFilter tableFilter(SchemaCompareRequest request) {
+        return TableFilter.of(request.getTables(), request.getIncludePatterns(),
+                request.getExcludePatterns(), request.getCollapsePartitions());
+    }
 
-            try (ResultSet rs = metaData.getTables(
-                    connection.getDatabase(),
-                    schema,
-                    "%",
-                    new String[]{"TABLE"})) {
+    private DependencyGraph analyzeDependencies(Map<String, Set<String>> references, Set<String> tables) {
+        DependencyGraph graph = TableDependencyGraph.of(new TreeSet<>(tables), references).toDependencyGraph();
+        if (!graph.getCycles().isEmpty()) {
+            log.warn("存在循环外键依赖: {}", graph.getCycles());
+        }
+        return graph;
+    }
 
-                while (rs.next()) {
-                    String tableName = rs.getString("TABLE_NAME");
-                    tables.add(tableName);
-                }
-            }
+    /**
+     * 比对的一侧：指定快照时使用快照，否则使用在线连接
+     */
+    private SchemaSide resolveSide(String connectionId, String snapshotId, String label) {
+        boolean hasConnection = StringUtils.isNotBlank(connectionId);
+        boolean hasSnapshot = StringUtils.isNotBlank(snapshotId);
+        if (hasConnection == hasSnapshot) {
+            throw new IllegalArgumentException(label + "端需要且只能指定连接ID或快照ID之一");
+        }
+        if (hasSnapshot) {
+            return new SnapshotSchemaSide(schemaSnapshotService.getSnapshot(snapshotId));
         }
+        return liveSide(connectionService.getConnectionById(connectionId));
+    }
 
-        return tables;
+    private LiveSchemaSide liveSide(ConnectionDto connection) {
+        return new LiveSchemaSide(connection, connectionManager.getDataSource(connection), metadataCatalogCache);
     }
 
     /**
      * 获取源表的完整结构（用于新增表）
      */
-    private TableDiff getSourceTableStructure(
-            DataSource sourceDs,
-            String tableName,
-            ConnectionDto sourceConn) {
+    private TableDiff getSourceTableStructure(SchemaModel.TableModel sourceTable) {
+        String tableName = sourceTable.name();
 
         try {
-            // 获取源表的所有列
-            Map<String, ColumnDiff.ColumnInfo> sourceColumns = getColumns(sourceDs, tableName, sourceConn);
-
-            // 获取主键信息
-            List<String> primaryKeys = getPrimaryKeys(sourceDs, tableName, sourceConn);
+            // 源表的所有列和主键
+            Map<String, ColumnDiff.ColumnInfo> sourceColumns = sourceTable.columns();
+            List<String> primaryKeys = new ArrayList<>(sourceTable.primaryKeys());
 
             // 构建列差异列表（所有列都标记为 ADD）
             List<ColumnDiff> columnDiffs = new ArrayList<>();
@@ -228,12 +428,36 @@ public class SchemaComparatorService {
                 return posA.compareTo(posB);
             });
 
+            // 二级索引随建表一并创建（仅在比对索引时加载）
+            List<IndexDiff> indexDiffs = new ArrayList<>();
+            for (IndexDiff.IndexInfo index : sourceTable.indexes().values()) {
+                if (!Boolean.TRUE.equals(index.getPrimary())) {
+                    indexDiffs.add(IndexDiff.builder()
+                            .indexName(index.getName())
+                            .diffType("ADD")
+                            .sourceIndex(index)
+                            .description("需要在目标库中创建此索引")
+                            .build());
+                }
+            }
+
+            // 外键在所有表建好后再添加（仅在比对外键时加载）
+            List<ForeignKeyDiff> foreignKeyDiffs = new ArrayList<>();
+            for (ForeignKeyDiff.ForeignKeyInfo foreignKey : sourceTable.foreignKeys().values()) {
+                foreignKeyDiffs.add(ForeignKeyDiff.builder()
+                        .foreignKeyName(foreignKey.getName())
+                        .diffType("ADD")
+                        .sourceForeignKey(foreignKey)
+                        .description("需要在目标库中添加此外键")
+                        .build());
+            }
+
             TableDiff tableDiff = TableDiff.builder()
                     .tableName(tableName)
                     .diffType("ADD")
                     .columnDiffs(columnDiffs)
-                    .indexDiffs(new ArrayList<>())
-                    .foreignKeyDiffs(new ArrayList<>())
+                    .indexDiffs(indexDiffs)
+                    .foreignKeyDiffs(foreignKeyDiffs)
                     .build();
 
             // 设置主键信息（存储在 TableDiff 中，用于生成 SQL）
@@ -254,30 +478,28 @@ public class SchemaComparatorService {
      * 比对单个表的结构
      */
     private TableDiff compareTableStructure(
-            DataSource sourceDs,
-            DataSource targetDs,
-            String tableName,
-            ConnectionDto sourceConn,
-            ConnectionDto targetConn,
-            SchemaCompareRequest request) throws SQLException {
+            SchemaModel.TableModel sourceTable,
+            SchemaModel.TableModel targetTable,
+            SchemaCompareRequest request) {
 
+        String tableName = sourceTable.name();
         TableDiff.TableDiffBuilder builder = TableDiff.builder()
                 .tableName(tableName)
                 .diffType("IDENTICAL");
 
         // 比对列
-        List<ColumnDiff> columnDiffs = compareColumns(sourceDs, targetDs, tableName, sourceConn, targetConn);
+        List<ColumnDiff> columnDiffs = compareColumns(sourceTable, targetTable);
         builder.columnDiffs(columnDiffs);
 
         // 比对索引
         if (Boolean.TRUE.equals(request.getCompareIndexes())) {
-            List<IndexDiff> indexDiffs = compareIndexes(sourceDs, targetDs, tableName, sourceConn, targetConn);
+            List<IndexDiff> indexDiffs = compareIndexes(sourceTable, targetTable);
             builder.indexDiffs(indexDiffs);
         }
 
         // 比对外键
         if (Boolean.TRUE.equals(request.getCompareForeignKeys())) {
-            List<ForeignKeyDiff> fkDiffs = compareForeignKeys(sourceDs, targetDs, tableName, sourceConn, targetConn);
+            List<ForeignKeyDiff> fkDiffs = compareForeignKeys(sourceTable, targetTable);
             builder.foreignKeyDiffs(fkDiffs);
         }
 
@@ -294,18 +516,13 @@ public class SchemaComparatorService {
     /**
      * 比对列
      */
-    private List<ColumnDiff> compareColumns(
-            DataSource sourceDs,
-            DataSource targetDs,
-            String tableName,
-            ConnectionDto sourceConn,
-            ConnectionDto targetConn) throws SQLException {
+    private List<ColumnDiff> compareColumns(SchemaModel.TableModel sourceTable, SchemaModel.TableModel targetTable) {
 
         List<ColumnDiff> diffs = new ArrayList<>();
 
-        // 获取源库和目标库的列信息
-        Map<String, ColumnDiff.ColumnInfo> sourceColumns = getColumns(sourceDs, tableName, sourceConn);
-        Map<String, ColumnDiff.ColumnInfo> targetColumns = getColumns(targetDs, tableName, targetConn);
+        // 源库和目标库的列信息
+        Map<String, ColumnDiff.ColumnInfo> sourceColumns = sourceTable.columns();
+        Map<String, ColumnDiff.ColumnInfo> targetColumns = targetTable.columns();
 
         // 合并所有列名
         Set<String> allColumns = new HashSet<>();
@@ -349,96 +566,6 @@ public class SchemaComparatorService {
         return diffs;
     }
 
-    /**
-     * 获取表的所有列信息
-     */
-    private Map<String, ColumnDiff.ColumnInfo> getColumns(
-            DataSource dataSource,
-            String tableName,
-            ConnectionDto connection) throws SQLException {
-
-        Map<String, ColumnDiff.ColumnInfo> columns = new LinkedHashMap<>();
-
-        try (Connection conn = dataSource.getConnection()) {
-            DatabaseMetaData metaData = conn.getMetaData();
-
-            String schema = null;
-            if ("postgresql".equals(connection.getType())) {
-                schema = connection.getOptions() != null ?
-                        (String) connection.getOptions().get("schema") : "public";
-            }
-
-            try (ResultSet rs = metaData.getColumns(
-                    connection.getDatabase(),
-                    schema,
-                    tableName,
-                    "%")) {
-
-                while (rs.next()) {
-                    String columnName = rs.getString("COLUMN_NAME");
-                    String dataType = rs.getString("TYPE_NAME");
-                    int columnSize = rs.getInt("COLUMN_SIZE");
-                    int decimalDigits = rs.getInt("DECIMAL_DIGITS");
-                    boolean nullable = rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable;
-                    String defaultValue = rs.getString("COLUMN_DEF");
-                    String remarks = rs.getString("REMARKS");
-                    int ordinalPosition = rs.getInt("ORDINAL_POSITION");
-                    String isAutoIncrement = rs.getString("IS_AUTOINCREMENT");
-
-                    // 构建完整的数据类型
-                    String fullDataType = buildFullDataType(dataType, columnSize, decimalDigits);
-
-                    ColumnDiff.ColumnInfo columnInfo = ColumnDiff.ColumnInfo.builder()
-                            .name(columnName)
-                            .dataType(fullDataType)
-                            .nullable(nullable)
-                            .defaultValue(defaultValue)
-                            .comment(remarks)
-                            .autoIncrement("YES".equalsIgnoreCase(isAutoIncrement))
-                            .ordinalPosition(ordinalPosition)
-                            .build();
-
-                    columns.put(columnName, columnInfo);
-                }
-            }
-        }
-
-        return columns;
-    }
-
-    /**
-     * 构建完整的数据类型字符串
-     */
-    private String buildFullDataType(String dataType, int columnSize, int decimalDigits) {
-        if (dataType == null) {
-            return "UNKNOWN";
-        }
-
-        String upperDataType = dataType.toUpperCase();
-
-        // PostgreSQL 的 text 类型不允许有长度修饰符
-        if ("TEXT".equals(upperDataType)) {
-            return dataType;
-        }
-
-        // 对于需要长度的类型，添加长度信息
-        if (upperDataType.matches(".*CHAR.*|.*BINARY.*")) {
-            if (columnSize > 0) {
-                return dataType + "(" + columnSize + ")";
-            }
-        } else if (upperDataType.matches("DECIMAL|NUMERIC")) {
-            if (columnSize > 0) {
-                if (decimalDigits > 0) {
-                    return dataType + "(" + columnSize + "," + decimalDigits + ")";
-                } else {
-                    return dataType + "(" + columnSize + ")";
-                }
-            }
-        }
-
-        return dataType;
-    }
-
     /**
      * 判断两个列是否相等
      */
@@ -518,94 +645,191 @@ public class SchemaComparatorService {
     }
 
     /**
-     * 比对索引（简化版本）
+     * 比对索引
+     *
+     * 按索引名匹配，主键不在此比对（随建表语句处理）。目标缺失的索引附带目标表的行数估算，
+     * 行数越多缺失索引导致慢查询的可能越大
      */
-    private List<IndexDiff> compareIndexes(
-            DataSource sourceDs,
-            DataSource targetDs,
-            String tableName,
-            ConnectionDto sourceConn,
-            ConnectionDto targetConn) throws SQLException {
-
-        // 简化实现：暂时返回空列表
-        // 完整实现需要查询 information_schema.statistics 或使用 DatabaseMetaData.getIndexInfo()
-        log.info("索引比对功能待完善");
-        return new ArrayList<>();
+    private List<IndexDiff> compareIndexes(SchemaModel.TableModel sourceTable, SchemaModel.TableModel targetTable) {
+
+        List<IndexDiff> diffs = new ArrayList<>();
+        Long targetRows = targetTable.rowEstimate();
+
+        for (IndexDiff.IndexInfo sourceIndex : sourceTable.indexes().values()) {
+            if (Boolean.TRUE.equals(sourceIndex.getPrimary())) {
+                continue;
+            }
+            IndexDiff.IndexInfo targetIndex = targetTable.indexes().get(sourceIndex.getName());
+            if (targetIndex == null) {
+                diffs.add(IndexDiff.builder()
+                        .indexName(sourceIndex.getName())
+                        .diffType("ADD")
+                        .sourceIndex(sourceIndex)
+                        .targetRowEstimate(targetRows)
+                        .description(targetRows != null
+                                ? String.format("目标库缺少此索引，目标表约 %d 行", targetRows)
+                                : "目标库缺少此索引")
+                        .build());
+            } else if (!indexesEqual(sourceIndex, targetIndex)) {
+                diffs.add(IndexDiff.builder()
+                        .indexName(sourceIndex.getName())
+                        .diffType("MODIFY")
+                        .sourceIndex(sourceIndex)
+                        .targetIndex(targetIndex)
+                        .targetRowEstimate(targetRows)
+                        .description(buildIndexDiffDescription(sourceIndex, targetIndex))
+                        .build());
+            }
+        }
+
+        for (IndexDiff.IndexInfo targetIndex : targetTable.indexes().values()) {
+            if (!Boolean.TRUE.equals(targetIndex.getPrimary()) && !sourceTable.indexes().containsKey(targetIndex.getName())) {
+                diffs.add(IndexDiff.builder()
+                        .indexName(targetIndex.getName())
+                        .diffType("DELETE")
+                        .targetIndex(targetIndex)
+                        .targetRowEstimate(targetRows)
+                        .description("目标库中多余的索引")
+                        .build());
+            }
+        }
+
+        return diffs;
     }
 
     /**
-     * 比对外键（简化版本）
+     * 列顺序、唯一性和索引类型一致视为相同，列名忽略大小写
      */
-    private List<ForeignKeyDiff> compareForeignKeys(
-            DataSource sourceDs,
-            DataSource targetDs,
-            String tableName,
-            ConnectionDto sourceConn,
-            ConnectionDto targetConn) throws SQLException {
-
-        // 简化实现：暂时返回空列表
-        // 完整实现需要使用 DatabaseMetaData.getImportedKeys()
-        log.info("外键比对功能待完善");
-        return new ArrayList<>();
+    private boolean indexesEqual(IndexDiff.IndexInfo source, IndexDiff.IndexInfo target) {
+        return Objects.equals(normalizeIndexColumns(source), normalizeIndexColumns(target))
+                && Objects.equals(Boolean.TRUE.equals(source.getUnique()), Boolean.TRUE.equals(target.getUnique()))
+                && Objects.equals(normalizeDataType(source.getType()), normalizeDataType(target.getType()));
+    }
+
+    private List<String> normalizeIndexColumns(IndexDiff.IndexInfo index) {
+        return indexKeyParts(index).stream()
+                .map(keyPart -> keyPart.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
     }
 
     /**
-     * 获取表的主键列
-     *
-     * @param dataSource 数据源
-     * @param tableName 表名
-     * @param connection 连接配置
-     * @return 主键列名列表（按序号排序）
+     * 索引键列表，前缀索引附带长度
      */
-    private List<String> getPrimaryKeys(DataSource dataSource, String tableName, ConnectionDto connection) throws SQLException {
-        List<String> primaryKeys = new ArrayList<>();
+    private List<String> indexKeyParts(IndexDiff.IndexInfo index) {
+        List<String> keyParts = new ArrayList<>(index.getColumns().size());
+        for (int i = 0; i < index.getColumns().size(); i++) {
+            Integer prefixLength = index.getPrefixLengths() != null && i < index.getPrefixLengths().size()
+                    ? index.getPrefixLengths().get(i)
+                    : null;
+            keyParts.add(StringUtils.defaultString(index.getColumns().get(i)) + (prefixLength != null ? "(" + prefixLength + ")" : ""));
+        }
+        return keyParts;
+    }
+
+    /**
+     * 构建索引差异描述
+     */
+    private String buildIndexDiffDescription(IndexDiff.IndexInfo source, IndexDiff.IndexInfo target) {
+        List<String> diffs = new ArrayList<>();
+
+        if (!Objects.equals(normalizeIndexColumns(source), normalizeIndexColumns(target))) {
+            diffs.add(String.format("列: %s -> %s", indexKeyParts(source), indexKeyParts(target)));
+        }
+        if (!Objects.equals(Boolean.TRUE.equals(source.getUnique()), Boolean.TRUE.equals(target.getUnique()))) {
+            diffs.add(String.format("唯一: %s -> %s", source.getUnique(), target.getUnique()));
+        }
+        if (!Objects.equals(normalizeDataType(source.getType()), normalizeDataType(target.getType()))) {
+            diffs.add(String.format("类型: %s -> %s", source.getType(), target.getType()));
+        }
 
-        try (Connection conn = dataSource.getConnection()) {
-            DatabaseMetaData metaData = conn.getMetaData();
+        return String.join("; ", diffs);
+    }
 
-            String catalog = null;
-            String schema = null;
+    /**
+     * 比对外键
+     *
+     * 按约束名匹配，本表列、引用表、引用列和级联规则一致视为相同，名称忽略大小写
+     */
+    private List<ForeignKeyDiff> compareForeignKeys(SchemaModel.TableModel sourceTable, SchemaModel.TableModel targetTable) {
 
-            // MySQL 需要指定 catalog（数据库名）
-            if ("mysql".equals(connection.getType())) {
-                catalog = connection.getDatabase();
+        List<ForeignKeyDiff> diffs = new ArrayList<>();
+
+        for (ForeignKeyDiff.ForeignKeyInfo sourceKey : sourceTable.foreignKeys().values()) {
+            ForeignKeyDiff.ForeignKeyInfo targetKey = targetTable.foreignKeys().get(sourceKey.getName());
+            if (targetKey == null) {
+                diffs.add(ForeignKeyDiff.builder()
+                        .foreignKeyName(sourceKey.getName())
+                        .diffType("ADD")
+                        .sourceForeignKey(sourceKey)
+                        .description("需要在目标库中添加此外键")
+                        .build());
+            } else if (!foreignKeysEqual(sourceKey, targetKey)) {
+                diffs.add(ForeignKeyDiff.builder()
+                        .foreignKeyName(sourceKey.getName())
+                        .diffType("MODIFY")
+                        .sourceForeignKey(sourceKey)
+                        .targetForeignKey(targetKey)
+                        .description(buildForeignKeyDiffDescription(sourceKey, targetKey))
+                        .build());
             }
+        }
 
-            // PostgreSQL 需要指定 schema（默认 public）
-            if ("postgresql".equals(connection.getType())) {
-                schema = connection.getOptions() != null ?
-                        (String) connection.getOptions().get("schema") : "public";
+        for (ForeignKeyDiff.ForeignKeyInfo targetKey : targetTable.foreignKeys().values()) {
+            if (!sourceTable.foreignKeys().containsKey(targetKey.getName())) {
+                diffs.add(ForeignKeyDiff.builder()
+                        .foreignKeyName(targetKey.getName())
+                        .diffType("DELETE")
+                        .targetForeignKey(targetKey)
+                        .description("目标库中多余的外键")
+                        .build());
             }
+        }
 
-            log.info("获取表 {} 的主键信息: catalog={}, schema={}", tableName, catalog, schema);
+        return diffs;
+    }
 
-            // 获取主键信息
-            try (ResultSet rs = metaData.getPrimaryKeys(catalog, schema, tableName)) {
-                // 使用 TreeMap 按 KEY_SEQ 排序
-                java.util.Map<Integer, String> pkMap = new java.util.TreeMap<>();
+    private boolean foreignKeysEqual(ForeignKeyDiff.ForeignKeyInfo source, ForeignKeyDiff.ForeignKeyInfo target) {
+        return Objects.equals(lowerCase(source.getColumns()), lowerCase(target.getColumns()))
+                && StringUtils.equalsIgnoreCase(source.getReferencedTable(), target.getReferencedTable())
+                && Objects.equals(lowerCase(source.getReferencedColumns()), lowerCase(target.getReferencedColumns()))
+                && Objects.equals(normalizeRule(source.getOnDelete()), normalizeRule(target.getOnDelete()))
+                && Objects.equals(normalizeRule(source.getOnUpdate()), normalizeRule(target.getOnUpdate()));
+    }
 
-                while (rs.next()) {
-                    String columnName = rs.getString("COLUMN_NAME");
-                    String pkTableName = rs.getString("TABLE_NAME");
-                    int keySeq = rs.getInt("KEY_SEQ");
+    /**
+     * MySQL 的 RESTRICT 与 NO ACTION 行为相同，未指定时也是 NO ACTION
+     */
+    private String normalizeRule(String rule) {
+        return rule == null || "RESTRICT".equalsIgnoreCase(rule) ? "NO ACTION" : rule.toUpperCase(Locale.ROOT);
+    }
 
-                    // 确保是当前表的主键（防止跨库匹配）
-                    if (tableName.equalsIgnoreCase(pkTableName)) {
-                        pkMap.put(keySeq, columnName);
-                        log.info("找到主键列: 表={}, 列={}, 序号={}", pkTableName, columnName, keySeq);
-                    }
-                }
+    private List<String> lowerCase(List<String> names) {
+        return names.stream()
+                .map(name -> name == null ? "" : name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
+    }
 
-                primaryKeys.addAll(pkMap.values());
-            }
+    /**
+     * 构建外键差异描述
+     */
+    private String buildForeignKeyDiffDescription(ForeignKeyDiff.ForeignKeyInfo source, ForeignKeyDiff.ForeignKeyInfo target) {
+        List<String> diffs = new ArrayList<>();
 
-            if (!primaryKeys.isEmpty()) {
-                log.info("表 {} 的主键: {}", tableName, primaryKeys);
-            } else {
-                log.info("表 {} 没有主键", tableName);
-            }
+        if (!Objects.equals(lowerCase(source.getColumns()), lowerCase(target.getColumns()))) {
+            diffs.add(String.format("列: %s -> %s", source.getColumns(), target.getColumns()));
+        }
+        if (!StringUtils.equalsIgnoreCase(source.getReferencedTable(), target.getReferencedTable())
+                || !Objects.equals(lowerCase(source.getReferencedColumns()), lowerCase(target.getReferencedColumns()))) {
+            diffs.add(String.format("引用: %s%s -> %s%s", source.getReferencedTable(), source.getReferencedColumns(),
+                    target.getReferencedTable(), target.getReferencedColumns()));
+        }
+        if (!Objects.equals(normalizeRule(source.getOnDelete()), normalizeRule(target.getOnDelete()))) {
+            diffs.add(String.format("ON DELETE: %s -> %s", source.getOnDelete(), target.getOnDelete()));
+        }
+        if (!Objects.equals(normalizeRule(source.getOnUpdate()), normalizeRule(target.getOnUpdate()))) {
+            diffs.add(String.format("ON UPDATE: %s -> %s", source.getOnUpdate(), target.getOnUpdate()));
         }
 
-        return primaryKeys;
+        return String.join("; ", diffs);
     }
 }
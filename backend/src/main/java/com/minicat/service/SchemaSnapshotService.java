@@ -0,0 +1,247 @@
+package com.minicat.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.minicat.dto.ConnectionDto;
+import com.minicat.dto.SchemaSnapshot;
+import com.minicat.dto.SchemaSnapshotRequest;
+import com.minicat.manager.DatabaseConnectionManager;
+import com.minicat.service.schema.LiveSchemaSide;
+import com.minicat.service.schema.SchemaFingerprint;
+import com.minicat.service.schema.SchemaModel;
+import com.minicat.service.schema.SnapshotSchemaSide;
+import com.minicat.service.schema.TableFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 结构快照服务
+ *
+ * 采集连接在某一时刻的结构保存为 diffs/schema/{id}.json.gz，
+ * 之后可用快照代替在线库参与结构比对（快照对在线库、快照对快照），不再查询源库目录
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SchemaSnapshotService {
+
+    private static final String SNAPSHOT_SUFFIX = ".json.gz";
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("[0-9a-f-]{36}");
+
+    /**
+     * 快照文件中位于摘要之后的表结构字段
+     */
+    private static final Set<String> BODY_FIELDS = Set.of("tables", "references");
+
+    private final ConnectionService connectionService;
+    private final DatabaseConnectionManager connectionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${minicat.storage.base-path}")
+    private String basePath;
+
+    @Value("${minicat.storage.diffs-path}")
+    private String diffsPath;
+
+    /**
+     * 采集结构快照
+     *
+     * @param request 采集请求
+     * @return 快照摘要（不含表结构）
+     */
+    public SchemaSnapshot captureSnapshot(SchemaSnapshotRequest request) {
+        ConnectionDto connection = connectionService.getConnectionById(request.getConnectionId());
+        log.info("开始采集结构快照: 连接={}", connection.getName());
+        long start = System.currentTimeMillis();
+
+        SchemaSnapshot snapshot = buildSnapshot(connection, request.getDescription(), TableFilter.all());
+
+        Path file = snapshotFile(snapshot.getId());
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            objectMapper.writeValue(out, snapshot);
+        } catch (IOException e) {
+            throw new RuntimeException("保存结构快照失败: " + e.getMessage(), e);
+        }
+
+        log.info("结构快照已保存: {} 表数量={} 耗时{}ms", file, snapshot.getTableCount(), System.currentTimeMillis() - start);
+        return summary(snapshot, file);
+    }
+
+    /**
+     * 读取连接当前结构构建快照，不写入文件
+     *
+     * @param filter 只采集满足条件的表
+     */
+    public SchemaSnapshot buildSnapshot(ConnectionDto connection, String description, TableFilter filter) {
+        // 不经过元数据缓存，快照必须反映当前结构
+        LiveSchemaSide side = new LiveSchemaSide(connection, connectionManager.getDataSource(connection), null);
+        try {
+            Set<String> tables = side.tableNames(filter);
+            Map<String, Map<SchemaFingerprint.Part, String>> partDigests = side.fingerprints(tables);
+            SchemaModel model = side.model(tables, true, true);
+            Map<String, List<String>> references = new TreeMap<>();
+            side.tableReferences().forEach((table, referenced) -> {
+                if (tables.contains(table)) {
+                    references.put(table, new ArrayList<>(referenced));
+                }
+            });
+
+            return SchemaSnapshot.builder()
+                    .id(UUID.randomUUID().toString())
+                    .description(description)
+                    .connectionId(connection.getId())
+                    .connectionName(connection.getName())
+                    .databaseType(connection.getType())
+                    .schemaName(side.schemaName())
+                    .createdTime(LocalDateTime.now())
+                    .tableCount(tables.size())
+                    .fingerprint(SchemaFingerprint.combine(SchemaFingerprint.tableFingerprints(
+                            partDigests, EnumSet.allOf(SchemaFingerprint.Part.class))))
+                    .tables(SnapshotSchemaSide.tables(model, partDigests))
+                    .references(references)
+                    .build();
+        } catch (SQLException e) {
+            log.error("采集结构快照失败", e);
+            throw new RuntimeException("采集结构快照失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 获取快照列表，按采集时间倒序
+     *
+     * @param connectionId 连接ID，为空时返回全部
+     */
+    public List<SchemaSnapshot> getSnapshots(String connectionId) {
+        List<SchemaSnapshot> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(snapshotDirectory())) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(SNAPSHOT_SUFFIX)).toList()) {
+                try {
+                    SchemaSnapshot snapshot = readSummary(file);
+                    if (StringUtils.isBlank(connectionId) || connectionId.equals(snapshot.getConnectionId())) {
+                        snapshots.add(summary(snapshot, file));
+                    }
+                } catch (IOException e) {
+                    log.warn("结构快照文件无法读取，已跳过: {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("读取结构快照目录失败: " + e.getMessage(), e);
+        }
+        snapshots.sort(Comparator.comparing(SchemaSnapshot::getCreatedTime, Comparator.nullsLast(Comparator.reverseOrder())));
+        return snapshots;
+    }
+
+    /**
+     * 读取完整快照
+     */
+    public SchemaSnapshot getSnapshot(String snapshotId) {
+        Path file = snapshotFile(snapshotId);
+        if (!Files.exists(file)) {
+            throw new IllegalArgumentException("结构快照不存在: " + snapshotId);
+        }
+        try {
+            return read(file);
+        } catch (IOException e) {
+            throw new RuntimeException("读取结构快照失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 删除快照
+     */
+    public boolean deleteSnapshot(String snapshotId) {
+        try {
+            return Files.deleteIfExists(snapshotFile(snapshotId));
+        } catch (IOException e) {
+            throw new RuntimeException("删除结构快照失败: " + e.getMessage(), e);
+        }
+    }
+
+    private SchemaSnapshot read(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return objectMapper.readValue(in, SchemaSnapshot.class);
+        }
+    }
+
+    /**
+     * 只解析文件开头的摘要字段，读到表结构字段即停止，不解压和解析整个快照
+     */
+    private SchemaSnapshot readSummary(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file));
+             JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("结构快照文件格式错误: " + file);
+            }
+            ObjectNode header = objectMapper.createObjectNode();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (BODY_FIELDS.contains(field)) {
+                    break;
+                }
+                parser.nextToken();
+                header.set(field, objectMapper.readTree(parser));
+            }
+            return objectMapper.treeToValue(header, SchemaSnapshot.class);
+        }
+    }
+
+    private SchemaSnapshot summary(SchemaSnapshot snapshot, Path file) {
+        SchemaSnapshot summary = SchemaSnapshot.builder()
+                .id(snapshot.getId())
+                .description(snapshot.getDescription())
+                .connectionId(snapshot.getConnectionId())
+                .connectionName(snapshot.getConnectionName())
+                .databaseType(snapshot.getDatabaseType())
+                .schemaName(snapshot.getSchemaName())
+                .createdTime(snapshot.getCreatedTime())
+                .tableCount(snapshot.getTableCount())
+                .fingerprint(snapshot.getFingerprint())
+                .build();
+        try {
+            summary.setFileSize(Files.size(file));
+        } catch (IOException e) {
+            log.debug("读取快照文件大小失败: {}", file, e);
+        }
+        return summary;
+    }
+
+    private Path snapshotDirectory() {
+        return Paths.get(basePath, diffsPath, "schema");
+    }
+
+    /**
+     * 快照 ID 只允许 UUID，防止路径穿越
+     */
+    private Path snapshotFile(String snapshotId) {
+        if (snapshotId == null || !SNAPSHOT_ID.matcher(snapshotId).matches()) {
+            throw new IllegalArgumentException("无效的结构快照ID: " + snapshotId);
+        }
+        return snapshotDirectory().resolve(snapshotId + SNAPSHOT_SUFFIX);
+    }
+}
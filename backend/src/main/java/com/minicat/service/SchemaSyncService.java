@@ -2,8 +2,10 @@ package com.minicat.service;
 
 import com.minicat.dto.*;
 import com.minicat.entity.Task;
+import com.minicat.service.dependency.TableDependencyGraph;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import javax.sql.DataSource;
@@ -11,6 +13,9 @@ import java.sql.Connection;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * 结构同步服务
@@ -22,47 +27,105 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SchemaSyncService {
     
+    private static final List<String> MYSQL_INDEX_TYPES = List.of("BTREE", "HASH", "FULLTEXT", "SPATIAL");
+    private static final Pattern VARCHAR_TYPE = Pattern.compile("(?i)varchar\\((\\d+)\\)");
+    
     private final ConnectionService connectionService;
     private final com.minicat.manager.DatabaseConnectionManager connectionManager;
+    private final com.minicat.manager.MetadataCatalogCache metadataCatalogCache;
     private final TaskService taskService;
     
     /**
      * 生成同步 SQL
      * 
+     * 在线模式下 MySQL 的 ALTER TABLE 附加 ALGORITHM=INSTANT/INPLACE, LOCK=NONE，不满足条件的语句由 MySQL 在开始前直接拒绝；
+     * PostgreSQL 使用 CREATE/DROP INDEX CONCURRENTLY，外键先以 NOT VALID 添加再单独 VALIDATE。
+     * 新建表上的语句没有并发访问，两种模式相同
+     * 
      * @param diffResult 比对结果
-     * @return SQL 语句列表
+     * @param online     是否生成在线 DDL
+     * @return 预览响应，包含 SQL 语句、每条语句的锁行为和合并 ALTER 避免的重建次数
      */
-    public List<String> generateSyncSql(SchemaDiffResult diffResult) {
-        log.info("开始生成同步 SQL");
-        
-        List<String> sqlStatements = new ArrayList<>();
-        
-        // 获取目标数据库类型
-        ConnectionDto targetConn = connectionService.getConnectionById(diffResult.getTargetConnectionId());
-        String dbType = targetConn.getType();
-        
-        // 遍历所有表差异
-        for (TableDiff tableDiff : diffResult.getTableDiffs()) {
-            switch (tableDiff.getDiffType()) {
-                case "ADD":
-                    // 新增表：生成 CREATE TABLE 语句
-                    sqlStatements.addAll(generateCreateTableSql(tableDiff, dbType));
-                    break;
-                    
-                case "DELETE":
-                    // 删除表：生成 DROP TABLE 语句
-                    sqlStatements.add(generateDropTableSql(tableDiff, dbType));
-                    break;
-                    
-                case "MODIFY":
-                    // 修改表：生成 ALTER TABLE 语句
-                    sqlStatements.addAll(generateAlterTableSql(tableDiff, dbType));
-                    break;
+    public SchemaSyncResponse generateSyncSql(SchemaDiffResult diffResult, boolean online) {
+        log.info("开始生成同步 SQL: 在线模式={}", online);
+        
+        List<DdlStatement> statements = new ArrayList<>();
+        int avoidedRebuilds = 0;
+        
+        // 获取目标数据库类型（目标为结构快照时取自比对结果）
+        String dbType = diffResult.getTargetDatabaseType() != null
+                ? diffResult.getTargetDatabaseType()
+                : connectionService.getConnectionById(diffResult.getTargetConnectionId()).getType();
+        
+        List<TableDiff> tableDiffs = diffResult.getTableDiffs();
+        
+        // 先删除多余和定义变化的外键，之后的删表、改列、删索引可能被它们阻止
+        for (TableDiff tableDiff : tableDiffs) {
+            if ("MODIFY".equals(tableDiff.getDiffType())) {
+                statements.addAll(generateForeignKeySql(tableDiff, dbType, false, online));
             }
         }
         
-        log.info("生成了 {} 条同步 SQL", sqlStatements.size());
-        return sqlStatements;
+        // 新增表按彼此间的外键依赖分层创建：被引用的表在前
+        java.util.Map<String, TableDiff> addedTables = new java.util.LinkedHashMap<>();
+        tableDiffs.stream()
+                .filter(tableDiff -> "ADD".equals(tableDiff.getDiffType()))
+                .forEach(tableDiff -> addedTables.put(tableDiff.getTableName(), tableDiff));
+        TableDependencyGraph graph = new TableDependencyGraph(addedTables.keySet());
+        for (TableDiff tableDiff : addedTables.values()) {
+            if (tableDiff.getForeignKeyDiffs() == null) {
+                continue;
+            }
+            for (ForeignKeyDiff fkDiff : tableDiff.getForeignKeyDiffs()) {
+                if (fkDiff.getSourceForeignKey() != null) {
+                    graph.addDependency(tableDiff.getTableName(), fkDiff.getSourceForeignKey().getReferencedTable());
+                }
+            }
+        }
+        graph.levels().stream()
+                .flatMap(List::stream)
+                .map(addedTables::get)
+                .forEach(tableDiff -> generateCreateTableSql(tableDiff, dbType)
+                        .forEach(sql -> statements.add(ddl(sql, "mysql".equals(dbType) ? "EXCLUSIVE" : "ACCESS EXCLUSIVE",
+                                false, "新建表，尚无并发访问"))));
+        
+        // 修改表：每张表的列和索引变更合并为一条 ALTER TABLE 语句
+        for (TableDiff tableDiff : tableDiffs) {
+            if ("MODIFY".equals(tableDiff.getDiffType())) {
+                AlterTableSql alter = generateAlterTableSql(tableDiff, dbType, online);
+                statements.addAll(alter.statements());
+                avoidedRebuilds += alter.avoidedRebuilds();
+            }
+        }
+        
+        // 所有表就绪后再添加外键，循环引用的表也能建立约束；新建表为空表，不使用在线方式
+        for (TableDiff tableDiff : tableDiffs) {
+            if ("ADD".equals(tableDiff.getDiffType())) {
+                statements.addAll(generateForeignKeySql(tableDiff, dbType, true, false));
+            } else if ("MODIFY".equals(tableDiff.getDiffType())) {
+                statements.addAll(generateForeignKeySql(tableDiff, dbType, true, online));
+            }
+        }
+        
+        // 删除表：生成 DROP TABLE 语句
+        for (TableDiff tableDiff : tableDiffs) {
+            if ("DELETE".equals(tableDiff.getDiffType())) {
+                statements.add(ddl(generateDropTableSql(tableDiff, dbType), "mysql".equals(dbType) ? "EXCLUSIVE" : "ACCESS EXCLUSIVE",
+                        true, "短暂持有排他锁删除表，需等待该表上进行中的事务结束"));
+            }
+        }
+        
+        List<String> sqlStatements = statements.stream().map(DdlStatement::getSql).toList();
+        log.info("生成了 {} 条同步 SQL，合并 ALTER 避免了 {} 次整表重建", sqlStatements.size(), avoidedRebuilds);
+        return SchemaSyncResponse.builder()
+                .sqlStatements(sqlStatements)
+                .statements(statements)
+                .sqlCount(sqlStatements.size())
+                .avoidedRebuilds(avoidedRebuilds)
+                .online(online)
+                .previewOnly(true)
+                .message("SQL 生成成功")
+                .build();
     }
     
     /**
@@ -89,7 +152,8 @@ public class SchemaSyncService {
             
             // 执行每条 SQL（不使用事务，每条 SQL 单独提交）
             try (Connection conn = dataSource.getConnection()) {
-                conn.setAutoCommit(true); // 自动提交，避免 PostgreSQL 事务中止问题
+                // 自动提交，避免 PostgreSQL 事务中止问题；CREATE/DROP INDEX CONCURRENTLY 也只能在事务外执行
+                conn.setAutoCommit(true);
                 
                 try (Statement stmt = conn.createStatement()) {
                     for (int i = 0; i < sqlStatements.size(); i++) {
@@ -142,6 +206,9 @@ public class SchemaSyncService {
         } catch (Exception e) {
             log.error("执行同步 SQL 失败", e);
             taskService.failTask(task.getId(), "同步失败: " + e.getMessage());
+        } finally {
+            // DDL 可能已部分生效，缓存的表结构一律作废
+            metadataCatalogCache.invalidate(connectionId);
         }
         
         return task.getId();
@@ -237,6 +304,9 @@ public class SchemaSyncService {
             }
         }
 
+        // 二级索引
+        sqls.addAll(generateIndexSql(tableDiff, dbType));
+
         return sqls;
     }
 
@@ -329,33 +399,385 @@ public class SchemaSyncService {
      * 生成删除表的 SQL
      */
     private String generateDropTableSql(TableDiff tableDiff, String dbType) {
+        if ("postgresql".equals(dbType)) {
+            return String.format("DROP TABLE IF EXISTS \"%s\";", tableDiff.getTableName());
+        }
         return String.format("DROP TABLE IF EXISTS `%s`;", tableDiff.getTableName());
     }
     
+    /**
+     * 构建带锁行为说明的语句，注释行不带锁
+     */
+    private DdlStatement ddl(String sql, String lock, boolean blocksWrites, String description) {
+        if (sql.startsWith("--")) {
+            return DdlStatement.builder().sql(sql).blocksWrites(false).description("注释，不执行变更").build();
+        }
+        return DdlStatement.builder()
+                .sql(sql)
+                .lock(lock)
+                .blocksWrites(blocksWrites)
+                .description(description)
+                .build();
+    }
+    
+    /**
+     * ALTER TABLE 的一个子句
+     *
+     * @param rebuild   单独执行时是否需要扫描或重建整表
+     * @param algorithm MySQL 能使用的最轻算法：INSTANT、INPLACE（LOCK=NONE）或 COPY；PostgreSQL 为空
+     */
+    private record AlterClause(String sql, boolean rebuild, String algorithm) {
+    }
+    
+    /**
+     * 一张表的变更语句
+     *
+     * @param avoidedRebuilds 合并为一条 ALTER TABLE 后少做的整表重建次数
+     */
+    private record AlterTableSql(List<DdlStatement> statements, int avoidedRebuilds) {
+    }
+    
     /**
      * 生成修改表的 SQL
+     * 
+     * 列变更和索引变更合并为一条多子句的 ALTER TABLE，逐条执行时 MySQL 每个 MODIFY COLUMN 都可能复制一次整表，
+     * PostgreSQL 每个 ALTER COLUMN TYPE 都会重写一次整表。PostgreSQL 的索引不能写在 ALTER TABLE 中，
+     * 仍为单独的 DROP INDEX / CREATE INDEX。外键保持在 generateSyncSql 的独立阶段，它们依赖其他表的变更顺序
      */
-    private List<String> generateAlterTableSql(TableDiff tableDiff, String dbType) {
-        List<String> sqls = new ArrayList<>();
+    private AlterTableSql generateAlterTableSql(TableDiff tableDiff, String dbType, boolean online) {
+        List<DdlStatement> statements = new ArrayList<>();
+        String quote;
+        if ("mysql".equals(dbType)) {
+            quote = "`";
+        } else if ("postgresql".equals(dbType)) {
+            quote = "\"";
+        } else {
+            return new AlterTableSql(statements, 0);
+        }
         String tableName = tableDiff.getTableName();
+        List<AlterClause> clauses = new ArrayList<>();
+        List<DdlStatement> after = new ArrayList<>();
+        List<IndexDiff> indexDiffs = tableDiff.getIndexDiffs() != null ? tableDiff.getIndexDiffs() : List.of();
+        
+        // 先删除多余和定义变化的索引
+        for (IndexDiff indexDiff : indexDiffs) {
+            IndexDiff.IndexInfo index = indexDiff.getTargetIndex();
+            if (("DELETE".equals(indexDiff.getDiffType()) || "MODIFY".equals(indexDiff.getDiffType())) && index != null) {
+                if ("mysql".equals(dbType)) {
+                    clauses.add(new AlterClause(String.format("DROP INDEX `%s`", index.getName()), false, "INPLACE"));
+                } else if (Boolean.TRUE.equals(index.getConstraint())) {
+                    clauses.add(new AlterClause(String.format("DROP CONSTRAINT \"%s\"", index.getName()), false, null));
+                } else if (online) {
+                    statements.add(ddl(buildDropIndexSql(tableName, index, dbType, true), "SHARE UPDATE EXCLUSIVE",
+                            false, "并发删除索引，不阻塞读写，等待进行中的事务结束"));
+                } else {
+                    statements.add(ddl(buildDropIndexSql(tableName, index, dbType, false), "ACCESS EXCLUSIVE",
+                            true, "短暂持有 ACCESS EXCLUSIVE 锁删除索引"));
+                }
+            }
+        }
         
-        // 处理列差异
+        // 列差异
         if (tableDiff.getColumnDiffs() != null) {
             for (ColumnDiff columnDiff : tableDiff.getColumnDiffs()) {
-                String sql = generateColumnAlterSql(tableName, columnDiff, dbType);
-                if (sql != null) {
-                    sqls.add(sql);
+                AlterClause clause = generateColumnAlterClause(columnDiff, dbType);
+                if (clause != null) {
+                    clauses.add(clause);
+                }
+            }
+        }
+        
+        // 新增索引在列变更之后，可能依赖新增的列
+        for (IndexDiff indexDiff : indexDiffs) {
+            IndexDiff.IndexInfo index = indexDiff.getSourceIndex();
+            if (("ADD".equals(indexDiff.getDiffType()) || "MODIFY".equals(indexDiff.getDiffType())) && index != null) {
+                String clause = "mysql".equals(dbType) ? buildAddIndexClause(index) : null;
+                if (clause != null) {
+                    // FULLTEXT、SPATIAL 索引构建期间至少需要 LOCK=SHARED
+                    String type = indexType(index);
+                    clauses.add(new AlterClause(clause, true, "FULLTEXT".equals(type) || "SPATIAL".equals(type) ? "COPY" : "INPLACE"));
+                } else if (online && "postgresql".equals(dbType)) {
+                    after.add(ddl(buildCreateIndexSql(tableName, index, dbType, true), "SHARE UPDATE EXCLUSIVE",
+                            false, "并发建索引，不阻塞读写；失败会留下 INVALID 索引，需 DROP INDEX CONCURRENTLY 后重试"));
+                } else {
+                    after.add(ddl(buildCreateIndexSql(tableName, index, dbType, false), "SHARE",
+                            true, "建索引期间阻塞写入"));
                 }
             }
         }
         
+        if (!clauses.isEmpty()) {
+            String sql = "ALTER TABLE " + quote + tableName + quote + "\n  "
+                    + clauses.stream().map(AlterClause::sql).collect(java.util.stream.Collectors.joining(",\n  "));
+            statements.add("mysql".equals(dbType)
+                    ? buildMysqlAlter(sql, clauses, online)
+                    : ddl(sql + ";", "ACCESS EXCLUSIVE", true, clauses.stream().anyMatch(AlterClause::rebuild)
+                            ? "重写整表，期间阻塞所有读写"
+                            : "只修改目录，短暂持有 ACCESS EXCLUSIVE 锁"));
+        }
+        statements.addAll(after);
+        
+        long rebuilds = clauses.stream().filter(AlterClause::rebuild).count();
+        return new AlterTableSql(statements, (int) Math.max(0, rebuilds - 1));
+    }
+    
+    /**
+     * MySQL 合并后的 ALTER TABLE：整条语句取各子句中最重的算法。
+     * 在线模式显式指定 ALGORITHM 和 LOCK，存在只能 COPY 的子句时 MySQL 在开始前直接拒绝整条语句，不会退化为锁表复制
+     */
+    private DdlStatement buildMysqlAlter(String sql, List<AlterClause> clauses, boolean online) {
+        List<String> copyClauses = clauses.stream()
+                .filter(clause -> "COPY".equals(clause.algorithm()))
+                .map(AlterClause::sql)
+                .toList();
+        boolean instant = clauses.stream().allMatch(clause -> "INSTANT".equals(clause.algorithm()));
+        
+        if (!copyClauses.isEmpty()) {
+            if (online) {
+                return DdlStatement.builder()
+                        .sql(sql + ",\n  ALGORITHM=INPLACE, LOCK=NONE;")
+                        .lock("NONE")
+                        .blocksWrites(false)
+                        .failFast(true)
+                        .description("以下子句不支持 LOCK=NONE，MySQL 会直接拒绝整条语句，需在维护窗口离线执行: "
+                                + String.join("; ", copyClauses))
+                        .build();
+            }
+            return ddl(sql + ";", "SHARED", true, "需要复制整表，期间阻塞写入: " + String.join("; ", copyClauses));
+        }
+        if (instant) {
+            return ddl(sql + (online ? ",\n  ALGORITHM=INSTANT;" : ";"), "NONE", false, "只修改数据字典，瞬间完成");
+        }
+        return ddl(sql + (online ? ",\n  ALGORITHM=INPLACE, LOCK=NONE;" : ";"), "NONE", false,
+                "原地变更，允许并发读写，开始和结束时短暂持有元数据锁");
+    }
+    
+    /**
+     * 生成索引变更的 SQL：先删除多余和定义变化的索引，再创建缺失的索引
+     */
+    private List<String> generateIndexSql(TableDiff tableDiff, String dbType) {
+        List<String> sqls = new ArrayList<>();
+        if (tableDiff.getIndexDiffs() == null || tableDiff.getIndexDiffs().isEmpty()) {
+            return sqls;
+        }
+        String tableName = tableDiff.getTableName();
+        
+        for (IndexDiff indexDiff : tableDiff.getIndexDiffs()) {
+            if (("DELETE".equals(indexDiff.getDiffType()) || "MODIFY".equals(indexDiff.getDiffType()))
+                    && indexDiff.getTargetIndex() != null) {
+                sqls.add(buildDropIndexSql(tableName, indexDiff.getTargetIndex(), dbType, false));
+            }
+        }
+        for (IndexDiff indexDiff : tableDiff.getIndexDiffs()) {
+            if (("ADD".equals(indexDiff.getDiffType()) || "MODIFY".equals(indexDiff.getDiffType()))
+                    && indexDiff.getSourceIndex() != null) {
+                sqls.add(buildCreateIndexSql(tableName, indexDiff.getSourceIndex(), dbType, false));
+            }
+        }
+        
+        sqls.removeIf(Objects::isNull);
         return sqls;
     }
     
     /**
-     * 生成列修改的 SQL
+     * 生成外键变更的 SQL
+     *
+     * @param create true 生成新增（ADD、MODIFY）的 ADD CONSTRAINT，false 生成删除（DELETE、MODIFY）的 DROP
+     * @param online MySQL 附加 ALGORITHM=INPLACE, LOCK=NONE；PostgreSQL 拆为 NOT VALID 和 VALIDATE CONSTRAINT 两步
+     */
+    private List<DdlStatement> generateForeignKeySql(TableDiff tableDiff, String dbType, boolean create, boolean online) {
+        List<DdlStatement> statements = new ArrayList<>();
+        if (tableDiff.getForeignKeyDiffs() == null || !List.of("mysql", "postgresql").contains(dbType)) {
+            return statements;
+        }
+        String tableName = tableDiff.getTableName();
+        boolean mysql = "mysql".equals(dbType);
+        
+        for (ForeignKeyDiff foreignKeyDiff : tableDiff.getForeignKeyDiffs()) {
+            String diffType = foreignKeyDiff.getDiffType();
+            if (create && ("ADD".equals(diffType) || "MODIFY".equals(diffType)) && foreignKeyDiff.getSourceForeignKey() != null) {
+                ForeignKeyDiff.ForeignKeyInfo foreignKey = foreignKeyDiff.getSourceForeignKey();
+                String sql = buildAddForeignKeySql(tableName, foreignKey, dbType);
+                if (mysql && online) {
+                    statements.add(DdlStatement.builder()
+                            .sql(StringUtils.removeEnd(sql, ";") + ", ALGORITHM=INPLACE, LOCK=NONE;")
+                            .lock("NONE")
+                            .blocksWrites(false)
+                            .failFast(true)
+                            .description("foreign_key_checks 开启时添加外键只能 COPY，MySQL 会直接拒绝；"
+                                    + "确认已有数据满足约束后可在关闭 foreign_key_checks 的会话中执行")
+                            .build());
+                } else if (mysql) {
+                    statements.add(ddl(sql, "SHARED", true, "复制整表并校验已有行，期间阻塞写入"));
+                } else if (online) {
+                    statements.add(ddl(StringUtils.removeEnd(sql, ";") + " NOT VALID;", "SHARE ROW EXCLUSIVE", true,
+                            "只登记约束、不校验已有行，短暂阻塞本表和被引用表的写入"));
+                    statements.add(ddl(String.format("ALTER TABLE \"%s\" VALIDATE CONSTRAINT \"%s\";", tableName, foreignKey.getName()),
+                            "SHARE UPDATE EXCLUSIVE", false, "校验已有行，不阻塞读写（被引用表持有 ROW SHARE）"));
+                } else {
+                    statements.add(ddl(sql, "SHARE ROW EXCLUSIVE", true, "校验全部已有行，期间阻塞本表和被引用表的写入"));
+                }
+            } else if (!create && ("DELETE".equals(diffType) || "MODIFY".equals(diffType)) && foreignKeyDiff.getTargetForeignKey() != null) {
+                String sql = buildDropForeignKeySql(tableName, foreignKeyDiff.getTargetForeignKey().getName(), dbType);
+                if (mysql) {
+                    statements.add(ddl(online ? StringUtils.removeEnd(sql, ";") + ", ALGORITHM=INPLACE, LOCK=NONE;" : sql,
+                            "NONE", false, "只修改数据字典，允许并发读写"));
+                } else {
+                    statements.add(ddl(sql, "ACCESS EXCLUSIVE", true, "只修改目录，短暂持有 ACCESS EXCLUSIVE 锁"));
+                }
+            }
+        }
+        
+        return statements;
+    }
+    
+    /**
+     * 构建添加外键的 SQL
+     */
+    private String buildAddForeignKeySql(String tableName, ForeignKeyDiff.ForeignKeyInfo foreignKey, String dbType) {
+        String quote;
+        if ("mysql".equals(dbType)) {
+            quote = "`";
+        } else if ("postgresql".equals(dbType)) {
+            quote = "\"";
+        } else {
+            return null;
+        }
+        
+        StringBuilder sql = new StringBuilder();
+        sql.append("ALTER TABLE ").append(quote).append(tableName).append(quote)
+           .append(" ADD CONSTRAINT ").append(quote).append(foreignKey.getName()).append(quote)
+           .append(" FOREIGN KEY (")
+           .append(foreignKey.getColumns().stream()
+                   .map(column -> quote + column + quote)
+                   .collect(java.util.stream.Collectors.joining(", ")))
+           .append(") REFERENCES ").append(quote).append(foreignKey.getReferencedTable()).append(quote)
+           .append(" (")
+           .append(foreignKey.getReferencedColumns().stream()
+                   .map(column -> quote + column + quote)
+                   .collect(java.util.stream.Collectors.joining(", ")))
+           .append(")");
+        
+        if (foreignKey.getOnDelete() != null) {
+            sql.append(" ON DELETE ").append(foreignKey.getOnDelete());
+        }
+        if (foreignKey.getOnUpdate() != null) {
+            sql.append(" ON UPDATE ").append(foreignKey.getOnUpdate());
+        }
+        
+        sql.append(";");
+        return sql.toString();
+    }
+    
+    /**
+     * 构建删除外键的 SQL
+     */
+    private String buildDropForeignKeySql(String tableName, String foreignKeyName, String dbType) {
+        if ("mysql".equals(dbType)) {
+            return String.format("ALTER TABLE `%s` DROP FOREIGN KEY `%s`;", tableName, foreignKeyName);
+        } else if ("postgresql".equals(dbType)) {
+            return String.format("ALTER TABLE \"%s\" DROP CONSTRAINT \"%s\";", tableName, foreignKeyName);
+        }
+        return null;
+    }
+    
+    /**
+     * 构建创建索引的 SQL，目标库不支持的索引类型只生成注释
+     */
+    private String buildCreateIndexSql(String tableName, IndexDiff.IndexInfo index, String dbType, boolean concurrently) {
+        String type = indexType(index);
+        String columns = buildIndexColumns(index, dbType);
+        
+        if ("mysql".equals(dbType)) {
+            if (!MYSQL_INDEX_TYPES.contains(type)) {
+                return String.format("-- 索引 %s 的类型 %s 在 MySQL 中不支持，请手动创建", index.getName(), type);
+            }
+            return String.format("CREATE %sINDEX `%s` ON `%s` (%s)%s;",
+                    mysqlIndexKind(index, type), index.getName(), tableName, columns, "HASH".equals(type) ? " USING HASH" : "");
+        } else if ("postgresql".equals(dbType)) {
+            if (!List.of("BTREE", "HASH", "GIN", "GIST", "BRIN", "SPGIST").contains(type)) {
+                return String.format("-- 索引 %s 的类型 %s 在 PostgreSQL 中不支持，请手动创建", index.getName(), type);
+            }
+            return String.format("CREATE %sINDEX %s\"%s\" ON \"%s\"%s (%s);",
+                    Boolean.TRUE.equals(index.getUnique()) ? "UNIQUE " : "",
+                    concurrently ? "CONCURRENTLY " : "",
+                    index.getName(), tableName,
+                    "BTREE".equals(type) ? "" : " USING " + type.toLowerCase(),
+                    columns);
+        }
+        return null;
+    }
+    
+    /**
+     * MySQL ALTER TABLE 中新增索引的子句，类型不支持时返回 null
+     */
+    private String buildAddIndexClause(IndexDiff.IndexInfo index) {
+        String type = indexType(index);
+        if (!MYSQL_INDEX_TYPES.contains(type)) {
+            return null;
+        }
+        return String.format("ADD %sINDEX `%s` (%s)%s",
+                mysqlIndexKind(index, type), index.getName(), buildIndexColumns(index, "mysql"), "HASH".equals(type) ? " USING HASH" : "");
+    }
+    
+    private String indexType(IndexDiff.IndexInfo index) {
+        return index.getType() == null ? "BTREE" : index.getType().toUpperCase();
+    }
+    
+    private String mysqlIndexKind(IndexDiff.IndexInfo index, String type) {
+        return switch (type) {
+            case "FULLTEXT" -> "FULLTEXT ";
+            case "SPATIAL" -> "SPATIAL ";
+            default -> Boolean.TRUE.equals(index.getUnique()) ? "UNIQUE " : "";
+        };
+    }
+    
+    private String buildIndexColumns(IndexDiff.IndexInfo index, String dbType) {
+        List<String> columns = index.getColumns();
+        List<String> parts = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            Integer prefixLength = index.getPrefixLengths() != null && i < index.getPrefixLengths().size()
+                    ? index.getPrefixLengths().get(i)
+                    : null;
+            parts.add(buildIndexColumn(columns.get(i), prefixLength, dbType));
+        }
+        return String.join(", ", parts);
+    }
+    
+    /**
+     * 索引键：普通列加引号，MySQL 前缀索引带长度，表达式（函数索引、PostgreSQL 表达式索引）加括号
+     */
+    private String buildIndexColumn(String column, Integer prefixLength, String dbType) {
+        if (column.contains("(") || column.contains(" ")) {
+            return "(" + column + ")";
+        }
+        if ("mysql".equals(dbType)) {
+            return "`" + column + "`" + (prefixLength != null ? "(" + prefixLength + ")" : "");
+        }
+        return "\"" + column + "\"";
+    }
+    
+    /**
+     * 构建删除索引的 SQL，PostgreSQL 由唯一约束创建的索引需删除约束
+     *
+     * @param concurrently PostgreSQL 普通索引使用 DROP INDEX CONCURRENTLY
+     */
+    private String buildDropIndexSql(String tableName, IndexDiff.IndexInfo index, String dbType, boolean concurrently) {
+        if ("mysql".equals(dbType)) {
+            return String.format("DROP INDEX `%s` ON `%s`;", index.getName(), tableName);
+        } else if ("postgresql".equals(dbType)) {
+            if (Boolean.TRUE.equals(index.getConstraint())) {
+                return String.format("ALTER TABLE \"%s\" DROP CONSTRAINT \"%s\";", tableName, index.getName());
+            }
+            return String.format("DROP INDEX %sIF EXISTS \"%s\";", concurrently ? "CONCURRENTLY " : "", index.getName());
+        }
+        return null;
+    }
+    
+    /**
+     * 生成列修改的 ALTER TABLE 子句
      */
-    private String generateColumnAlterSql(String tableName, ColumnDiff columnDiff, String dbType) {
+    private AlterClause generateColumnAlterClause(ColumnDiff columnDiff, String dbType) {
         String columnName = columnDiff.getColumnName();
         
         switch (columnDiff.getDiffType()) {
@@ -363,19 +785,20 @@ public class SchemaSyncService {
                 // 添加列
                 if (columnDiff.getSourceColumn() != null) {
                     ColumnDiff.ColumnInfo col = columnDiff.getSourceColumn();
-                    return buildAddColumnSql(tableName, col, dbType);
+                    return buildAddColumnClause(col, dbType);
                 }
                 break;
                 
             case "DELETE":
-                // 删除列
-                return buildDropColumnSql(tableName, columnName, dbType);
+                // 删除列，PostgreSQL 只标记删除不重写表
+                return "mysql".equals(dbType)
+                        ? new AlterClause(buildDropColumnClause(columnName, dbType), true, "INPLACE")
+                        : new AlterClause(buildDropColumnClause(columnName, dbType), false, null);
                 
             case "MODIFY":
                 // 修改列
                 if (columnDiff.getSourceColumn() != null) {
-                    ColumnDiff.ColumnInfo col = columnDiff.getSourceColumn();
-                    return buildModifyColumnSql(tableName, col, dbType);
+                    return buildModifyColumnAlterClause(columnDiff, dbType);
                 }
                 break;
         }
@@ -384,12 +807,17 @@ public class SchemaSyncService {
     }
     
     /**
-     * 构建添加列的 SQL
+     * 构建添加列的子句
      */
-    private String buildAddColumnSql(String tableName, ColumnDiff.ColumnInfo column, String dbType) {
+    private AlterClause buildAddColumnClause(ColumnDiff.ColumnInfo column, String dbType) {
+        if ("postgresql".equals(dbType) && Boolean.TRUE.equals(column.getAutoIncrement())) {
+            // PostgreSQL 使用 SERIAL 类型，需要为已有行填充序列值
+            return new AlterClause(String.format("ADD COLUMN \"%s\" SERIAL", column.getName()), true, null);
+        }
+        
+        String quote = "mysql".equals(dbType) ? "`" : "\"";
         StringBuilder sql = new StringBuilder();
-        sql.append("ALTER TABLE `").append(tableName).append("` ADD COLUMN `")
-           .append(column.getName()).append("` ")
+        sql.append("ADD COLUMN ").append(quote).append(column.getName()).append(quote).append(" ")
            .append(column.getDataType());
         
         // 可空性
@@ -402,50 +830,133 @@ public class SchemaSyncService {
             sql.append(" DEFAULT ").append(column.getDefaultValue());
         }
         
-        // 自增
-        if (Boolean.TRUE.equals(column.getAutoIncrement())) {
-            if ("mysql".equals(dbType)) {
+        if ("mysql".equals(dbType)) {
+            // 自增
+            if (Boolean.TRUE.equals(column.getAutoIncrement())) {
                 sql.append(" AUTO_INCREMENT");
-            } else if ("postgresql".equals(dbType)) {
-                // PostgreSQL 使用 SERIAL 类型
-                sql = new StringBuilder();
-                sql.append("ALTER TABLE \"").append(tableName).append("\" ADD COLUMN \"")
-                   .append(column.getName()).append("\" SERIAL");
             }
-        }
-        
-        // 注释
-        if (column.getComment() != null && !column.getComment().isEmpty()) {
-            if ("mysql".equals(dbType)) {
-                sql.append(" COMMENT '").append(column.getComment()).append("'");
+            
+            // 注释
+            if (column.getComment() != null && !column.getComment().isEmpty()) {
+                sql.append(" COMMENT '").append(column.getComment().replace("'", "''")).append("'");
             }
         }
         
-        sql.append(";");
-        return sql.toString();
+        if (!"mysql".equals(dbType)) {
+            // PostgreSQL 11 起带常量默认值的新增列只修改目录，不重写表
+            return new AlterClause(sql.toString(), false, null);
+        }
+        // MySQL 8.0 在表尾追加列可以 INSTANT 完成，自增列需要复制整表填充
+        return Boolean.TRUE.equals(column.getAutoIncrement())
+                ? new AlterClause(sql.toString(), true, "COPY")
+                : new AlterClause(sql.toString(), false, "INSTANT");
     }
     
     /**
-     * 构建删除列的 SQL
+     * 修改列的子句及其代价：MySQL 复制整表或改变可空性（需要原地重建并校验数据）时视为重建，
+     * 只改默认值、注释或同长度前缀内加长 VARCHAR 不重建；PostgreSQL 仅在类型变化需要重写表时视为重建
      */
-    private String buildDropColumnSql(String tableName, String columnName, String dbType) {
+    private AlterClause buildModifyColumnAlterClause(ColumnDiff columnDiff, String dbType) {
+        ColumnDiff.ColumnInfo source = columnDiff.getSourceColumn();
+        ColumnDiff.ColumnInfo target = columnDiff.getTargetColumn();
+        String sql = buildModifyColumnClause(source, dbType);
         if ("mysql".equals(dbType)) {
-            return String.format("ALTER TABLE `%s` DROP COLUMN `%s`;", tableName, columnName);
-        } else if ("postgresql".equals(dbType)) {
-            return String.format("ALTER TABLE \"%s\" DROP COLUMN \"%s\";", tableName, columnName);
+            String algorithm = mysqlModifyAlgorithm(columnDiff);
+            boolean rebuild = "COPY".equals(algorithm)
+                    || Boolean.FALSE.equals(source.getNullable()) != Boolean.FALSE.equals(target.getNullable());
+            return new AlterClause(sql, rebuild, algorithm);
         }
-        return null;
+        return new AlterClause(sql, postgresqlTypeChangeRewrites(source, target), null);
+    }
+    
+    /**
+     * PostgreSQL 修改列类型是否需要重写表：类型不变、VARCHAR 加长或 VARCHAR 改为 TEXT 只改目录
+     */
+    private boolean postgresqlTypeChangeRewrites(ColumnDiff.ColumnInfo source, ColumnDiff.ColumnInfo target) {
+        if (target == null || source.getDataType() == null || target.getDataType() == null) {
+            return true;
+        }
+        if (source.getDataType().equalsIgnoreCase(target.getDataType())) {
+            return false;
+        }
+        Matcher targetVarchar = VARCHAR_TYPE.matcher(target.getDataType());
+        if (!targetVarchar.matches()) {
+            return true;
+        }
+        if ("text".equalsIgnoreCase(source.getDataType())) {
+            return false;
+        }
+        Matcher sourceVarchar = VARCHAR_TYPE.matcher(source.getDataType());
+        return !sourceVarchar.matches()
+                || Long.parseLong(sourceVarchar.group(1)) < Long.parseLong(targetVarchar.group(1));
     }
     
     /**
-     * 构建修改列的 SQL
+     * MySQL 修改列可用的算法：类型和字符集不变（只改可空、默认值、注释）或 VARCHAR 加长可以原地完成，其余需要复制整表。
+     * VARCHAR 的长度前缀在最大字节数不超过 255 时为 1 字节，否则为 2 字节；加长跨过 255 字节时长度前缀变化，
+     * MySQL 仍需复制整表，在线模式下会被直接拒绝
      */
-    private String buildModifyColumnSql(String tableName, ColumnDiff.ColumnInfo column, String dbType) {
+    private String mysqlModifyAlgorithm(ColumnDiff columnDiff) {
+        ColumnDiff.ColumnInfo source = columnDiff.getSourceColumn();
+        ColumnDiff.ColumnInfo target = columnDiff.getTargetColumn();
+        if (target == null || source.getDataType() == null || target.getDataType() == null) {
+            return "COPY";
+        }
+        if (!Objects.equals(source.getCharacterSet(), target.getCharacterSet())
+                || !Objects.equals(source.getCollation(), target.getCollation())) {
+            return "COPY";
+        }
+        if (source.getDataType().equalsIgnoreCase(target.getDataType())) {
+            return "INPLACE";
+        }
+        Matcher sourceVarchar = VARCHAR_TYPE.matcher(source.getDataType());
+        Matcher targetVarchar = VARCHAR_TYPE.matcher(target.getDataType());
+        if (sourceVarchar.matches() && targetVarchar.matches()) {
+            int bytesPerChar = mysqlMaxBytesPerChar(target);
+            long newBytes = Long.parseLong(sourceVarchar.group(1)) * bytesPerChar;
+            long oldBytes = Long.parseLong(targetVarchar.group(1)) * bytesPerChar;
+            if (newBytes >= oldBytes && (newBytes <= 255) == (oldBytes <= 255)) {
+                return "INPLACE";
+            }
+        }
+        return "COPY";
+    }
+    
+    /**
+     * 列字符集每个字符的最大字节数；字符集未知时按 utf8mb4 的 4 字节保守估计
+     */
+    private int mysqlMaxBytesPerChar(ColumnDiff.ColumnInfo column) {
+        String charset = column.getCharacterSet();
+        if (StringUtils.isBlank(charset) && StringUtils.isNotBlank(column.getCollation())) {
+            charset = StringUtils.substringBefore(column.getCollation(), "_");
+        }
+        return switch (StringUtils.lowerCase(StringUtils.defaultString(charset))) {
+            case "latin1", "latin2", "latin5", "latin7", "ascii", "binary", "cp1250", "cp1251", "cp1256", "cp1257",
+                 "cp850", "cp852", "cp866", "dec8", "greek", "hebrew", "hp8", "keybcs2", "koi8r", "koi8u",
+                 "macce", "macroman", "swe7", "tis620", "armscii8", "geostd8" -> 1;
+            case "big5", "cp932", "euckr", "gb2312", "gbk", "sjis", "ucs2" -> 2;
+            case "utf8", "utf8mb3", "ujis", "eucjpms" -> 3;
+            default -> 4;
+        };
+    }
+    
+    /**
+     * 构建删除列的子句
+     */
+    private String buildDropColumnClause(String columnName, String dbType) {
+        return "mysql".equals(dbType)
+                ? String.format("DROP COLUMN `%s`", columnName)
+                : String.format("DROP COLUMN \"%s\"", columnName);
+    }
+    
+    /**
+     * 构建修改列的子句
+     */
+    private String buildModifyColumnClause(ColumnDiff.ColumnInfo column, String dbType) {
         StringBuilder sql = new StringBuilder();
         
         if ("mysql".equals(dbType)) {
-            sql.append("ALTER TABLE `").append(tableName).append("` MODIFY COLUMN `")
-               .append(column.getName()).append("` ")
+            sql.append("MODIFY COLUMN `").append(column.getName()).append("` ")
                .append(column.getDataType());
             
             if (Boolean.FALSE.equals(column.getNullable())) {
@@ -457,18 +968,14 @@ public class SchemaSyncService {
             }
             
             if (column.getComment() != null && !column.getComment().isEmpty()) {
-                sql.append(" COMMENT '").append(column.getComment()).append("'");
+                sql.append(" COMMENT '").append(column.getComment().replace("'", "''")).append("'");
             }
             
-        } else if ("postgresql".equals(dbType)) {
-            // PostgreSQL 需要多条语句
-            sql.append("ALTER TABLE \"").append(tableName).append("\" ALTER COLUMN \"")
-               .append(column.getName()).append("\" TYPE ")
+        } else {
+            sql.append("ALTER COLUMN \"").append(column.getName()).append("\" TYPE ")
                .append(column.getDataType());
         }
         
-        sql.append(";");
         return sql.toString();
     }
 }
-
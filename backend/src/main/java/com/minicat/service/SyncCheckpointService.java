@@ -0,0 +1,139 @@
+package com.minicat.service;
+
+import com.minicat.entity.SyncCheckpoint;
+import com.minicat.repository.SyncCheckpointRepository;
+import com.minicat.service.sync.SecondaryIndex;
+import com.minicat.service.sync.SyncAction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 数据同步检查点服务
+ *
+ * 分块提交后记录每张表、每种动作已提交的行数作为进度，整表写入且没有被拒绝的行时写入完成标记。
+ * 继续同步时跳过已完成的表，其余表重新比对：已提交的行不会再出现在差异中，
+ * 因此不按主键位置过滤差异，中断后再次变化或被拒绝的行都会重新写入
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncCheckpointService {
+
+    static final String TABLE_COMPLETED = "TABLE";
+    static final String INDEX_STEP_PREFIX = "INDEX:";
+
+    private final SyncCheckpointRepository checkpointRepository;
+
+    /**
+     * 加载任务的检查点，按表名分组
+     */
+    public Map<String, List<SyncCheckpoint>> loadCheckpoints(String taskId) {
+        return checkpointRepository.findByTaskId(taskId).stream()
+                .collect(Collectors.groupingBy(SyncCheckpoint::getTableName));
+    }
+
+    /**
+     * 创建表级检查点记录器
+     */
+    public TableCheckpoint forTable(String taskId, String tableName) {
+        return new TableCheckpoint(taskId, tableName);
+    }
+
+    /**
+     * 表是否已在之前的执行中完成
+     */
+    public boolean isTableCompleted(List<SyncCheckpoint> checkpoints) {
+        return checkpoints != null && checkpoints.stream()
+                .anyMatch(checkpoint -> TABLE_COMPLETED.equals(checkpoint.getAction()) && Boolean.TRUE.equals(checkpoint.getCompleted()));
+    }
+
+    /**
+     * 移除索引前记录重建语句，进程中断后继续同步时据此重建
+     */
+    public void recordDeferredIndex(String taskId, SecondaryIndex index) {
+        saveIndexStep(taskId, index, false);
+    }
+
+    public void markIndexRestored(String taskId, SecondaryIndex index) {
+        saveIndexStep(taskId, index, true);
+    }
+
+    /**
+     * 之前的执行中已移除但尚未重建的索引
+     */
+    public List<SecondaryIndex> pendingIndexes(Map<String, List<SyncCheckpoint>> checkpoints) {
+        return checkpoints.values().stream()
+                .flatMap(List::stream)
+                .filter(checkpoint -> isIndexStep(checkpoint) && !Boolean.TRUE.equals(checkpoint.getCompleted()))
+                .map(checkpoint -> new SecondaryIndex(
+                        checkpoint.getTableName(),
+                        StringUtils.removeStart(checkpoint.getAction(), INDEX_STEP_PREFIX),
+                        checkpoint.getRestoreStatement()))
+                .collect(Collectors.toList());
+    }
+
+    private boolean isIndexStep(SyncCheckpoint checkpoint) {
+        return StringUtils.startsWith(checkpoint.getAction(), INDEX_STEP_PREFIX);
+    }
+
+    private void saveIndexStep(String taskId, SecondaryIndex index, boolean restored) {
+        String action = INDEX_STEP_PREFIX + index.name();
+        checkpointRepository.save(SyncCheckpoint.builder()
+                .id(taskId + ":" + index.tableName() + ":" + action)
+                .taskId(taskId)
+                .tableName(index.tableName())
+                .action(action)
+                .restoreStatement(index.createStatement())
+                .completed(restored)
+                .updatedTime(LocalDateTime.now())
+                .build());
+    }
+
+    private void save(String taskId, String tableName, String action, long rows, boolean completed) {
+        SyncCheckpoint checkpoint = SyncCheckpoint.builder()
+                .id(taskId + ":" + tableName + ":" + action)
+                .taskId(taskId)
+                .tableName(tableName)
+                .action(action)
+                .committedRows(rows)
+                .completed(completed)
+                .updatedTime(LocalDateTime.now())
+                .build();
+        checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * 单表检查点
+     */
+    public class TableCheckpoint {
+
+        private final String taskId;
+        private final String tableName;
+
+        private TableCheckpoint(String taskId, String tableName) {
+            this.taskId = taskId;
+            this.tableName = tableName;
+        }
+
+        /**
+         * 记录一次提交后各动作的累计行数
+         */
+        public void committed(Map<SyncAction, Long> rows) {
+            rows.forEach((action, count) -> save(taskId, tableName, action.name(), count, false));
+        }
+
+        /**
+         * 标记整表同步完成
+         */
+        public void completed(long affectedRows) {
+            save(taskId, tableName, TABLE_COMPLETED, affectedRows, true);
+        }
+    }
+}
@@ -64,6 +64,26 @@ public class TaskService {
         return null;
     }
     
+    public Task saveRequestPayload(String id, String payload) {
+        Task task = getTaskById(id);
+        if (task != null) {
+            task.setRequestPayload(payload);
+            return taskRepository.save(task);
+        }
+        return null;
+    }
+    
+    public Task restartTask(String id, String message) {
+        Task task = getTaskById(id);
+        if (task != null) {
+            task.setStatus("RUNNING");
+            task.setMessage(message);
+            task.setEndTime(null);
+            return taskRepository.save(task);
+        }
+        return null;
+    }
+    
     public Task failTask(String id, String errorMessage) {
         Task task = getTaskById(id);
         if (task != null) {
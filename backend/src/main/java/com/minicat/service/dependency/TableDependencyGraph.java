@@ -0,0 +1,233 @@
+package com.minicat.service.dependency;
+
+import com.minicat.dto.DependencyGraph;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 表外键依赖图
+ *
+ * 节点为表，边由子表指向其引用的父表。用 Tarjan 算法求强连通分量后分层：
+ * 同一层内的表互不依赖，可以并行处理；处于同一环中的表落在同一层并作为环报告。
+ * 迭代实现，避免数千张表的长引用链导致栈溢出
+ */
+public class TableDependencyGraph {
+
+    private final Map<String, Set<String>> parents = new LinkedHashMap<>();
+    private final Map<String, String> tablesByLowerName = new HashMap<>();
+    private List<List<String>> components;
+
+    public TableDependencyGraph(Collection<String> tables) {
+        for (String table : tables) {
+            parents.put(table, new LinkedHashSet<>());
+            tablesByLowerName.putIfAbsent(table.toLowerCase(Locale.ROOT), table);
+        }
+    }
+
+    /**
+     * @param tables     参与分析的表
+     * @param references 表到其引用表的映射；自引用和引用范围外的表被忽略
+     */
+    public static TableDependencyGraph of(Collection<String> tables, Map<String, Set<String>> references) {
+        TableDependencyGraph graph = new TableDependencyGraph(tables);
+        references.forEach((child, referenced) -> referenced.forEach(parent -> graph.addDependency(child, parent)));
+        return graph;
+    }
+
+    /**
+     * 通过 DatabaseMetaData.getImportedKeys 构建依赖图（只保留给定表之间的依赖）
+     */
+    public static TableDependencyGraph load(Connection connection, Collection<String> tables) throws SQLException {
+        TableDependencyGraph graph = new TableDependencyGraph(tables);
+        DatabaseMetaData metaData = connection.getMetaData();
+        String catalog = connection.getCatalog();
+        String schema = connection.getSchema();
+
+        for (String table : tables) {
+            try (ResultSet rs = metaData.getImportedKeys(catalog, schema, table)) {
+                while (rs.next()) {
+                    graph.addDependency(table, rs.getString("PKTABLE_NAME"));
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * 添加依赖：child 引用 parent（忽略自引用和图外的表）
+     */
+    public void addDependency(String child, String parent) {
+        String resolvedChild = resolve(child);
+        String resolvedParent = resolve(parent);
+        if (resolvedChild == null || resolvedParent == null || resolvedChild.equals(resolvedParent)) {
+            return;
+        }
+        if (parents.get(resolvedChild).add(resolvedParent)) {
+            components = null;
+        }
+    }
+
+    public Set<String> tables() {
+        return Collections.unmodifiableSet(parents.keySet());
+    }
+
+    public Set<String> parentsOf(String table) {
+        return Collections.unmodifiableSet(parents.getOrDefault(table, Collections.emptySet()));
+    }
+
+    /**
+     * 父表在前的分层结果，层内保持加入图时的顺序
+     */
+    public List<List<String>> levels() {
+        List<List<String>> components = stronglyConnectedComponents();
+        Map<String, Integer> componentOf = new HashMap<>();
+        for (int i = 0; i < components.size(); i++) {
+            for (String table : components.get(i)) {
+                componentOf.put(table, i);
+            }
+        }
+
+        // Tarjan 算法按逆拓扑序输出分量：父表所在分量总是先于子表分量完成
+        int[] componentLevel = new int[components.size()];
+        for (int i = 0; i < components.size(); i++) {
+            int level = 0;
+            for (String table : components.get(i)) {
+                for (String parent : parents.get(table)) {
+                    int parentComponent = componentOf.get(parent);
+                    if (parentComponent != i) {
+                        level = Math.max(level, componentLevel[parentComponent] + 1);
+                    }
+                }
+            }
+            componentLevel[i] = level;
+        }
+
+        TreeMap<Integer, List<String>> levels = new TreeMap<>();
+        for (String table : parents.keySet()) {
+            levels.computeIfAbsent(componentLevel[componentOf.get(table)], key -> new ArrayList<>()).add(table);
+        }
+        return new ArrayList<>(levels.values());
+    }
+
+    /**
+     * 依赖环（每个环为一组相互依赖的表，自引用不计入）
+     */
+    public List<List<String>> cycles() {
+        return stronglyConnectedComponents().stream()
+                .filter(component -> component.size() > 1)
+                .toList();
+    }
+
+    /**
+     * 转换为接口返回的依赖图
+     */
+    public DependencyGraph toDependencyGraph() {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        parents.forEach((table, referenced) -> {
+            if (!referenced.isEmpty()) {
+                dependencies.put(table, referenced.stream().sorted().collect(Collectors.toList()));
+            }
+        });
+        return DependencyGraph.builder()
+                .levels(levels())
+                .cycles(new ArrayList<>(cycles()))
+                .dependencies(dependencies)
+                .build();
+    }
+
+    private String resolve(String table) {
+        if (table == null) {
+            return null;
+        }
+        if (parents.containsKey(table)) {
+            return table;
+        }
+        return tablesByLowerName.get(table.toLowerCase(Locale.ROOT));
+    }
+
+    private List<List<String>> stronglyConnectedComponents() {
+        if (components != null) {
+            return components;
+        }
+        Map<String, Integer> index = new HashMap<>();
+        Map<String, Integer> lowLink = new HashMap<>();
+        Set<String> onStack = new HashSet<>();
+        Deque<String> stack = new ArrayDeque<>();
+        List<List<String>> result = new ArrayList<>();
+
+        for (String root : parents.keySet()) {
+            if (index.containsKey(root)) {
+                continue;
+            }
+            // 用显式栈模拟递归：栈顶帧记录当前表及其尚未访问的父表
+            Deque<Frame> work = new ArrayDeque<>();
+            visit(root, index, lowLink, onStack, stack, work);
+            while (!work.isEmpty()) {
+                Frame frame = work.peek();
+                if (frame.next().hasNext()) {
+                    String parent = frame.next().next();
+                    if (!index.containsKey(parent)) {
+                        visit(parent, index, lowLink, onStack, stack, work);
+                    } else if (onStack.contains(parent)) {
+                        lowLink.merge(frame.table(), index.get(parent), Math::min);
+                    }
+                    continue;
+                }
+                work.pop();
+                if (!work.isEmpty()) {
+                    lowLink.merge(work.peek().table(), lowLink.get(frame.table()), Math::min);
+                }
+                if (lowLink.get(frame.table()).equals(index.get(frame.table()))) {
+                    List<String> component = new ArrayList<>();
+                    String member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (!member.equals(frame.table()));
+                    Collections.sort(component);
+                    result.add(component);
+                }
+            }
+        }
+        components = result;
+        return components;
+    }
+
+    private void visit(
+            String table,
+            Map<String, Integer> index,
+            Map<String, Integer> lowLink,
+            Set<String> onStack,
+            Deque<String> stack,
+            Deque<Frame> work) {
+        int order = index.size();
+        index.put(table, order);
+        lowLink.put(table, order);
+        stack.push(table);
+        onStack.add(table);
+        work.push(new Frame(table, parents.get(table).iterator()));
+    }
+
+    private record Frame(String table, Iterator<String> next) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.minicat.service.schema;
+
+import com.minicat.dto.ConnectionDto;
+import com.minicat.manager.MetadataCatalogCache;
+import com.minicat.service.sync.DatabaseDialect;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 在线连接一侧，结构模型经 {@link MetadataCatalogCache} 读取
+ */
+public class LiveSchemaSide implements SchemaSide {
+
+    private final ConnectionDto connection;
+    private final DataSource dataSource;
+    private final MetadataCatalogCache cache;
+
+    /**
+     * @param cache 为空时每次直接查询目录（采集快照时需要最新结构）
+     */
+    public LiveSchemaSide(ConnectionDto connection, DataSource dataSource, MetadataCatalogCache cache) {
+        this.connection = connection;
+        this.dataSource = dataSource;
+        this.cache = cache;
+    }
+
+    @Override
+    public String id() {
+        return connection.getId();
+    }
+
+    @Override
+    public String name() {
+        return connection.getName();
+    }
+
+    @Override
+    public String databaseType() {
+        return connection.getType();
+    }
+
+    @Override
+    public boolean snapshot() {
+        return false;
+    }
+
+    /**
+     * MySQL 使用数据库名，PostgreSQL 使用连接选项中的 schema（默认 public）
+     */
+    public String schemaName() {
+        if ("postgresql".equals(connection.getType())) {
+            Object schema = connection.getOptions() != null ? connection.getOptions().get("schema") : null;
+            return schema != null ? schema.toString() : "public";
+        }
+        return connection.getDatabase();
+    }
+
+    @Override
+    public Set<String> tableNames(TableFilter filter) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            return SchemaMetadataLoader.loadTableNames(conn, dialect(), schemaName(), filter);
+        }
+    }
+
+    @Override
+    public Map<String, Map<SchemaFingerprint.Part, String>> fingerprints(Set<String> tables) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            return SchemaFingerprint.computeParts(conn, dialect(), schemaName(), tables);
+        }
+    }
+
+    @Override
+    public SchemaModel model(Set<String> tables, boolean withIndexes, boolean withForeignKeys) throws SQLException {
+        if (tables.isEmpty()) {
+            return new SchemaModel();
+        }
+        MetadataCatalogCache.Loader<SchemaModel> loader = () -> {
+            try (Connection conn = dataSource.getConnection()) {
+                return SchemaMetadataLoader.load(conn, dialect(), schemaName(), tables, withIndexes, withForeignKeys);
+            }
+        };
+        return cache == null
+                ? loader.load()
+                : cache.schemaModel(connection.getId(), tables, withIndexes, withForeignKeys, loader);
+    }
+
+    @Override
+    public Map<String, Set<String>> tableReferences() throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            return SchemaMetadataLoader.loadTableReferences(conn, dialect(), schemaName());
+        }
+    }
+
+    private DatabaseDialect dialect() {
+        return DatabaseDialect.fromType(connection.getType());
+    }
+}
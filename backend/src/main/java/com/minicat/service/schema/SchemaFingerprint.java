@@ -0,0 +1,227 @@
+package com.minicat.service.schema;
+
+import com.minicat.service.sync.DatabaseDialect;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 表结构指纹
+ *
+ * 一次 UNION ALL 目录查询取出所需表的列、注释、主键、索引、外键描述行（表名条件下推到每个分支），
+ * 每张表每类描述行排序后计算 SHA-256，再按参与比对的类别组合成表指纹，
+ * 因此快照只需保存一份分类摘要即可适配不同的比对选项。排序在 Java 中完成，不受两侧库排序规则差异影响；
+ * 列按列名而非位置参与计算，与详细比对忽略列顺序的行为一致。
+ * 指纹相同则详细比对必然没有差异，指纹不同只表示需要详细比对
+ */
+@Slf4j
+public final class SchemaFingerprint {
+
+    /**
+     * 描述行类别，对应查询结果第二列
+     */
+    public enum Part {
+        COLUMN("C"),
+        COMMENT("R"),
+        PRIMARY_KEY("P"),
+        INDEX("I"),
+        FOREIGN_KEY("F");
+
+        private final String code;
+
+        Part(String code) {
+            this.code = code;
+        }
+
+        static Part fromCode(String code) {
+            for (Part part : values()) {
+                if (part.code.equals(code)) {
+                    return part;
+                }
+            }
+            throw new IllegalStateException("未知的指纹描述类别: " + code);
+        }
+    }
+
+    private static String mysqlQuery(TableNameCondition tables) {
+        return "SELECT TABLE_NAME, 'C', COLUMN_NAME, CONCAT_WS('|', COLUMN_TYPE, IS_NULLABLE,"
+                + " IFNULL(COLUMN_DEFAULT, '~'), EXTRA, IFNULL(CHARACTER_SET_NAME, '~'), IFNULL(COLLATION_NAME, '~'))"
+                + " FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = ?" + tables.sql("TABLE_NAME")
+                + " UNION ALL SELECT TABLE_NAME, 'R', COLUMN_NAME, COLUMN_COMMENT"
+                + " FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = ? AND COLUMN_COMMENT <> ''" + tables.sql("TABLE_NAME")
+                + " UNION ALL SELECT TABLE_NAME, IF(INDEX_NAME = 'PRIMARY', 'P', 'I'), CONCAT(INDEX_NAME, '#', LPAD(SEQ_IN_INDEX, 5, '0')),"
+                + " CONCAT_WS('|', NON_UNIQUE, IFNULL(COLUMN_NAME, '~'), INDEX_TYPE, IFNULL(SUB_PART, '~'), INDEX_COMMENT)"
+                + " FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = ?" + tables.sql("TABLE_NAME")
+                + " UNION ALL SELECT k.TABLE_NAME, 'F', CONCAT(k.CONSTRAINT_NAME, '#', LPAD(k.ORDINAL_POSITION, 5, '0')),"
+                + " CONCAT_WS('|', k.COLUMN_NAME, k.REFERENCED_TABLE_NAME, k.REFERENCED_COLUMN_NAME, r.UPDATE_RULE, r.DELETE_RULE)"
+                + " FROM information_schema.KEY_COLUMN_USAGE k"
+                + " JOIN information_schema.REFERENTIAL_CONSTRAINTS r ON r.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA"
+                + " AND r.CONSTRAINT_NAME = k.CONSTRAINT_NAME AND r.TABLE_NAME = k.TABLE_NAME"
+                + " WHERE k.TABLE_SCHEMA = ? AND k.REFERENCED_TABLE_NAME IS NOT NULL" + tables.sql("k.TABLE_NAME");
+    }
+
+    private static String postgresqlQuery(TableNameCondition tables) {
+        return "SELECT c.table_name, 'C', c.column_name, concat_ws('|', c.udt_name,"
+                + " coalesce(c.character_maximum_length::text, '~'), coalesce(c.numeric_precision::text, '~'),"
+                + " coalesce(c.numeric_scale::text, '~'), c.is_nullable, coalesce(c.column_default, '~'), c.is_identity,"
+                + " coalesce(c.collation_name, '~'))"
+                + " FROM information_schema.columns c WHERE c.table_schema = ?" + tables.sql("c.table_name")
+                + " UNION ALL SELECT cl.relname, 'R', a.attname, d.description"
+                + " FROM pg_catalog.pg_description d"
+                + " JOIN pg_catalog.pg_class cl ON cl.oid = d.objoid"
+                + " JOIN pg_catalog.pg_namespace n ON n.oid = cl.relnamespace"
+                + " JOIN pg_catalog.pg_attribute a ON a.attrelid = cl.oid AND a.attnum = d.objsubid"
+                + " WHERE n.nspname = ? AND d.classoid = 'pg_catalog.pg_class'::regclass AND d.objsubid > 0" + tables.sql("cl.relname")
+                + " UNION ALL SELECT t.relname, CASE WHEN i.indisprimary THEN 'P' ELSE 'I' END, ic.relname || '#' || lpad(k.ord::text, 5, '0'),"
+                + " concat_ws('|', i.indisunique, pg_catalog.pg_get_indexdef(i.indexrelid, k.ord::int, true), am.amname,"
+                + " coalesce(pg_catalog.pg_get_expr(i.indpred, i.indrelid), '~'))"
+                + " FROM pg_catalog.pg_index i"
+                + " JOIN pg_catalog.pg_class t ON t.oid = i.indrelid"
+                + " JOIN pg_catalog.pg_class ic ON ic.oid = i.indexrelid"
+                + " JOIN pg_catalog.pg_am am ON am.oid = ic.relam"
+                + " JOIN pg_catalog.pg_namespace n ON n.oid = t.relnamespace"
+                + " CROSS JOIN LATERAL unnest(i.indkey::int2[]) WITH ORDINALITY AS k(attnum, ord)"
+                + " WHERE n.nspname = ? AND t.relkind IN ('r', 'p')" + tables.sql("t.relname")
+                + " UNION ALL SELECT cl.relname, 'F', con.conname || '#' || lpad(k.ord::text, 5, '0'),"
+                + " concat_ws('|', a.attname, rcl.relname, ra.attname, con.confupdtype, con.confdeltype)"
+                + " FROM pg_catalog.pg_constraint con"
+                + " JOIN pg_catalog.pg_class cl ON cl.oid = con.conrelid"
+                + " JOIN pg_catalog.pg_namespace n ON n.oid = cl.relnamespace"
+                + " JOIN pg_catalog.pg_class rcl ON rcl.oid = con.confrelid"
+                + " CROSS JOIN LATERAL unnest(con.conkey, con.confkey) WITH ORDINALITY AS k(attnum, refattnum, ord)"
+                + " JOIN pg_catalog.pg_attribute a ON a.attrelid = con.conrelid AND a.attnum = k.attnum"
+                + " JOIN pg_catalog.pg_attribute ra ON ra.attrelid = con.confrelid AND ra.attnum = k.refattnum"
+                + " WHERE con.contype = 'f' AND n.nspname = ?" + tables.sql("cl.relname");
+    }
+
+    private SchemaFingerprint() {
+    }
+
+    /**
+     * 计算指定表各描述类别的摘要
+     *
+     * @param schema MySQL 为数据库名，PostgreSQL 为 schema 名
+     * @param tables 需要计算的表；库中不存在的表不出现在结果中
+     * @return 表名到各类别摘要的映射，没有该类别描述行的表不含对应键
+     */
+    public static Map<String, Map<Part, String>> computeParts(
+            Connection connection,
+            DatabaseDialect dialect,
+            String schema,
+            Collection<String> tables) throws SQLException {
+        long start = System.currentTimeMillis();
+        Set<String> wanted = new TreeSet<>(tables);
+        Map<String, Map<Part, List<String>>> descriptors = new HashMap<>();
+
+        // 表名条件下推到每个分支，只扫描需要的表；MySQL 表数量过多时不下推，仍按 wanted 过滤
+        TableNameCondition condition = new TableNameCondition(dialect, wanted);
+        String sql = dialect == DatabaseDialect.MYSQL ? mysqlQuery(condition) : postgresqlQuery(condition);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (int i = 0; i < 4; i++) {
+                statement.setString(index++, schema);
+                index = condition.bind(statement, index);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    String tableName = rs.getString(1);
+                    if (!wanted.contains(tableName)) {
+                        continue;
+                    }
+                    descriptors.computeIfAbsent(tableName, name -> new EnumMap<>(Part.class))
+                            .computeIfAbsent(Part.fromCode(rs.getString(2)), part -> new ArrayList<>())
+                            .add(rs.getString(3) + '=' + rs.getString(4));
+                }
+            }
+        }
+
+        Map<String, Map<Part, String>> digests = new TreeMap<>();
+        descriptors.forEach((tableName, parts) -> {
+            Map<Part, String> tableDigests = new EnumMap<>(Part.class);
+            parts.forEach((part, lines) -> {
+                lines.sort(null);
+                tableDigests.put(part, digest(lines));
+            });
+            digests.put(tableName, tableDigests);
+        });
+        log.info("计算结构指纹 schema={} 表数量={} 耗时{}ms", schema, digests.size(), System.currentTimeMillis() - start);
+        return digests;
+    }
+
+    /**
+     * 由各类别摘要组合出表指纹，只取参与比对的类别
+     *
+     * @param parts 参与计算的描述类别，未参与比对的部分不应计入，否则会无谓地退回详细比对
+     * @return 表名到十六进制指纹的映射，按表名排序
+     */
+    public static Map<String, String> tableFingerprints(Map<String, Map<Part, String>> partDigests, Set<Part> parts) {
+        Map<String, String> fingerprints = new TreeMap<>();
+        partDigests.forEach((tableName, digests) -> {
+            List<String> lines = new ArrayList<>();
+            digests.forEach((part, digest) -> {
+                if (parts.contains(part)) {
+                    lines.add(part.code + '=' + digest);
+                }
+            });
+            fingerprints.put(tableName, digest(lines));
+        });
+        return fingerprints;
+    }
+
+    /**
+     * 按比对选项确定参与指纹的描述类别；列和主键始终参与
+     */
+    public static Set<Part> parts(boolean withIndexes, boolean withForeignKeys, boolean withComments) {
+        Set<Part> parts = EnumSet.of(Part.COLUMN, Part.PRIMARY_KEY);
+        if (withIndexes) {
+            parts.add(Part.INDEX);
+        }
+        if (withForeignKeys) {
+            parts.add(Part.FOREIGN_KEY);
+        }
+        if (withComments) {
+            parts.add(Part.COMMENT);
+        }
+        return parts;
+    }
+
+    /**
+     * 整库指纹：表名与表指纹按表名排序后再计算一次摘要
+     */
+    public static String combine(Map<String, String> tableFingerprints) {
+        List<String> lines = new ArrayList<>();
+        new TreeMap<>(tableFingerprints).forEach((tableName, fingerprint) -> lines.add(tableName + '=' + fingerprint));
+        return digest(lines);
+    }
+
+    private static String digest(List<String> lines) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+        for (String line : lines) {
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,468 @@
+package com.minicat.service.schema;
+
+import com.minicat.dto.ColumnDiff;
+import com.minicat.dto.ForeignKeyDiff;
+import com.minicat.dto.IndexDiff;
+import com.minicat.service.sync.DatabaseDialect;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 以集合查询批量加载整个库的结构元数据
+ *
+ * 逐表调用 DatabaseMetaData.getColumns/getPrimaryKeys 在数千张表时会产生数千次元数据往返，
+ * 这里每类元数据（列、主键、索引、外键）只查询一次 information_schema / pg_catalog 并下推表名条件，
+ * 按表名分组构建 {@link SchemaModel}。列信息与 JDBC 元数据的 TYPE_NAME、COLUMN_SIZE 等取值保持一致
+ */
+@Slf4j
+public final class SchemaMetadataLoader {
+
+    private static final String MYSQL_COLUMNS = "SELECT TABLE_NAME, COLUMN_NAME, DATA_TYPE, COLUMN_TYPE,"
+            + " CHARACTER_MAXIMUM_LENGTH, NUMERIC_PRECISION, NUMERIC_SCALE, IS_NULLABLE, COLUMN_DEFAULT,"
+            + " COLUMN_COMMENT, ORDINAL_POSITION, EXTRA, CHARACTER_SET_NAME, COLLATION_NAME"
+            + " FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = ?";
+
+    private static final String POSTGRESQL_COLUMNS = "SELECT c.table_name, c.column_name, c.udt_name,"
+            + " c.character_maximum_length, c.numeric_precision, c.numeric_scale, c.is_nullable, c.column_default,"
+            + " d.description, c.ordinal_position, c.is_identity, c.collation_name"
+            + " FROM information_schema.columns c"
+            + " JOIN pg_catalog.pg_namespace n ON n.nspname = c.table_schema"
+            + " JOIN pg_catalog.pg_class cl ON cl.relnamespace = n.oid AND cl.relname = c.table_name"
+            + " LEFT JOIN pg_catalog.pg_description d ON d.objoid = cl.oid AND d.objsubid = c.ordinal_position"
+            + " WHERE c.table_schema = ?";
+
+    private static final String MYSQL_PRIMARY_KEYS = "SELECT TABLE_NAME, COLUMN_NAME FROM information_schema.KEY_COLUMN_USAGE"
+            + " WHERE TABLE_SCHEMA = ? AND CONSTRAINT_NAME = 'PRIMARY'";
+
+    private static final String POSTGRESQL_PRIMARY_KEYS = "SELECT t.relname, a.attname FROM pg_catalog.pg_index i"
+            + " JOIN pg_catalog.pg_class t ON t.oid = i.indrelid"
+            + " JOIN pg_catalog.pg_namespace n ON n.oid = t.relnamespace"
+            + " CROSS JOIN LATERAL unnest(i.indkey::int2[]) WITH ORDINALITY AS k(attnum, ord)"
+            + " JOIN pg_catalog.pg_attribute a ON a.attrelid = t.oid AND a.attnum = k.attnum"
+            + " WHERE i.indisprimary AND n.nspname = ?";
+
+    /**
+     * 函数索引（MySQL 8.0.13+）的 COLUMN_NAME 为 NULL，表达式在 EXPRESSION 列；更早的版本没有该列
+     */
+    private static final String MYSQL_INDEXES = "SELECT TABLE_NAME, INDEX_NAME, NON_UNIQUE, COLUMN_NAME, INDEX_TYPE, INDEX_COMMENT,"
+            + " SUB_PART, %s FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = ?";
+
+    private static final Pattern MYSQL_VERSION = Pattern.compile("^(\\d+)\\.(\\d+)\\.(\\d+)");
+
+    private static final String POSTGRESQL_INDEXES = "SELECT t.relname, ic.relname, i.indisunique, i.indisprimary,"
+            + " COALESCE(a.attname, pg_catalog.pg_get_indexdef(i.indexrelid, k.ord::int, true)), UPPER(am.amname),"
+            + " EXISTS (SELECT 1 FROM pg_catalog.pg_constraint con WHERE con.conindid = i.indexrelid"
+            + " AND con.conrelid = i.indrelid AND con.contype IN ('p', 'u', 'x'))"
+            + " FROM pg_catalog.pg_index i"
+            + " JOIN pg_catalog.pg_class t ON t.oid = i.indrelid"
+            + " JOIN pg_catalog.pg_class ic ON ic.oid = i.indexrelid"
+            + " JOIN pg_catalog.pg_am am ON am.oid = ic.relam"
+            + " JOIN pg_catalog.pg_namespace n ON n.oid = t.relnamespace"
+            + " CROSS JOIN LATERAL unnest(i.indkey::int2[]) WITH ORDINALITY AS k(attnum, ord)"
+            + " LEFT JOIN pg_catalog.pg_attribute a ON a.attrelid = t.oid AND a.attnum = k.attnum AND k.attnum > 0"
+            + " WHERE n.nspname = ? AND t.relkind IN ('r', 'p')";
+
+    private static final String MYSQL_ROW_ESTIMATES = "SELECT TABLE_NAME, TABLE_ROWS FROM information_schema.TABLES"
+            + " WHERE TABLE_SCHEMA = ? AND TABLE_TYPE = 'BASE TABLE'";
+
+    private static final String POSTGRESQL_ROW_ESTIMATES = "SELECT c.relname, c.reltuples::bigint FROM pg_catalog.pg_class c"
+            + " JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace"
+            + " WHERE n.nspname = ? AND c.relkind IN ('r', 'p')";
+
+    private static final String MYSQL_FOREIGN_KEYS = "SELECT k.TABLE_NAME, k.CONSTRAINT_NAME, k.COLUMN_NAME,"
+            + " k.REFERENCED_TABLE_NAME, k.REFERENCED_COLUMN_NAME, r.UPDATE_RULE, r.DELETE_RULE"
+            + " FROM information_schema.KEY_COLUMN_USAGE k"
+            + " JOIN information_schema.REFERENTIAL_CONSTRAINTS r ON r.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA"
+            + " AND r.CONSTRAINT_NAME = k.CONSTRAINT_NAME AND r.TABLE_NAME = k.TABLE_NAME"
+            + " WHERE k.TABLE_SCHEMA = ? AND k.REFERENCED_TABLE_NAME IS NOT NULL";
+
+    private static final String POSTGRESQL_FOREIGN_KEYS = "SELECT cl.relname, con.conname, a.attname, rcl.relname, ra.attname,"
+            + " con.confupdtype, con.confdeltype"
+            + " FROM pg_catalog.pg_constraint con"
+            + " JOIN pg_catalog.pg_class cl ON cl.oid = con.conrelid"
+            + " JOIN pg_catalog.pg_namespace n ON n.oid = cl.relnamespace"
+            + " JOIN pg_catalog.pg_class rcl ON rcl.oid = con.confrelid"
+            + " CROSS JOIN LATERAL unnest(con.conkey, con.confkey) WITH ORDINALITY AS k(attnum, refattnum, ord)"
+            + " JOIN pg_catalog.pg_attribute a ON a.attrelid = con.conrelid AND a.attnum = k.attnum"
+            + " JOIN pg_catalog.pg_attribute ra ON ra.attrelid = con.confrelid AND ra.attnum = k.refattnum"
+            + " WHERE con.contype = 'f' AND n.nspname = ?";
+
+    private static final String MYSQL_TABLES = "SELECT TABLE_NAME FROM information_schema.TABLES"
+            + " WHERE TABLE_SCHEMA = ? AND TABLE_TYPE = 'BASE TABLE'";
+
+    private static final String POSTGRESQL_TABLES = "SELECT c.relname FROM pg_catalog.pg_class c"
+            + " JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace"
+            + " WHERE n.nspname = ? AND c.relkind IN ('r', 'p')";
+
+    private static final String MYSQL_TABLE_REFERENCES = "SELECT DISTINCT TABLE_NAME, REFERENCED_TABLE_NAME"
+            + " FROM information_schema.REFERENTIAL_CONSTRAINTS WHERE CONSTRAINT_SCHEMA = ? AND UNIQUE_CONSTRAINT_SCHEMA = CONSTRAINT_SCHEMA";
+
+    private static final String POSTGRESQL_TABLE_REFERENCES = "SELECT DISTINCT cl.relname, rcl.relname"
+            + " FROM pg_catalog.pg_constraint con"
+            + " JOIN pg_catalog.pg_class cl ON cl.oid = con.conrelid"
+            + " JOIN pg_catalog.pg_namespace n ON n.oid = cl.relnamespace"
+            + " JOIN pg_catalog.pg_class rcl ON rcl.oid = con.confrelid"
+            + " WHERE con.contype = 'f' AND n.nspname = ? AND rcl.relnamespace = n.oid";
+
+    private SchemaMetadataLoader() {
+    }
+
+    /**
+     * 加载指定表的结构
+     *
+     * @param schema          MySQL 为数据库名，PostgreSQL 为 schema 名
+     * @param tables          需要加载的表，作为表名条件下推到各目录查询
+     * @param withIndexes     是否加载索引
+     * @param withForeignKeys 是否加载外键
+     */
+    public static SchemaModel load(
+            Connection connection,
+            DatabaseDialect dialect,
+            String schema,
+            Collection<String> tables,
+            boolean withIndexes,
+            boolean withForeignKeys) throws SQLException {
+        long start = System.currentTimeMillis();
+        Set<String> wanted = new TreeSet<>(tables);
+        SchemaModel model = new SchemaModel();
+        wanted.forEach(model::tableOrCreate);
+        TableNameCondition condition = new TableNameCondition(dialect, wanted);
+
+        loadColumns(connection, dialect, schema, wanted, condition, model);
+        loadPrimaryKeys(connection, dialect, schema, wanted, condition, model);
+        if (withIndexes) {
+            loadIndexes(connection, dialect, schema, wanted, condition, model);
+            loadRowEstimates(connection, dialect, schema, wanted, condition, model);
+        }
+        if (withForeignKeys) {
+            loadForeignKeys(connection, dialect, schema, wanted, condition, model);
+        }
+
+        log.info("批量加载结构元数据 schema={} 表数量={} 耗时{}ms", schema, wanted.size(), System.currentTimeMillis() - start);
+        return model;
+    }
+
+    /**
+     * 列出表名，过滤条件尽量下推到目录查询。
+     * PostgreSQL 折叠分区时只列出分区父表和普通表，否则列出全部（含各级分区子表）；
+     * MySQL 的分区不是独立的表，无需折叠
+     */
+    public static Set<String> loadTableNames(
+            Connection connection,
+            DatabaseDialect dialect,
+            String schema,
+            TableFilter filter) throws SQLException {
+        long start = System.currentTimeMillis();
+        List<String> params = new ArrayList<>();
+        params.add(schema);
+        String sql;
+        if (dialect == DatabaseDialect.MYSQL) {
+            sql = MYSQL_TABLES + filter.pushdown("TABLE_NAME", params);
+        } else {
+            sql = POSTGRESQL_TABLES + (filter.collapsePartitions() ? " AND NOT c.relispartition" : "")
+                    + filter.pushdown("c.relname", params);
+        }
+
+        Set<String> tables = new HashSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                statement.setString(i + 1, params.get(i));
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    String tableName = rs.getString(1);
+                    if (filter.matches(tableName)) {
+                        tables.add(tableName);
+                    }
+                }
+            }
+        }
+        log.info("列出表 schema={} 表数量={} 耗时{}ms", schema, tables.size(), System.currentTimeMillis() - start);
+        return tables;
+    }
+
+    /**
+     * 加载表之间的外键引用关系（表 -> 被引用表），只包含同一 schema 内的引用。
+     * 与完整外键定义不同，这里只需一次轻量查询，指纹一致、未加载结构模型的表也能参与依赖分析
+     */
+    public static Map<String, Set<String>> loadTableReferences(
+            Connection connection,
+            DatabaseDialect dialect,
+            String schema) throws SQLException {
+        String sql = dialect == DatabaseDialect.MYSQL ? MYSQL_TABLE_REFERENCES : POSTGRESQL_TABLE_REFERENCES;
+        Map<String, Set<String>> references = new HashMap<>();
+        try (PreparedStatement statement = prepare(connection, sql, schema);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                references.computeIfAbsent(rs.getString(1), table -> new TreeSet<>()).add(rs.getString(2));
+            }
+        }
+        return references;
+    }
+
+    private static void loadColumns(Connection connection, DatabaseDialect dialect, String schema, Set<String> wanted,
+                                    TableNameCondition condition, SchemaModel model) throws SQLException {
+        String sql = dialect == DatabaseDialect.MYSQL
+                ? MYSQL_COLUMNS + condition.sql("TABLE_NAME") + " ORDER BY TABLE_NAME, ORDINAL_POSITION"
+                : POSTGRESQL_COLUMNS + condition.sql("c.table_name") + " ORDER BY c.table_name, c.ordinal_position";
+        try (PreparedStatement statement = prepare(connection, sql, schema, condition);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                String tableName = rs.getString(1);
+                if (!wanted.contains(tableName)) {
+                    continue;
+                }
+                ColumnDiff.ColumnInfo column = dialect == DatabaseDialect.MYSQL ? readMysqlColumn(rs) : readPostgresqlColumn(rs);
+                model.tableOrCreate(tableName).columns().put(column.getName(), column);
+            }
+        }
+    }
+
+    private static ColumnDiff.ColumnInfo readMysqlColumn(ResultSet rs) throws SQLException {
+        String dataType = StringUtils.upperCase(rs.getString(3), Locale.ROOT);
+        // 与 Connector/J 的 TYPE_NAME 一致：无符号类型追加 UNSIGNED
+        if (StringUtils.containsIgnoreCase(rs.getString(4), "unsigned")) {
+            dataType += " UNSIGNED";
+        }
+        long charLength = rs.getLong(5);
+        int columnSize = rs.wasNull() ? rs.getInt(6) : (int) Math.min(Integer.MAX_VALUE, charLength);
+        return ColumnDiff.ColumnInfo.builder()
+                .name(rs.getString(2))
+                .dataType(fullDataType(dataType, columnSize, rs.getInt(7)))
+                .nullable("YES".equalsIgnoreCase(rs.getString(8)))
+                .defaultValue(rs.getString(9))
+                .comment(StringUtils.defaultIfEmpty(rs.getString(10), null))
+                .ordinalPosition(rs.getInt(11))
+                .autoIncrement(StringUtils.containsIgnoreCase(rs.getString(12), "auto_increment"))
+                .characterSet(rs.getString(13))
+                .collation(rs.getString(14))
+                .build();
+    }
+
+    private static ColumnDiff.ColumnInfo readPostgresqlColumn(ResultSet rs) throws SQLException {
+        String dataType = rs.getString(3);
+        String defaultValue = rs.getString(8);
+        boolean sequenceDefault = StringUtils.startsWith(defaultValue, "nextval(");
+        // 与 PgJDBC 的 TYPE_NAME 一致：序列默认值的整数列报告为 serial 系列
+        if (sequenceDefault) {
+            dataType = switch (dataType) {
+                case "int4" -> "serial";
+                case "int8" -> "bigserial";
+                case "int2" -> "smallserial";
+                default -> dataType;
+            };
+        }
+        long charLength = rs.getLong(4);
+        int columnSize = rs.wasNull() ? rs.getInt(5) : (int) Math.min(Integer.MAX_VALUE, charLength);
+        return ColumnDiff.ColumnInfo.builder()
+                .name(rs.getString(2))
+                .dataType(fullDataType(dataType, columnSize, rs.getInt(6)))
+                .nullable("YES".equalsIgnoreCase(rs.getString(7)))
+                .defaultValue(defaultValue)
+                .comment(rs.getString(9))
+                .ordinalPosition(rs.getInt(10))
+                .autoIncrement(sequenceDefault || "YES".equalsIgnoreCase(rs.getString(11)))
+                .collation(rs.getString(12))
+                .build();
+    }
+
+    private static void loadPrimaryKeys(Connection connection, DatabaseDialect dialect, String schema, Set<String> wanted,
+                                        TableNameCondition condition, SchemaModel model) throws SQLException {
+        String sql = dialect == DatabaseDialect.MYSQL
+                ? MYSQL_PRIMARY_KEYS + condition.sql("TABLE_NAME") + " ORDER BY TABLE_NAME, ORDINAL_POSITION"
+                : POSTGRESQL_PRIMARY_KEYS + condition.sql("t.relname") + " ORDER BY t.relname, k.ord";
+        try (PreparedStatement statement = prepare(connection, sql, schema, condition);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                String tableName = rs.getString(1);
+                if (wanted.contains(tableName)) {
+                    model.tableOrCreate(tableName).primaryKeys().add(rs.getString(2));
+                }
+            }
+        }
+    }
+
+    private static void loadIndexes(Connection connection, DatabaseDialect dialect, String schema, Set<String> wanted,
+                                    TableNameCondition condition, SchemaModel model) throws SQLException {
+        boolean mysql = dialect == DatabaseDialect.MYSQL;
+        String sql = mysql
+                ? String.format(MYSQL_INDEXES, supportsFunctionalIndexes(connection) ? "EXPRESSION" : "NULL")
+                        + condition.sql("TABLE_NAME") + " ORDER BY TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX"
+                : POSTGRESQL_INDEXES + condition.sql("t.relname") + " ORDER BY t.relname, ic.relname, k.ord";
+        try (PreparedStatement statement = prepare(connection, sql, schema, condition);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                String tableName = rs.getString(1);
+                if (!wanted.contains(tableName)) {
+                    continue;
+                }
+                String indexName = rs.getString(2);
+                boolean unique = mysql ? rs.getInt(3) == 0 : rs.getBoolean(3);
+                boolean primary = mysql ? "PRIMARY".equals(indexName) : rs.getBoolean(4);
+                String column = mysql ? StringUtils.defaultIfEmpty(rs.getString(4), rs.getString(8)) : rs.getString(5);
+                int prefixLength = mysql ? rs.getInt(7) : 0;
+                Integer prefix = mysql && !rs.wasNull() ? prefixLength : null;
+                String type = mysql ? rs.getString(5) : rs.getString(6);
+                String comment = mysql ? StringUtils.defaultIfEmpty(rs.getString(6), null) : null;
+                boolean constraint = !mysql && rs.getBoolean(7);
+
+                IndexDiff.IndexInfo index = model.tableOrCreate(tableName).indexes().computeIfAbsent(indexName,
+                        name -> IndexDiff.IndexInfo.builder()
+                                .name(name)
+                                .type(type)
+                                .unique(unique)
+                                .primary(primary)
+                                .columns(new ArrayList<>())
+                                .comment(comment)
+                                .constraint(constraint)
+                                .build());
+                if (prefix != null && index.getPrefixLengths() == null) {
+                    index.setPrefixLengths(new ArrayList<>(Collections.nCopies(index.getColumns().size(), null)));
+                }
+                index.getColumns().add(column);
+                if (index.getPrefixLengths() != null) {
+                    index.getPrefixLengths().add(prefix);
+                }
+            }
+        }
+    }
+
+    /**
+     * MySQL 8.0.13 起支持函数索引并在 STATISTICS 中提供 EXPRESSION 列，MariaDB 没有该列
+     */
+    private static boolean supportsFunctionalIndexes(Connection connection) throws SQLException {
+        String productVersion = connection.getMetaData().getDatabaseProductVersion();
+        Matcher version = MYSQL_VERSION.matcher(productVersion);
+        if (StringUtils.containsIgnoreCase(productVersion, "MariaDB") || !version.find()) {
+            return false;
+        }
+        int major = Integer.parseInt(version.group(1));
+        int minor = Integer.parseInt(version.group(2));
+        int patch = Integer.parseInt(version.group(3));
+        return major > 8 || major == 8 && (minor > 0 || patch >= 13);
+    }
+
+    /**
+     * 行数估算取自统计信息（TABLE_ROWS / reltuples），不扫描表；PostgreSQL 从未分析过的表为 -1，按未知处理
+     */
+    private static void loadRowEstimates(Connection connection, DatabaseDialect dialect, String schema, Set<String> wanted,
+                                         TableNameCondition condition, SchemaModel model) throws SQLException {
+        String sql = dialect == DatabaseDialect.MYSQL
+                ? MYSQL_ROW_ESTIMATES + condition.sql("TABLE_NAME")
+                : POSTGRESQL_ROW_ESTIMATES + condition.sql("c.relname");
+        try (PreparedStatement statement = prepare(connection, sql, schema, condition);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                String tableName = rs.getString(1);
+                long rows = rs.getLong(2);
+                if (wanted.contains(tableName) && !rs.wasNull() && rows >= 0) {
+                    model.tableOrCreate(tableName).rowEstimate(rows);
+                }
+            }
+        }
+    }
+
+    private static void loadForeignKeys(Connection connection, DatabaseDialect dialect, String schema, Set<String> wanted,
+                                        TableNameCondition condition, SchemaModel model) throws SQLException {
+        boolean mysql = dialect == DatabaseDialect.MYSQL;
+        String sql = mysql
+                ? MYSQL_FOREIGN_KEYS + condition.sql("k.TABLE_NAME") + " ORDER BY k.TABLE_NAME, k.CONSTRAINT_NAME, k.ORDINAL_POSITION"
+                : POSTGRESQL_FOREIGN_KEYS + condition.sql("cl.relname") + " ORDER BY cl.relname, con.conname, k.ord";
+        try (PreparedStatement statement = prepare(connection, sql, schema, condition);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                String tableName = rs.getString(1);
+                if (!wanted.contains(tableName)) {
+                    continue;
+                }
+                String onUpdate = mysql ? rs.getString(6) : referentialAction(rs.getString(6));
+                String onDelete = mysql ? rs.getString(7) : referentialAction(rs.getString(7));
+                String referencedTable = rs.getString(4);
+                ForeignKeyDiff.ForeignKeyInfo foreignKey = model.tableOrCreate(tableName).foreignKeys().computeIfAbsent(rs.getString(2),
+                        name -> ForeignKeyDiff.ForeignKeyInfo.builder()
+                                .name(name)
+                                .columns(new ArrayList<>())
+                                .referencedTable(referencedTable)
+                                .referencedColumns(new ArrayList<>())
+                                .onUpdate(onUpdate)
+                                .onDelete(onDelete)
+                                .build());
+                foreignKey.getColumns().add(rs.getString(3));
+                foreignKey.getReferencedColumns().add(rs.getString(5));
+            }
+        }
+    }
+
+    /**
+     * pg_constraint 的 confupdtype/confdeltype 编码
+     */
+    private static String referentialAction(String code) {
+        return switch (StringUtils.defaultString(code)) {
+            case "r" -> "RESTRICT";
+            case "c" -> "CASCADE";
+            case "n" -> "SET NULL";
+            case "d" -> "SET DEFAULT";
+            default -> "NO ACTION";
+        };
+    }
+
+    /**
+     * 与逐表比对时的完整类型格式一致：字符/二进制类型带长度，DECIMAL/NUMERIC 带精度和小数位
+     */
+    static String fullDataType(String dataType, int columnSize, int decimalDigits) {
+        if (dataType == null) {
+            return "UNKNOWN";
+        }
+
+        String upperDataType = dataType.toUpperCase();
+        if ("TEXT".equals(upperDataType)) {
+            return dataType;
+        }
+        if (upperDataType.matches(".*CHAR.*|.*BINARY.*")) {
+            if (columnSize > 0) {
+                return dataType + "(" + columnSize + ")";
+            }
+        } else if (upperDataType.matches("DECIMAL|NUMERIC")) {
+            if (columnSize > 0) {
+                return decimalDigits > 0
+                        ? dataType + "(" + columnSize + "," + decimalDigits + ")"
+                        : dataType + "(" + columnSize + ")";
+            }
+        }
+        return dataType;
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, String schema) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setString(1, schema);
+        return statement;
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, String schema, TableNameCondition condition) throws SQLException {
+        PreparedStatement statement = prepare(connection, sql, schema);
+        try {
+            condition.bind(statement, 2);
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,80 @@
+package com.minicat.service.schema;
+
+import com.minicat.dto.ColumnDiff;
+import com.minicat.dto.ForeignKeyDiff;
+import com.minicat.dto.IndexDiff;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 内存中的库结构模型：表、列、主键、索引和外键，由 {@link SchemaMetadataLoader} 一次性加载
+ */
+public class SchemaModel {
+
+    private final Map<String, TableModel> tables = new LinkedHashMap<>();
+
+    public Set<String> tableNames() {
+        return Collections.unmodifiableSet(tables.keySet());
+    }
+
+    public TableModel table(String tableName) {
+        return tables.get(tableName);
+    }
+
+    TableModel tableOrCreate(String tableName) {
+        return tables.computeIfAbsent(tableName, TableModel::new);
+    }
+
+    /**
+     * 单表结构，列按 ORDINAL_POSITION、主键按 KEY_SEQ 有序
+     */
+    public static class TableModel {
+
+        private final String name;
+        private final Map<String, ColumnDiff.ColumnInfo> columns = new LinkedHashMap<>();
+        private final List<String> primaryKeys = new ArrayList<>();
+        private final Map<String, IndexDiff.IndexInfo> indexes = new LinkedHashMap<>();
+        private final Map<String, ForeignKeyDiff.ForeignKeyInfo> foreignKeys = new LinkedHashMap<>();
+        private Long rowEstimate;
+
+        TableModel(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Map<String, ColumnDiff.ColumnInfo> columns() {
+            return columns;
+        }
+
+        public List<String> primaryKeys() {
+            return primaryKeys;
+        }
+
+        public Map<String, IndexDiff.IndexInfo> indexes() {
+            return indexes;
+        }
+
+        public Map<String, ForeignKeyDiff.ForeignKeyInfo> foreignKeys() {
+            return foreignKeys;
+        }
+
+        /**
+         * 统计信息中的行数估算，随索引一起加载；未加载或统计缺失时为空
+         */
+        public Long rowEstimate() {
+            return rowEstimate;
+        }
+
+        void rowEstimate(Long rowEstimate) {
+            this.rowEstimate = rowEstimate;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.minicat.service.schema;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 结构比对的一侧：在线连接或结构快照
+ */
+public interface SchemaSide {
+
+    String id();
+
+    String name();
+
+    /**
+     * 数据库类型：mysql、postgresql
+     */
+    String databaseType();
+
+    /**
+     * 是否为快照（没有在线连接）
+     */
+    boolean snapshot();
+
+    /**
+     * 满足过滤条件的表名，返回可修改的集合
+     */
+    Set<String> tableNames(TableFilter filter) throws SQLException;
+
+    /**
+     * 各表分类指纹摘要，见 {@link SchemaFingerprint#computeParts}
+     */
+    Map<String, Map<SchemaFingerprint.Part, String>> fingerprints(Set<String> tables) throws SQLException;
+
+    SchemaModel model(Set<String> tables, boolean withIndexes, boolean withForeignKeys) throws SQLException;
+
+    /**
+     * 表到其引用表的映射
+     */
+    Map<String, Set<String>> tableReferences() throws SQLException;
+}
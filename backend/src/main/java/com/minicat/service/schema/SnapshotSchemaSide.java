@@ -0,0 +1,129 @@
+package com.minicat.service.schema;
+
+import com.minicat.dto.ColumnDiff;
+import com.minicat.dto.ForeignKeyDiff;
+import com.minicat.dto.IndexDiff;
+import com.minicat.dto.SchemaSnapshot;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 结构快照一侧，全部数据来自快照文件，不访问数据库
+ */
+public class SnapshotSchemaSide implements SchemaSide {
+
+    private final SchemaSnapshot snapshot;
+
+    public SnapshotSchemaSide(SchemaSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public String id() {
+        return snapshot.getId();
+    }
+
+    @Override
+    public String name() {
+        return snapshot.getConnectionName() + " @ " + snapshot.getId();
+    }
+
+    @Override
+    public String databaseType() {
+        return snapshot.getDatabaseType();
+    }
+
+    @Override
+    public boolean snapshot() {
+        return true;
+    }
+
+    /**
+     * 快照采集时已决定是否折叠分区，这里只按名称过滤
+     */
+    @Override
+    public Set<String> tableNames(TableFilter filter) {
+        return filter.apply(snapshot.getTables().keySet());
+    }
+
+    @Override
+    public Map<String, Map<SchemaFingerprint.Part, String>> fingerprints(Set<String> tables) {
+        Map<String, Map<SchemaFingerprint.Part, String>> digests = new TreeMap<>();
+        for (String tableName : tables) {
+            SchemaSnapshot.TableSnapshot table = snapshot.getTables().get(tableName);
+            if (table == null) {
+                continue;
+            }
+            Map<SchemaFingerprint.Part, String> parts = new EnumMap<>(SchemaFingerprint.Part.class);
+            table.getFingerprints().forEach((part, digest) -> parts.put(SchemaFingerprint.Part.valueOf(part), digest));
+            digests.put(tableName, parts);
+        }
+        return digests;
+    }
+
+    @Override
+    public SchemaModel model(Set<String> tables, boolean withIndexes, boolean withForeignKeys) {
+        SchemaModel model = new SchemaModel();
+        for (String tableName : new TreeSet<>(tables)) {
+            SchemaSnapshot.TableSnapshot table = snapshot.getTables().get(tableName);
+            if (table == null) {
+                continue;
+            }
+            SchemaModel.TableModel tableModel = model.tableOrCreate(tableName);
+            for (ColumnDiff.ColumnInfo column : table.getColumns()) {
+                tableModel.columns().put(column.getName(), column);
+            }
+            tableModel.primaryKeys().addAll(table.getPrimaryKeys());
+            if (withIndexes) {
+                for (IndexDiff.IndexInfo index : table.getIndexes()) {
+                    tableModel.indexes().put(index.getName(), index);
+                }
+                tableModel.rowEstimate(table.getRowEstimate());
+            }
+            if (withForeignKeys) {
+                for (ForeignKeyDiff.ForeignKeyInfo foreignKey : table.getForeignKeys()) {
+                    tableModel.foreignKeys().put(foreignKey.getName(), foreignKey);
+                }
+            }
+        }
+        return model;
+    }
+
+    @Override
+    public Map<String, Set<String>> tableReferences() {
+        Map<String, Set<String>> references = new LinkedHashMap<>();
+        if (snapshot.getReferences() != null) {
+            snapshot.getReferences().forEach((table, referenced) -> references.put(table, new TreeSet<>(referenced)));
+        }
+        return references;
+    }
+
+    /**
+     * 由在线结构构建快照内容
+     */
+    public static Map<String, SchemaSnapshot.TableSnapshot> tables(
+            SchemaModel model,
+            Map<String, Map<SchemaFingerprint.Part, String>> partDigests) {
+        Map<String, SchemaSnapshot.TableSnapshot> tables = new TreeMap<>();
+        for (String tableName : model.tableNames()) {
+            SchemaModel.TableModel table = model.table(tableName);
+            Map<String, String> fingerprints = new LinkedHashMap<>();
+            partDigests.getOrDefault(tableName, Map.of()).forEach((part, digest) -> fingerprints.put(part.name(), digest));
+            tables.put(tableName, SchemaSnapshot.TableSnapshot.builder()
+                    .columns(List.copyOf(table.columns().values()))
+                    .primaryKeys(List.copyOf(table.primaryKeys()))
+                    .indexes(List.copyOf(table.indexes().values()))
+                    .foreignKeys(List.copyOf(table.foreignKeys().values()))
+                    .rowEstimate(table.rowEstimate())
+                    .fingerprints(fingerprints)
+                    .build());
+        }
+        return tables;
+    }
+}
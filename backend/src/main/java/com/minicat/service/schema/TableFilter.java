@@ -0,0 +1,191 @@
+package com.minicat.service.schema;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 表过滤条件：显式表名、包含/排除模式，以及是否把分区子表折叠到父表
+ *
+ * 模式默认按 glob 解释（* 匹配任意字符，? 匹配单个字符），以 regex: 开头时按 Java 正则解释，两者均为整名匹配。
+ * 显式表名和 glob 包含模式可以下推为目录查询的 IN / LIKE 条件，正则和排除模式只在 Java 中过滤：
+ * 不区分大小写的排序规则下 NOT LIKE 会多排除 Java 会保留的表，而 IN / LIKE 只会多保留，
+ * 最终结果总是再经 {@link #matches} 校验，因此与各库的排序规则无关
+ */
+public final class TableFilter {
+
+    private static final String REGEX_PREFIX = "regex:";
+    private static final String GLOB_PREFIX = "glob:";
+    private static final char LIKE_ESCAPE = '!';
+
+    /**
+     * 显式表名超过该数量时不再下推 IN 条件，避免超出驱动参数上限
+     */
+    private static final int MAX_PUSHDOWN_NAMES = 1000;
+
+    private static final TableFilter ALL = new TableFilter(null, List.of(), List.of(), true);
+
+    private final Set<String> names;
+    private final List<Rule> includes;
+    private final List<Rule> excludes;
+    private final boolean collapsePartitions;
+
+    private TableFilter(Set<String> names, List<Rule> includes, List<Rule> excludes, boolean collapsePartitions) {
+        this.names = names;
+        this.includes = includes;
+        this.excludes = excludes;
+        this.collapsePartitions = collapsePartitions;
+    }
+
+    /**
+     * 不过滤，分区子表折叠到父表
+     */
+    public static TableFilter all() {
+        return ALL;
+    }
+
+    /**
+     * @param names              显式表名，为空表示不限
+     * @param includes           包含模式，为空表示不限
+     * @param excludes           排除模式
+     * @param collapsePartitions 为空时默认折叠
+     * @throws IllegalArgumentException 正则语法错误
+     */
+    public static TableFilter of(Collection<String> names, Collection<String> includes, Collection<String> excludes,
+                                 Boolean collapsePartitions) {
+        return new TableFilter(
+                CollectionUtils.isEmpty(names) ? null : new HashSet<>(names),
+                rules(includes),
+                rules(excludes),
+                !Boolean.FALSE.equals(collapsePartitions));
+    }
+
+    public boolean collapsePartitions() {
+        return collapsePartitions;
+    }
+
+    public boolean matches(String tableName) {
+        if (names != null && !names.contains(tableName)) {
+            return false;
+        }
+        if (!includes.isEmpty() && includes.stream().noneMatch(rule -> rule.matches(tableName))) {
+            return false;
+        }
+        return excludes.stream().noneMatch(rule -> rule.matches(tableName));
+    }
+
+    /**
+     * 过滤表名，返回新的可修改集合
+     */
+    public Set<String> apply(Collection<String> tableNames) {
+        Set<String> matched = new HashSet<>();
+        for (String tableName : tableNames) {
+            if (matches(tableName)) {
+                matched.add(tableName);
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * 生成可下推到目录查询的条件
+     *
+     * @param column 表名列
+     * @param params 条件参数追加到此列表
+     * @return 以 " AND " 开头的条件，无可下推条件时为空串
+     */
+    public String pushdown(String column, List<String> params) {
+        StringBuilder sql = new StringBuilder();
+
+        if (names != null && names.size() <= MAX_PUSHDOWN_NAMES) {
+            sql.append(" AND ").append(column).append(" IN (")
+                    .append(StringUtils.repeat("?", ", ", names.size())).append(')');
+            params.addAll(names);
+        }
+
+        // 包含条件是 OR 关系，只要有一个正则就无法下推
+        if (!includes.isEmpty() && includes.stream().allMatch(rule -> rule.like != null)) {
+            sql.append(" AND (");
+            for (int i = 0; i < includes.size(); i++) {
+                sql.append(i > 0 ? " OR " : "").append(column).append(" LIKE ? ESCAPE '").append(LIKE_ESCAPE).append('\'');
+                params.add(includes.get(i).like);
+            }
+            sql.append(')');
+        }
+        return sql.toString();
+    }
+
+    private static List<Rule> rules(Collection<String> patterns) {
+        List<Rule> rules = new ArrayList<>();
+        if (patterns == null) {
+            return rules;
+        }
+        for (String pattern : patterns) {
+            if (StringUtils.isBlank(pattern)) {
+                continue;
+            }
+            if (pattern.startsWith(REGEX_PREFIX)) {
+                String regex = pattern.substring(REGEX_PREFIX.length());
+                try {
+                    rules.add(new Rule(Pattern.compile(regex), null));
+                } catch (PatternSyntaxException e) {
+                    throw new IllegalArgumentException("无效的表名正则: " + regex, e);
+                }
+            } else {
+                String glob = StringUtils.removeStart(pattern, GLOB_PREFIX);
+                rules.add(new Rule(Pattern.compile(globToRegex(glob)), globToLike(glob)));
+            }
+        }
+        return rules;
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char ch : glob.toCharArray()) {
+            if (ch == '*' || ch == '?') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(ch == '*' ? ".*" : ".");
+            } else {
+                literal.append(ch);
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.toString();
+    }
+
+    private static String globToLike(String glob) {
+        StringBuilder like = new StringBuilder();
+        for (char ch : glob.toCharArray()) {
+            switch (ch) {
+                case '*' -> like.append('%');
+                case '?' -> like.append('_');
+                case '%', '_', LIKE_ESCAPE -> like.append(LIKE_ESCAPE).append(ch);
+                default -> like.append(ch);
+            }
+        }
+        return like.toString();
+    }
+
+    /**
+     * @param like 对应的 LIKE 模式，正则为空
+     */
+    private record Rule(Pattern pattern, String like) {
+
+        boolean matches(String tableName) {
+            return pattern.matcher(tableName).matches();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.minicat.service.schema;
+
+import com.minicat.service.sync.DatabaseDialect;
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 把已解析的表名集合下推为目录查询条件
+ *
+ * PostgreSQL 绑定一个 text[] 参数使用 = ANY(?)，不受表数量影响；MySQL 展开为 IN 列表，
+ * 表数量超过上限时不下推，由调用方按表名集合在 Java 中过滤
+ */
+final class TableNameCondition {
+
+    /**
+     * MySQL 超过该数量时不再下推 IN 条件，与 {@link TableFilter} 的显式表名上限一致
+     */
+    private static final int MAX_IN_LIST = 1000;
+
+    private final DatabaseDialect dialect;
+    private final List<String> tables;
+
+    TableNameCondition(DatabaseDialect dialect, Collection<String> tables) {
+        this.dialect = dialect;
+        this.tables = new ArrayList<>(tables);
+    }
+
+    /**
+     * @param column 表名列
+     * @return 以 " AND " 开头的条件，不下推时为空串
+     */
+    String sql(String column) {
+        if (tables.isEmpty()) {
+            return " AND 1 = 0";
+        }
+        if (dialect == DatabaseDialect.POSTGRESQL) {
+            return " AND " + column + " = ANY(?)";
+        }
+        if (tables.size() <= MAX_IN_LIST) {
+            return " AND " + column + " IN (" + StringUtils.repeat("?", ", ", tables.size()) + ")";
+        }
+        return "";
+    }
+
+    /**
+     * 绑定 {@link #sql} 对应的参数
+     *
+     * @return 下一个参数位置
+     */
+    int bind(PreparedStatement statement, int index) throws SQLException {
+        if (tables.isEmpty()) {
+            return index;
+        }
+        if (dialect == DatabaseDialect.POSTGRESQL) {
+            statement.setArray(index, statement.getConnection().createArrayOf("text", tables.toArray()));
+            return index + 1;
+        }
+        if (tables.size() <= MAX_IN_LIST) {
+            for (String table : tables) {
+                statement.setString(index++, table);
+            }
+        }
+        return index;
+    }
+}
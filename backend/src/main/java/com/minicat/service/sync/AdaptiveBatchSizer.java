@@ -0,0 +1,95 @@
+package com.minicat.service.sync;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批次大小自适应调节器
+ *
+ * 根据每次 executeBatch 的耗时向目标延迟收敛：耗时低于目标时放大批次，高于目标时缩小，
+ * 单次调整幅度限制在 0.5~2 倍之间并做阻尼，结果始终处于 [min, max] 区间
+ */
+public class AdaptiveBatchSizer {
+
+    private static final int MAX_HISTORY = 50;
+    private static final double MIN_RATIO = 0.5;
+    private static final double MAX_RATIO = 2.0;
+    private static final double DAMPING = 0.5;
+
+    private final boolean adaptive;
+    private final int minSize;
+    private final int maxSize;
+    private final long targetLatencyNanos;
+    private final List<Integer> history = new ArrayList<>();
+
+    private int current;
+    private long measuredRows;
+    private long measuredNanos;
+
+    private AdaptiveBatchSizer(boolean adaptive, int initialSize, int minSize, int maxSize, long targetLatencyMillis) {
+        this.adaptive = adaptive;
+        this.minSize = Math.max(1, minSize);
+        this.maxSize = Math.max(this.minSize, maxSize);
+        this.targetLatencyNanos = Math.max(1L, targetLatencyMillis) * 1_000_000L;
+        this.current = adaptive ? Math.min(this.maxSize, Math.max(this.minSize, initialSize)) : Math.max(1, initialSize);
+        this.history.add(current);
+    }
+
+    public static AdaptiveBatchSizer fixed(int batchSize) {
+        return new AdaptiveBatchSizer(false, batchSize, batchSize, batchSize, 1L);
+    }
+
+    public static AdaptiveBatchSizer adaptive(int initialSize, int minSize, int maxSize, long targetLatencyMillis) {
+        return new AdaptiveBatchSizer(true, initialSize, minSize, maxSize, targetLatencyMillis);
+    }
+
+    public int current() {
+        return current;
+    }
+
+    /**
+     * 记录一次批次执行
+     *
+     * @param rows         批次行数
+     * @param elapsedNanos 执行耗时
+     */
+    public void record(int rows, long elapsedNanos) {
+        measuredRows += rows;
+        measuredNanos += elapsedNanos;
+
+        // 尾部不足半批的批次耗时不具代表性
+        if (!adaptive || rows < current / 2) {
+            return;
+        }
+
+        double ratio = (double) targetLatencyNanos / Math.max(1L, elapsedNanos);
+        ratio = Math.min(MAX_RATIO, Math.max(MIN_RATIO, ratio));
+        int next = (int) Math.round(current * (1 + (ratio - 1) * DAMPING));
+        next = Math.min(maxSize, Math.max(minSize, next));
+
+        if (next != current) {
+            current = next;
+            if (history.size() < MAX_HISTORY) {
+                history.add(next);
+            }
+        }
+    }
+
+    /**
+     * 调整过的批次大小序列（首个为初始值）
+     */
+    public List<Integer> history() {
+        return Collections.unmodifiableList(history);
+    }
+
+    /**
+     * 批次写入吞吐（行/秒），无测量数据时返回 null
+     */
+    public Double rowsPerSecond() {
+        if (measuredNanos <= 0) {
+            return null;
+        }
+        return measuredRows * 1_000_000_000.0 / measuredNanos;
+    }
+}
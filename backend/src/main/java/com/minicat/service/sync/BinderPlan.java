@@ -0,0 +1,50 @@
+package com.minicat.service.sync;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 表级参数绑定计划：每列一个按 JDBC 类型选定的 ColumnBinder，整表复用；
+ * 跨方言同步时先经 ConversionPlan 转换取值再绑定
+ */
+public class BinderPlan {
+
+    private final Map<String, ColumnBinder> binders = new HashMap<>();
+
+    public BinderPlan(Collection<ColumnMetadata> columns) {
+        this(columns, ConversionPlan.none());
+    }
+
+    public BinderPlan(Collection<ColumnMetadata> columns, ConversionPlan conversions) {
+        columns.forEach(column -> {
+            ColumnBinder binder = ColumnBinder.of(column);
+            ValueConverter converter = conversions.converter(column.name());
+            binders.put(column.name(), converter == ValueConverter.IDENTITY
+                    ? binder
+                    : (statement, index, value) -> binder.bind(statement, index, value == null ? null : converter.convert(value)));
+        });
+    }
+
+    private static final ColumnBinder UNTYPED = (statement, index, value) -> statement.setObject(index, value);
+
+    public ColumnBinder binder(String column) {
+        return binders.getOrDefault(column, UNTYPED);
+    }
+
+    /**
+     * 依次绑定多个列的值
+     *
+     * @return 下一个参数下标
+     */
+    public int bind(PreparedStatement statement, int startIndex, List<String> columns, Map<String, Object> values) throws SQLException {
+        int index = startIndex;
+        for (String column : columns) {
+            binder(column).bind(statement, index++, values.get(column));
+        }
+        return index;
+    }
+}
@@ -0,0 +1,162 @@
+package com.minicat.service.sync;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 集合式批量删除
+ *
+ * 单列主键：按块使用 WHERE pk IN (...)（PostgreSQL 使用 = ANY(?)）
+ * 复合主键：将主键写入会话临时表，每块执行一次关联删除
+ */
+@Slf4j
+public class BulkDeleteExecutor {
+
+    private final Connection connection;
+    private final DatabaseDialect dialect;
+    private final String tableName;
+    private final List<ColumnMetadata> primaryKeyColumns;
+    private final BinderPlan binders;
+    private final int chunkSize;
+
+    public BulkDeleteExecutor(
+            Connection connection,
+            DatabaseDialect dialect,
+            String tableName,
+            List<ColumnMetadata> primaryKeyColumns,
+            int chunkSize) {
+        this.connection = connection;
+        this.dialect = dialect;
+        this.tableName = tableName;
+        this.primaryKeyColumns = primaryKeyColumns;
+        this.binders = new BinderPlan(primaryKeyColumns);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * 执行删除
+     *
+     * @return 实际删除的行数
+     */
+    public long execute(List<SyncOperation> deletes) throws SQLException {
+        if (deletes.isEmpty()) {
+            return 0L;
+        }
+        long deleted = primaryKeyColumns.size() == 1
+                ? deleteBySingleKey(deletes)
+                : deleteByKeyTable(deletes);
+        log.info("表{}批量删除完成 计划{} 实际{}", tableName, deletes.size(), deleted);
+        return deleted;
+    }
+
+    private long deleteBySingleKey(List<SyncOperation> deletes) throws SQLException {
+        ColumnMetadata key = primaryKeyColumns.get(0);
+        long deleted = 0;
+
+        if (dialect.supportsArrayParameter()) {
+            String sql = "DELETE FROM " + dialect.table(tableName) + " WHERE " + dialect.quote(key.name()) + " = ANY(?)";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int from = 0; from < deletes.size(); from += chunkSize) {
+                    Object[] values = keyValues(deletes.subList(from, Math.min(from + chunkSize, deletes.size())), key.name());
+                    Array array = connection.createArrayOf(dialect.arrayElementType(key.typeName()), values);
+                    try {
+                        statement.setArray(1, array);
+                        deleted += statement.executeUpdate();
+                    } finally {
+                        array.free();
+                    }
+                }
+            }
+            return deleted;
+        }
+
+        PreparedStatement fullChunk = null;
+        try {
+            for (int from = 0; from < deletes.size(); from += chunkSize) {
+                List<SyncOperation> chunk = deletes.subList(from, Math.min(from + chunkSize, deletes.size()));
+                if (chunk.size() == chunkSize) {
+                    if (fullChunk == null) {
+                        fullChunk = connection.prepareStatement(buildInListSql(key.name(), chunkSize));
+                    }
+                    deleted += executeInList(fullChunk, chunk, key.name());
+                } else {
+                    try (PreparedStatement tail = connection.prepareStatement(buildInListSql(key.name(), chunk.size()))) {
+                        deleted += executeInList(tail, chunk, key.name());
+                    }
+                }
+            }
+        } finally {
+            if (fullChunk != null) {
+                fullChunk.close();
+            }
+        }
+        return deleted;
+    }
+
+    private long executeInList(PreparedStatement statement, List<SyncOperation> chunk, String keyColumn) throws SQLException {
+        ColumnBinder binder = binders.binder(keyColumn);
+        int index = 1;
+        for (SyncOperation operation : chunk) {
+            binder.bind(statement, index++, operation.primaryKeyValues().get(keyColumn));
+        }
+        return statement.executeUpdate();
+    }
+
+    private String buildInListSql(String keyColumn, int size) {
+        String placeholders = String.join(", ", Collections.nCopies(size, "?"));
+        return "DELETE FROM " + dialect.table(tableName) + " WHERE " + dialect.quote(keyColumn) + " IN (" + placeholders + ")";
+    }
+
+    private long deleteByKeyTable(List<SyncOperation> deletes) throws SQLException {
+        List<String> keyNames = primaryKeyColumns.stream().map(ColumnMetadata::name).collect(Collectors.toList());
+        String keyTable = "minicat_del_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        String insertSql = "INSERT INTO " + dialect.quote(keyTable) + " ("
+                + keyNames.stream().map(dialect::quote).collect(Collectors.joining(", "))
+                + ") VALUES (" + keyNames.stream().map(name -> "?").collect(Collectors.joining(", ")) + ")";
+
+        long deleted = 0;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(dialect.createTemporaryTableLike(keyTable, tableName, keyNames));
+            try (PreparedStatement insert = connection.prepareStatement(insertSql)) {
+                for (int from = 0; from < deletes.size(); from += chunkSize) {
+                    for (SyncOperation operation : deletes.subList(from, Math.min(from + chunkSize, deletes.size()))) {
+                        binders.bind(insert, 1, keyNames, operation.primaryKeyValues());
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                    insert.clearBatch();
+
+                    deleted += statement.executeUpdate(dialect.deleteJoin(tableName, keyTable, keyNames));
+                    statement.executeUpdate("DELETE FROM " + dialect.quote(keyTable));
+                }
+            } finally {
+                dropKeyTable(statement, keyTable);
+            }
+        }
+        return deleted;
+    }
+
+    private void dropKeyTable(Statement statement, String keyTable) {
+        try {
+            statement.execute(dialect.dropTemporaryTable(keyTable));
+        } catch (SQLException ex) {
+            // 事务回滚或会话结束时临时表会被自动清理
+            log.warn("删除临时键表{}失败 {}", keyTable, ex.getMessage());
+        }
+    }
+
+    private Object[] keyValues(List<SyncOperation> chunk, String keyColumn) {
+        return chunk.stream()
+                .map(operation -> operation.primaryKeyValues().get(keyColumn))
+                .toArray();
+    }
+}
@@ -0,0 +1,257 @@
+package com.minicat.service.sync;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * 按目标列 JDBC 类型绑定参数
+ *
+ * 差异数据经过 JSON 往返后只剩字符串、数字和布尔值，直接 setObject 会让驱动猜测类型，
+ * 服务端隐式转换还可能导致 WHERE 条件无法使用索引。这里按列类型预先选定 setter，
+ * 值无法转换时退回 setObject
+ */
+@FunctionalInterface
+public interface ColumnBinder {
+
+    void bind(PreparedStatement statement, int index, Object value) throws SQLException;
+
+    static ColumnBinder of(ColumnMetadata column) {
+        int jdbcType = column.jdbcType();
+        ColumnBinder typed = switch (jdbcType) {
+            case Types.BIGINT -> (statement, index, value) -> statement.setLong(index, Values.toLong(value));
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT ->
+                    (statement, index, value) -> statement.setInt(index, Math.toIntExact(Values.toLong(value)));
+            case Types.DECIMAL, Types.NUMERIC ->
+                    (statement, index, value) -> statement.setBigDecimal(index, Values.toBigDecimal(value));
+            case Types.REAL, Types.FLOAT, Types.DOUBLE ->
+                    (statement, index, value) -> statement.setDouble(index, Values.toDouble(value));
+            case Types.BIT, Types.BOOLEAN ->
+                    (statement, index, value) -> statement.setBoolean(index, Values.toBoolean(value));
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR,
+                    Types.CLOB, Types.NCLOB ->
+                    (statement, index, value) -> statement.setString(index, value.toString());
+            case Types.DATE -> (statement, index, value) -> statement.setDate(index, Values.toDate(value));
+            case Types.TIME -> (statement, index, value) -> statement.setTime(index, Values.toTime(value));
+            case Types.TIMESTAMP -> (statement, index, value) -> statement.setTimestamp(index, Values.toTimestamp(value));
+            case Types.TIMESTAMP_WITH_TIMEZONE ->
+                    (statement, index, value) -> statement.setObject(index, Values.toOffsetDateTime(value));
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB ->
+                    (statement, index, value) -> statement.setBytes(index, Values.toBytes(value));
+            // PostgreSQL 的 uuid、json、枚举等类型以未指定类型传入，由服务端按列类型解析
+            case Types.OTHER -> (statement, index, value) -> {
+                if (value instanceof String) {
+                    statement.setObject(index, value, Types.OTHER);
+                } else {
+                    statement.setObject(index, value);
+                }
+            };
+            default -> (statement, index, value) -> statement.setObject(index, value);
+        };
+
+        return (statement, index, value) -> {
+            if (value == null) {
+                statement.setNull(index, jdbcType);
+                return;
+            }
+            try {
+                typed.bind(statement, index, value);
+            } catch (IllegalArgumentException | ArithmeticException | DateTimeParseException ex) {
+                statement.setObject(index, value);
+            }
+        };
+    }
+
+    /**
+     * JSON 往返后的值到 JDBC 类型的转换
+     */
+    final class Values {
+
+        private Values() {
+        }
+
+        static long toLong(Object value) {
+            if (value instanceof BigDecimal decimal) {
+                return decimal.longValueExact();
+            }
+            if (value instanceof BigInteger integer) {
+                return integer.longValueExact();
+            }
+            if (value instanceof Number number) {
+                return number.longValue();
+            }
+            if (value instanceof Boolean bool) {
+                return bool ? 1L : 0L;
+            }
+            String text = value.toString().trim();
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException ex) {
+                return new BigDecimal(text).longValueExact();
+            }
+        }
+
+        static BigDecimal toBigDecimal(Object value) {
+            if (value instanceof BigDecimal decimal) {
+                return decimal;
+            }
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return BigDecimal.valueOf(((Number) value).longValue());
+            }
+            if (value instanceof BigInteger integer) {
+                return new BigDecimal(integer);
+            }
+            if (value instanceof Number number) {
+                return BigDecimal.valueOf(number.doubleValue());
+            }
+            return new BigDecimal(value.toString().trim());
+        }
+
+        static double toDouble(Object value) {
+            if (value instanceof Number number) {
+                return number.doubleValue();
+            }
+            return Double.parseDouble(value.toString().trim());
+        }
+
+        static boolean toBoolean(Object value) {
+            if (value instanceof Boolean bool) {
+                return bool;
+            }
+            if (value instanceof Number number) {
+                return number.intValue() != 0;
+            }
+            return switch (value.toString().trim().toLowerCase(Locale.ROOT)) {
+                case "1", "true", "t", "y", "yes" -> true;
+                case "0", "false", "f", "n", "no" -> false;
+                default -> throw new IllegalArgumentException("无法转换为布尔值: " + value);
+            };
+        }
+
+        static Timestamp toTimestamp(Object value) {
+            if (value instanceof Timestamp timestamp) {
+                return timestamp;
+            }
+            if (value instanceof java.util.Date date) {
+                return new Timestamp(date.getTime());
+            }
+            if (value instanceof LocalDateTime dateTime) {
+                return Timestamp.valueOf(dateTime);
+            }
+            if (value instanceof Number number) {
+                return new Timestamp(number.longValue());
+            }
+
+            String text = value.toString().trim();
+            if (isEpoch(text)) {
+                return new Timestamp(Long.parseLong(text));
+            }
+            if (text.length() == 10) {
+                return Timestamp.valueOf(LocalDate.parse(text).atStartOfDay());
+            }
+            String iso = text.replace(' ', 'T');
+            if (hasOffset(iso)) {
+                // 带时区的时间点按 JVM 时区还原为本地时间，与读取源数据时的转换对称
+                return Timestamp.from(OffsetDateTime.parse(normalizeOffset(iso)).toInstant());
+            }
+            return Timestamp.valueOf(LocalDateTime.parse(iso));
+        }
+
+        static Date toDate(Object value) {
+            if (value instanceof Date date) {
+                return date;
+            }
+            if (value instanceof LocalDate localDate) {
+                return Date.valueOf(localDate);
+            }
+            if (value instanceof String text && text.trim().length() == 10) {
+                return Date.valueOf(LocalDate.parse(text.trim()));
+            }
+            return Date.valueOf(toTimestamp(value).toLocalDateTime().toLocalDate());
+        }
+
+        static Time toTime(Object value) {
+            if (value instanceof Time time) {
+                return time;
+            }
+            if (value instanceof LocalTime localTime) {
+                return Time.valueOf(localTime);
+            }
+            if (value instanceof String text && text.trim().length() <= 18 && text.indexOf('-') < 0) {
+                return Time.valueOf(LocalTime.parse(text.trim()));
+            }
+            return Time.valueOf(toTimestamp(value).toLocalDateTime().toLocalTime());
+        }
+
+        static OffsetDateTime toOffsetDateTime(Object value) {
+            if (value instanceof OffsetDateTime dateTime) {
+                return dateTime;
+            }
+            if (value instanceof Number number) {
+                return Instant.ofEpochMilli(number.longValue()).atOffset(ZoneOffset.UTC);
+            }
+            String iso = value.toString().trim().replace(' ', 'T');
+            if (hasOffset(iso)) {
+                return OffsetDateTime.parse(normalizeOffset(iso));
+            }
+            return toTimestamp(value).toInstant().atOffset(ZoneOffset.UTC);
+        }
+
+        static byte[] toBytes(Object value) {
+            if (value instanceof byte[] bytes) {
+                return bytes;
+            }
+            // Jackson 将 byte[] 序列化为 Base64
+            return Base64.getDecoder().decode(value.toString());
+        }
+
+        private static boolean isEpoch(String text) {
+            if (text.isEmpty() || text.length() > 19) {
+                return false;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                if (!Character.isDigit(text.charAt(i)) && !(i == 0 && text.charAt(i) == '-')) {
+                    return false;
+                }
+            }
+            return text.length() > 1 || Character.isDigit(text.charAt(0));
+        }
+
+        private static boolean hasOffset(String iso) {
+            int timeStart = iso.indexOf('T');
+            if (timeStart < 0) {
+                return false;
+            }
+            String time = iso.substring(timeStart);
+            return time.endsWith("Z") || time.indexOf('+') >= 0 || time.indexOf('-') >= 0;
+        }
+
+        /**
+         * PostgreSQL 文本格式的偏移量可能只有小时（+08），补齐为 +08:00
+         */
+        private static String normalizeOffset(String iso) {
+            int length = iso.length();
+            if (length > 3) {
+                char sign = iso.charAt(length - 3);
+                if ((sign == '+' || sign == '-') && iso.indexOf(':', length - 3) < 0) {
+                    return iso + ":00";
+                }
+            }
+            return iso;
+        }
+    }
+}
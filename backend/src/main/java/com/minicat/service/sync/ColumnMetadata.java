@@ -0,0 +1,11 @@
+package com.minicat.service.sync;
+
+/**
+ * 同步用列元数据
+ *
+ * @param name     列名
+ * @param jdbcType java.sql.Types 类型
+ * @param typeName 数据库原生类型名
+ */
+public record ColumnMetadata(String name, int jdbcType, String typeName) {
+}
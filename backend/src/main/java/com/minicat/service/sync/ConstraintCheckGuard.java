@@ -0,0 +1,84 @@
+package com.minicat.service.sync;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 在写入连接上临时关闭外键检查，关闭资源时恢复
+ * 连接归还连接池前必须恢复会话设置，因此应在 try-with-resources 中位于连接之后声明
+ */
+@Slf4j
+public final class ConstraintCheckGuard implements AutoCloseable {
+
+    private static final ConstraintCheckGuard NONE = new ConstraintCheckGuard(null, null, null);
+
+    private final DataSource dataSource;
+    private final Connection connection;
+    private final DatabaseDialect dialect;
+
+    private ConstraintCheckGuard(DataSource dataSource, Connection connection, DatabaseDialect dialect) {
+        this.dataSource = dataSource;
+        this.connection = connection;
+        this.dialect = dialect;
+    }
+
+    public static ConstraintCheckGuard none() {
+        return NONE;
+    }
+
+    /**
+     * 关闭外键检查；权限不足等失败时保持检查开启继续执行
+     *
+     * @param dataSource 连接所属的连接池，恢复失败时从中淘汰连接
+     */
+    public static ConstraintCheckGuard disable(DataSource dataSource, Connection connection, DatabaseDialect dialect) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(dialect.disableConstraintChecks());
+            return new ConstraintCheckGuard(dataSource, connection, dialect);
+        } catch (SQLException e) {
+            log.warn("关闭外键检查失败 保持检查开启 {}", e.getMessage());
+            return NONE;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(dialect.enableConstraintChecks());
+            }
+        } catch (SQLException e) {
+            // 无法恢复的会话不能回到连接池，归还前从连接池淘汰
+            log.error("恢复外键检查失败 从连接池淘汰连接 {}", e.getMessage());
+            evict();
+        }
+    }
+
+    private void evict() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                dataSource.unwrap(HikariDataSource.class).evictConnection(connection);
+                return;
+            }
+        } catch (SQLException e) {
+            log.warn("获取连接池失败 {}", e.getMessage());
+        }
+        // 非 Hikari 连接池无法淘汰单个连接，中止连接使其不再可用
+        try {
+            connection.abort(Runnable::run);
+        } catch (SQLException e) {
+            log.warn("中止连接失败 {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.minicat.service.sync;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 表级跨方言取值转换计划：按源列和目标列元数据为每列预先组合转换步骤，整表复用
+ *
+ * 差异数据经过 JSON 往返后保留的是源库驱动的取值形态，例如 MySQL 的零日期字符串、YEAR 列的日期、
+ * 无符号 BIGINT 的 BigInteger，以及 PostgreSQL json/jsonb 被序列化成的 PGobject 结构。
+ * 这些值直接交给目标库会使整批失败后退化为逐行重试，这里在绑定前转换为目标列可接受的形态
+ */
+public final class ConversionPlan {
+
+    private static final ConversionPlan NONE = new ConversionPlan(Collections.emptyMap(), Collections.emptyMap());
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Map<String, ValueConverter> converters;
+    private final Map<String, List<String>> steps;
+
+    private ConversionPlan(Map<String, ValueConverter> converters, Map<String, List<String>> steps) {
+        this.converters = converters;
+        this.steps = steps;
+    }
+
+    public static ConversionPlan none() {
+        return NONE;
+    }
+
+    public static ConversionPlan build(
+            DatabaseDialect sourceDialect,
+            Collection<ColumnMetadata> sourceColumns,
+            DatabaseDialect targetDialect,
+            Collection<ColumnMetadata> targetColumns) {
+        Map<String, ColumnMetadata> sourceByName = new HashMap<>();
+        sourceColumns.forEach(column -> sourceByName.put(column.name(), column));
+
+        Map<String, ValueConverter> converters = new HashMap<>();
+        Map<String, List<String>> steps = new LinkedHashMap<>();
+        for (ColumnMetadata target : targetColumns) {
+            ColumnMetadata source = sourceByName.get(target.name());
+            List<String> columnSteps = new ArrayList<>();
+            ValueConverter converter = ValueConverter.IDENTITY;
+
+            // 结构化取值（PGobject、嵌套 JSON）任何方向都需要还原为文本
+            converter = converter.andThen(Converters::structuredToText);
+            if (isIntegral(target.jdbcType()) || isDecimal(target.jdbcType())) {
+                converter = converter.andThen(Converters::bigIntegerToDecimal);
+            }
+            if (source != null && sourceDialect != targetDialect) {
+                String sourceType = StringUtils.lowerCase(source.typeName(), Locale.ROOT);
+                if (sourceDialect == DatabaseDialect.MYSQL && "year".equals(sourceType) && isIntegral(target.jdbcType())) {
+                    converter = converter.andThen(Converters::yearToNumber);
+                    columnSteps.add("year->integer");
+                }
+                if (sourceDialect == DatabaseDialect.MYSQL && isTemporal(target.jdbcType())) {
+                    converter = converter.andThen(Converters::zeroDateToNull);
+                    columnSteps.add("zero-date->null");
+                }
+                if (targetDialect == DatabaseDialect.POSTGRESQL && isText(target.jdbcType())) {
+                    converter = converter.andThen(Converters::stripNul);
+                    columnSteps.add("strip-nul");
+                }
+                if (isText(target.jdbcType()) && (source.jdbcType() == Types.BIT || source.jdbcType() == Types.BOOLEAN)) {
+                    converter = converter.andThen(Converters::booleanToDigit);
+                    columnSteps.add("boolean->digit");
+                }
+            }
+
+            converters.put(target.name(), converter);
+            if (!columnSteps.isEmpty()) {
+                steps.put(target.name(), columnSteps);
+            }
+        }
+        return new ConversionPlan(converters, steps);
+    }
+
+    public ValueConverter converter(String column) {
+        return converters.getOrDefault(column, ValueConverter.IDENTITY);
+    }
+
+    /**
+     * 跨方言转换步骤，按列名列出，用于日志
+     */
+    public Map<String, List<String>> steps() {
+        return Collections.unmodifiableMap(steps);
+    }
+
+    private static boolean isIntegral(int jdbcType) {
+        return jdbcType == Types.BIGINT || jdbcType == Types.INTEGER || jdbcType == Types.SMALLINT || jdbcType == Types.TINYINT;
+    }
+
+    private static boolean isDecimal(int jdbcType) {
+        return jdbcType == Types.DECIMAL || jdbcType == Types.NUMERIC;
+    }
+
+    private static boolean isTemporal(int jdbcType) {
+        return jdbcType == Types.DATE || jdbcType == Types.TIME || jdbcType == Types.TIMESTAMP
+                || jdbcType == Types.TIMESTAMP_WITH_TIMEZONE;
+    }
+
+    private static boolean isText(int jdbcType) {
+        return switch (jdbcType) {
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR,
+                    Types.CLOB, Types.NCLOB -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * 单步转换，输入为 null 时原样返回
+     */
+    static final class Converters {
+
+        private Converters() {
+        }
+
+        /**
+         * PGobject 经 Jackson 序列化为 {type, value, null}，取回原始文本；其他 Map/List 序列化为 JSON 文本
+         */
+        static Object structuredToText(Object value) {
+            if (value instanceof Map<?, ?> map) {
+                if (map.containsKey("type") && map.containsKey("value") && map.size() <= 3) {
+                    return map.get("value");
+                }
+                return writeJson(value);
+            }
+            if (value instanceof Collection<?>) {
+                return writeJson(value);
+            }
+            return value;
+        }
+
+        /**
+         * 无符号 BIGINT 超出 long 范围时解析为 BigInteger，转为 BigDecimal 以便 NUMERIC 列精确绑定
+         */
+        static Object bigIntegerToDecimal(Object value) {
+            return value instanceof BigInteger integer ? new BigDecimal(integer) : value;
+        }
+
+        /**
+         * MySQL YEAR 列默认按 DATE 读取（yyyy-01-01），写入整数列时只保留年份
+         */
+        static Object yearToNumber(Object value) {
+            if (value instanceof String text && text.length() >= 4 && !StringUtils.isNumeric(text)) {
+                return Integer.parseInt(text.substring(0, 4));
+            }
+            return value;
+        }
+
+        /**
+         * MySQL 零日期在其他数据库中没有对应值，按 NULL 写入
+         */
+        static Object zeroDateToNull(Object value) {
+            return value instanceof String text && text.startsWith("0000-00-00") ? null : value;
+        }
+
+        /**
+         * PostgreSQL 文本类型不接受 \u0000
+         */
+        static Object stripNul(Object value) {
+            return value instanceof String text && text.indexOf('\u0000') >= 0 ? StringUtils.remove(text, '\u0000') : value;
+        }
+
+        /**
+         * TINYINT(1)/BIT(1) 读取为布尔值，写入文本列时保持 0/1 形态
+         */
+        static Object booleanToDigit(Object value) {
+            return value instanceof Boolean bool ? (bool ? "1" : "0") : value;
+        }
+
+        private static String writeJson(Object value) {
+            try {
+                return JSON.writeValueAsString(value);
+            } catch (JsonProcessingException ex) {
+                throw new IllegalArgumentException("无法序列化为 JSON: " + value, ex);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.minicat.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.minicat.dto.ConnectionDto;
 import com.minicat.dto.DataCompareRequest;
@@ -8,39 +9,74 @@ import com.minicat.dto.DataDiffResult;
 import com.minicat.dto.DataSyncRequest;
 import com.minicat.dto.DataSyncResponse;
 import com.minicat.dto.TableDataDiff;
+import com.minicat.entity.SyncCheckpoint;
 import com.minicat.entity.Task;
 import com.minicat.manager.DatabaseConnectionManager;
+import com.minicat.manager.MetadataCatalogCache;
+import com.minicat.service.dependency.TableDependencyGraph;
+import com.minicat.service.sync.AdaptiveBatchSizer;
+import com.minicat.service.sync.BinderPlan;
+import com.minicat.service.sync.BulkDeleteExecutor;
+import com.minicat.service.sync.ColumnMetadata;
+import com.minicat.service.sync.ConstraintCheckGuard;
+import com.minicat.service.sync.ConversionPlan;
+import com.minicat.service.sync.StagingMergeExecutor;
 import com.minicat.service.sync.DatabaseDialect;
+import com.minicat.service.sync.DryRunScriptWriter;
+import com.minicat.service.sync.RejectedOperation;
+import com.minicat.service.sync.RetryingBatchExecutor;
+import com.minicat.service.sync.SecondaryIndex;
+import com.minicat.service.sync.SecondaryIndexCatalog;
 import com.minicat.service.sync.SyncAction;
 import com.minicat.service.sync.SyncExecutionResult;
 import com.minicat.service.sync.SyncOperation;
+import com.minicat.service.sync.SyncVerifier;
+import com.minicat.service.sync.UpdateStatementCache;
+import com.minicat.service.sync.WriteThrottle;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
 import javax.sql.DataSource;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
 import java.time.LocalDateTime;
-import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.HexFormat;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -52,17 +88,179 @@ public class DataSyncService {
     private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {};
     private static final int DEFAULT_BATCH_SIZE = 1000;
     private static final int MIN_BATCH_SIZE = 1;
+    private static final int UPDATE_STATEMENT_CACHE_SIZE = 16;
+    private static final int DEFAULT_BULK_DELETE_THRESHOLD = 1000;
+    private static final int DEFAULT_STAGING_MERGE_THRESHOLD = 0;
+    private static final int DEFAULT_PARALLEL_TABLES = 4;
+    private static final long DEFAULT_TARGET_BATCH_LATENCY_MS = 200L;
+    private static final double DEFAULT_MAX_REPLICATION_LAG_SECONDS = 10.0;
+    private static final long DEFAULT_LAG_CHECK_INTERVAL_MS = 1000L;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long DEFAULT_RETRY_BACKOFF_MS = 100L;
+    private static final int DEFAULT_MAX_REJECTED_ROWS = 1000;
+    private static final int DEFAULT_VERIFY_BATCH_SIZE = 500;
+    private static final int MAX_PARALLEL_TABLES = 8;
+    private static final int MAX_PARALLEL_TARGETS = 16;
+    private static final int DRY_RUN_PREVIEW_SIZE = 100;
+    private static final String DRY_RUN_SCRIPT_SUFFIX = ".sql.gz";
+
+    @Value("${minicat.storage.base-path}")
+    private String basePath;
+
+    @Value("${minicat.storage.diffs-path}")
+    private String diffsPath;
 
     private final ConnectionService connectionService;
     private final DatabaseConnectionManager connectionManager;
+    private final MetadataCatalogCache metadataCatalogCache;
     private final DataComparatorService dataComparatorService;
     private final TaskService taskService;
+    private final SyncCheckpointService checkpointService;
     private final ObjectMapper objectMapper;
 
     public DataSyncResponse syncData(DataSyncRequest request) {
-        LocalDateTime startTime = LocalDateTime.now();
+        if (CollectionUtils.isNotEmpty(request.getTargetConnectionIds())) {
+            return syncDataFanOut(request);
+        }
+
         Task task = taskService.createTask("data_sync");
+        taskService.saveRequestPayload(task.getId(), writePayload(request));
         taskService.updateTaskProgress(task.getId(), 1, "任务初始化完成");
+        return runSync(task.getId(), request, Collections.emptyMap(), null);
+    }
+
+    /**
+     * 多目标同步：源表只读取一次完成所有目标的比对，再按目标并行写入
+     *
+     * 每个目标对应一个独立的 data_sync 子任务（可单独继续执行），慢目标不阻塞其他目标的写入
+     */
+    private DataSyncResponse syncDataFanOut(DataSyncRequest request) {
+        Task task = taskService.createTask("data_sync_fanout");
+        List<String> targetIds = new ArrayList<>(new LinkedHashSet<>(request.getTargetConnectionIds()));
+
+        DataSyncResponse response = DataSyncResponse.builder()
+                .taskId(task.getId())
+                .sourceConnectionId(request.getSourceConnectionId())
+                .startTime(LocalDateTime.now())
+                .status("RUNNING")
+                .tableSyncResults(new ArrayList<>())
+                .generatedSqls(new ArrayList<>())
+                .targetResults(new ArrayList<>())
+                .build();
+
+        ExecutorService executor = null;
+        try {
+            taskService.updateTaskProgress(task.getId(), 5, "开始多目标差异比对");
+            DataDiffResult diffResult = dataComparatorService.compareDataFanOut(buildCompareRequest(request, request.getTableNames(), targetIds));
+            if (!StringUtils.equalsIgnoreCase("COMPLETED", diffResult.getStatus())) {
+                throw new IllegalStateException(StringUtils.defaultIfBlank(diffResult.getErrorMessage(), "数据比对失败"));
+            }
+            response.setSourceConnectionName(diffResult.getSourceConnectionName());
+            taskService.updateTaskProgress(task.getId(), 30, "多目标差异比对完成");
+
+            executor = Executors.newFixedThreadPool(Math.min(MAX_PARALLEL_TARGETS, targetIds.size()));
+            List<Future<DataSyncResponse>> futures = new ArrayList<>();
+            for (DataDiffResult targetDiff : diffResult.getTargetResults()) {
+                DataSyncRequest targetRequest = DataSyncRequest.builder()
+                        .sourceConnectionId(request.getSourceConnectionId())
+                        .targetConnectionId(targetDiff.getTargetConnectionId())
+                        .tableNames(request.getTableNames())
+                        .options(request.getOptions())
+                        .build();
+                Task targetTask = taskService.createTask("data_sync");
+                taskService.saveRequestPayload(targetTask.getId(), writePayload(targetRequest));
+                taskService.updateTaskProgress(targetTask.getId(), 1, "多目标同步子任务 父任务" + task.getId());
+                futures.add(executor.submit(() -> runSync(targetTask.getId(), targetRequest, Collections.emptyMap(), targetDiff)));
+            }
+
+            List<String> failedTargets = new ArrayList<>();
+            for (Future<DataSyncResponse> future : futures) {
+                DataSyncResponse targetResponse = future.get();
+                response.getTargetResults().add(targetResponse);
+                if (!"COMPLETED".equals(targetResponse.getStatus())) {
+                    failedTargets.add(targetResponse.getTargetConnectionId());
+                }
+            }
+
+            response.setEndTime(LocalDateTime.now());
+            if (failedTargets.isEmpty()) {
+                response.setStatus("COMPLETED");
+                taskService.updateTaskProgress(task.getId(), 100, "多目标数据同步完成");
+            } else {
+                response.setStatus("FAILED");
+                response.setErrorMessage("以下目标同步失败: " + String.join(", ", failedTargets));
+                taskService.failTask(task.getId(), response.getErrorMessage());
+            }
+            log.info("多目标数据同步结束 任务{} 目标{} 失败{}", task.getId(), targetIds, failedTargets);
+
+        } catch (Exception ex) {
+            log.error("多目标数据同步失败 任务{}", task.getId(), ex);
+            response.setStatus("FAILED");
+            response.setErrorMessage(ex.getMessage());
+            response.setEndTime(LocalDateTime.now());
+            taskService.failTask(task.getId(), ex.getMessage());
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+        return response;
+    }
+
+    /**
+     * 从检查点继续执行失败或取消的同步任务
+     */
+    public DataSyncResponse resumeSync(String taskId) {
+        Task task = taskService.getTaskById(taskId);
+        if (task == null || !"data_sync".equals(task.getType())) {
+            throw new IllegalArgumentException("数据同步任务不存在: " + taskId);
+        }
+        if (StringUtils.equalsAny(task.getStatus(), "PENDING", "RUNNING")) {
+            throw new IllegalArgumentException("任务正在执行中，无法继续: " + taskId);
+        }
+        if (StringUtils.isBlank(task.getRequestPayload())) {
+            throw new IllegalArgumentException("任务缺少原始同步请求，无法继续: " + taskId);
+        }
+
+        DataSyncRequest request;
+        try {
+            request = objectMapper.readValue(task.getRequestPayload(), DataSyncRequest.class);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("解析任务原始同步请求失败: " + ex.getMessage(), ex);
+        }
+
+        Map<String, List<SyncCheckpoint>> checkpoints = checkpointService.loadCheckpoints(taskId);
+        log.info("继续同步任务{} 已有检查点的表{}", taskId, checkpoints.keySet());
+        taskService.restartTask(taskId, "从检查点继续同步");
+        return runSync(taskId, request, checkpoints, null);
+    }
+
+    /**
+     * @param precomputedDiff 多目标同步时已完成的该目标比对结果，为空时重新比对
+     */
+    private DataSyncResponse runSync(
+            String taskId,
+            DataSyncRequest request,
+            Map<String, List<SyncCheckpoint>> checkpoints,
+            DataDiffResult precomputedDiff) {
+        // 之前中断时未重建的索引与本次移除的索引一起在结束后重建，无论同步成功与否
+        List<SecondaryIndex> deferredIndexes = new ArrayList<>(checkpointService.pendingIndexes(checkpoints));
+        DataSyncResponse response = executeSync(taskId, request, checkpoints, precomputedDiff, deferredIndexes);
+        if (!deferredIndexes.isEmpty()) {
+            restoreDeferredIndexes(taskId, request, deferredIndexes, response);
+        }
+        return response;
+    }
+
+    private DataSyncResponse executeSync(
+            String taskId,
+            DataSyncRequest request,
+            Map<String, List<SyncCheckpoint>> checkpoints,
+            DataDiffResult precomputedDiff,
+            List<SecondaryIndex> deferredIndexes) {
+        LocalDateTime startTime = LocalDateTime.now();
+        Task task = taskService.getTaskById(taskId);
 
         DataSyncResponse response = DataSyncResponse.builder()
                 .taskId(task.getId())
@@ -82,6 +280,7 @@ public class DataSyncService {
 
             DataSource sourceDataSource = connectionManager.getDataSource(sourceConnection);
             DataSource targetDataSource = connectionManager.getDataSource(targetConnection);
+            DatabaseDialect sourceDialect = DatabaseDialect.fromType(sourceConnection.getType());
             DatabaseDialect targetDialect = DatabaseDialect.fromType(targetConnection.getType());
 
             log.info("开始数据同步 源库{} 目标库{} 表数量{} 模拟{}",
@@ -90,23 +289,35 @@ public class DataSyncService {
                     request.getTableNames().size(),
                     Boolean.TRUE.equals(request.getOptions().getDryRun()));
 
+            // 检查点显示已完成的表不再重复比对
+            List<String> pendingTables = new ArrayList<>();
+            for (String tableName : request.getTableNames()) {
+                if (checkpointService.isTableCompleted(checkpoints.get(tableName))) {
+                    response.getTableSyncResults().add(DataSyncResponse.TableSyncResult.builder()
+                            .tableName(tableName)
+                            .status("SKIPPED")
+                            .errorMessage("检查点显示该表已同步完成")
+                            .build());
+                } else {
+                    pendingTables.add(tableName);
+                }
+            }
+
+            if (pendingTables.isEmpty()) {
+                response.setStatus("COMPLETED");
+                response.setEndTime(LocalDateTime.now());
+                response.calculateStatistics();
+                taskService.updateTaskProgress(task.getId(), 100, "数据同步完成");
+                log.info("数据同步完成 所有表均已在检查点中完成");
+                return response;
+            }
+
             taskService.updateTaskProgress(task.getId(), 5, "开始差异比对");
 
             // 先进行数据比对以锁定需要执行的差异
-            DataCompareRequest compareRequest = DataCompareRequest.builder()
-                    .sourceConnectionId(request.getSourceConnectionId())
-                    .targetConnectionId(request.getTargetConnectionId())
-                    .tableNames(request.getTableNames())
-                    .options(DataCompareRequest.CompareOptions.builder()
-                            .compareContent(true)
-                            .batchSize(request.getOptions().getBatchSize())
-                            .ignoreCase(false)
-                            .ignoreTrimSpace(false)
-                            .maxRows(null)
-                            .build())
-                    .build();
-
-            DataDiffResult diffResult = dataComparatorService.compareData(compareRequest);
+            DataDiffResult diffResult = precomputedDiff != null
+                    ? precomputedDiff
+                    : dataComparatorService.compareData(buildCompareRequest(request, pendingTables, null));
             if (!StringUtils.equalsIgnoreCase("COMPLETED", diffResult.getStatus())) {
                 throw new IllegalStateException(StringUtils.defaultIfBlank(diffResult.getErrorMessage(), "数据比对失败"));
             }
@@ -123,42 +334,100 @@ public class DataSyncService {
 
             log.info("数据比对完成 表数量{}", tableDiffs.size());
 
-            int processedTables = 0;
-            int totalTables = tableDiffs.size();
-            for (TableDataDiff tableDiff : tableDiffs) {
-                long tableStart = System.currentTimeMillis();
-                DataSyncResponse.TableSyncResult tableResult;
-                try {
-                    tableResult = processTableDiff(
-                            tableDiff,
-                            sourceDataSource,
-                            targetDataSource,
-                            targetDialect,
-                            request.getOptions(),
-                            response.getGeneratedSqls());
-                    tableResult.setExecutionTime(System.currentTimeMillis() - tableStart);
-                } catch (Exception ex) {
-                    log.error("表{}同步失败", tableDiff.getTableName(), ex);
-                    tableResult = DataSyncResponse.TableSyncResult.builder()
-                            .tableName(tableDiff.getTableName())
-                            .status("FAILED")
-                            .errorMessage(ex.getMessage())
-                            .executionTime(System.currentTimeMillis() - tableStart)
-                            .build();
+            // 按目标库外键依赖分层：INSERT/UPDATE 父表在前，DELETE 子表在前，同层内并行
+            DataSyncRequest.SyncOptions options = request.getOptions();
+            boolean dryRun = Boolean.TRUE.equals(options.getDryRun());
+            Map<String, TableDataDiff> diffByTable = new LinkedHashMap<>();
+            tableDiffs.forEach(tableDiff -> diffByTable.put(tableDiff.getTableName(), tableDiff));
+
+            TableDependencyGraph graph = loadDependencyGraph(targetDataSource, diffByTable.keySet());
+            List<List<String>> upsertLevels = graph.levels();
+            List<List<String>> deleteLevels = new ArrayList<>(upsertLevels);
+            Collections.reverse(deleteLevels);
+            int parallelism = dryRun ? 1 : resolveParallelism(options);
+
+            response.setSyncPlan(DataSyncResponse.SyncPlan.builder()
+                    .upsertLevels(upsertLevels)
+                    .deleteLevels(deleteLevels)
+                    .cycles(graph.cycles())
+                    .parallelism(parallelism)
+                    .build());
+            log.info("同步计划 层级{} 依赖环{} 并行度{}", upsertLevels, graph.cycles(), parallelism);
+
+            Map<String, SyncCheckpointService.TableCheckpoint> tableCheckpoints = new LinkedHashMap<>();
+            diffByTable.keySet().forEach(tableName -> tableCheckpoints.put(
+                    tableName, checkpointService.forTable(task.getId(), tableName)));
+
+            Set<String> deferredTables = dryRun || !Boolean.TRUE.equals(options.getDeferIndexes())
+                    ? Collections.emptySet()
+                    : deferIndexes(task.getId(), targetDataSource, targetDialect, diffByTable, options, deferredIndexes);
+
+            AtomicInteger finishedSteps = new AtomicInteger();
+            int totalSteps = diffByTable.size() * 2;
+            WriteThrottle throttle = dryRun
+                    ? WriteThrottle.unlimited()
+                    : createWriteThrottle(targetDataSource, options, message -> reportProgress(
+                            task.getId(), phaseProgress(finishedSteps.get(), totalSteps), message));
+
+            DryRunScriptWriter dryRunScript = dryRun
+                    ? new DryRunScriptWriter(dryRunScriptPath(task.getId()), DRY_RUN_PREVIEW_SIZE)
+                    : null;
+
+            TableSyncContext context = new TableSyncContext(
+                    task.getId(),
+                    sourceConnection,
+                    targetConnection,
+                    sourceDialect,
+                    targetDialect,
+                    options,
+                    dryRunScript,
+                    diffByTable,
+                    tableCheckpoints,
+                    new ConcurrentHashMap<>(),
+                    finishedSteps,
+                    totalSteps,
+                    throttle,
+                    deferredTables);
+
+            ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+            try {
+                runPhase(executor, upsertLevels, EnumSet.of(SyncAction.INSERT, SyncAction.UPDATE), context);
+                runPhase(executor, deleteLevels, EnumSet.of(SyncAction.DELETE), context);
+            } finally {
+                executor.shutdownNow();
+                if (dryRunScript != null) {
+                    dryRunScript.close();
                 }
+            }
 
-                response.getTableSyncResults().add(tableResult);
-                processedTables++;
+            if (dryRunScript != null) {
+                response.setGeneratedSqls(new ArrayList<>(dryRunScript.preview()));
+                response.setDryRunScript(DataSyncResponse.DryRunScript.builder()
+                        .fileName(dryRunScript.file().getFileName().toString())
+                        .downloadPath("/data/sync/" + task.getId() + "/script")
+                        .statementCount(dryRunScript.statementCount())
+                        .tableStatementCounts(dryRunScript.tableStatementCounts())
+                        .fileSize(Files.size(dryRunScript.file()))
+                        .build());
+                log.info("模拟执行脚本已生成 {} 语句数{}", dryRunScript.file(), dryRunScript.statementCount());
+            }
 
-                int progress = Math.min(95, 5 + (int) Math.round(processedTables * 90.0 / Math.max(totalTables, 1)));
-                taskService.updateTaskProgress(task.getId(), progress, String.format("表%s同步完成", tableDiff.getTableName()));
+            for (String tableName : diffByTable.keySet()) {
+                DataSyncResponse.TableSyncResult tableResult = context.results().get(tableName);
+                response.getTableSyncResults().add(tableResult);
+                // 有被拒绝行的表不写完成标记，继续同步时重新比对并写入这些行
+                if (!dryRun && "SUCCESS".equals(tableResult.getStatus())
+                        && (tableResult.getRejectedCount() == null || tableResult.getRejectedCount() == 0)) {
+                    tableCheckpoints.get(tableName).completed(affectedRows(tableResult));
+                }
             }
 
             response.setStatus("COMPLETED");
             response.setEndTime(LocalDateTime.now());
             response.calculateStatistics();
-            taskService.updateTaskProgress(task.getId(), 100, "数据同步完成");
-            log.info("数据同步完成 任务{}", task.getId());
+            String completionMessage = throttle.isEnabled() ? "数据同步完成 " + throttle.summary() : "数据同步完成";
+            taskService.updateTaskProgress(task.getId(), 100, completionMessage);
+            log.info("{} 任务{}", completionMessage, task.getId());
 
         } catch (Exception ex) {
             log.error("数据同步失败 任务{}", task.getId(), ex);
@@ -171,13 +440,314 @@ public class DataSyncService {
         return response;
     }
 
+    /**
+     * 对接近空表的目标表移除非唯一二级索引，每个索引移除前先记录重建语句
+     *
+     * @return 写入时需要关闭外键检查的表
+     */
+    private Set<String> deferIndexes(
+            String taskId,
+            DataSource targetDataSource,
+            DatabaseDialect dialect,
+            Map<String, TableDataDiff> diffByTable,
+            DataSyncRequest.SyncOptions options,
+            List<SecondaryIndex> deferredIndexes) throws SQLException {
+        long maxTargetRows = options.getDeferIndexMaxTargetRows() != null ? options.getDeferIndexMaxTargetRows() : 0L;
+        Set<String> alreadyDeferred = deferredIndexes.stream()
+                .map(SecondaryIndex::tableName)
+                .collect(Collectors.toSet());
+        Set<String> deferredTables = new LinkedHashSet<>();
+
+        try (Connection connection = targetDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (TableDataDiff tableDiff : diffByTable.values()) {
+                String tableName = tableDiff.getTableName();
+                long targetRows = tableDiff.getTargetRowCount() != null ? tableDiff.getTargetRowCount() : 0L;
+                if (alreadyDeferred.contains(tableName)) {
+                    deferredTables.add(tableName);
+                    continue;
+                }
+                if (tableDiff.getInsertCount() == null || tableDiff.getInsertCount() <= 0
+                        || (maxTargetRows > 0 && targetRows > maxTargetRows)) {
+                    continue;
+                }
+
+                deferredTables.add(tableName);
+                for (SecondaryIndex index : SecondaryIndexCatalog.load(connection, dialect, tableName)) {
+                    checkpointService.recordDeferredIndex(taskId, index);
+                    try {
+                        statement.execute(dialect.dropIndex(tableName, index.name()));
+                        deferredIndexes.add(index);
+                        log.info("表{}暂时移除索引{}", tableName, index.name());
+                    } catch (SQLException ex) {
+                        // 例如 MySQL 中外键依赖的索引无法删除，保留即可
+                        checkpointService.markIndexRestored(taskId, index);
+                        log.warn("表{}索引{}无法移除 保留该索引 {}", tableName, index.name(), ex.getMessage());
+                    }
+                }
+            }
+        }
+        return deferredTables;
+    }
+
+    /**
+     * 重建同步期间移除的索引；已存在的索引视为已重建，失败的保留在检查点中等待继续同步时重试
+     */
+    private void restoreDeferredIndexes(
+            String taskId,
+            DataSyncRequest request,
+            List<SecondaryIndex> deferredIndexes,
+            DataSyncResponse response) {
+        reportProgress(taskId, 99, "重建索引 " + deferredIndexes.size() + " 个");
+        List<DataSyncResponse.DeferredIndex> results = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        try {
+            ConnectionDto targetConnection = connectionService.getConnectionById(request.getTargetConnectionId());
+            DatabaseDialect dialect = DatabaseDialect.fromType(targetConnection.getType());
+            try (Connection connection = connectionManager.getDataSource(targetConnection).getConnection();
+                 Statement statement = connection.createStatement()) {
+                Map<String, Set<String>> existing = new HashMap<>();
+                for (SecondaryIndex index : deferredIndexes) {
+                    long start = System.currentTimeMillis();
+                    DataSyncResponse.DeferredIndex result = DataSyncResponse.DeferredIndex.builder()
+                            .tableName(index.tableName())
+                            .indexName(index.name())
+                            .build();
+                    try {
+                        Set<String> present = existing.get(index.tableName());
+                        if (present == null) {
+                            present = SecondaryIndexCatalog.load(connection, dialect, index.tableName()).stream()
+                                    .map(SecondaryIndex::name)
+                                    .collect(Collectors.toSet());
+                            existing.put(index.tableName(), present);
+                        }
+                        if (!present.contains(index.name())) {
+                            statement.execute(index.createStatement());
+                        }
+                        checkpointService.markIndexRestored(taskId, index);
+                        result.setStatus("RESTORED");
+                        log.info("表{}索引{}已重建", index.tableName(), index.name());
+                    } catch (SQLException ex) {
+                        result.setStatus("FAILED");
+                        result.setErrorMessage(ex.getMessage());
+                        failures.add(index.tableName() + "." + index.name());
+                        log.error("表{}索引{}重建失败", index.tableName(), index.name(), ex);
+                    }
+                    result.setRebuildTime(System.currentTimeMillis() - start);
+                    results.add(result);
+                }
+            }
+        } catch (Exception ex) {
+            log.error("重建索引失败 任务{}", taskId, ex);
+            failures.add(ex.getMessage());
+        }
+
+        response.setDeferredIndexes(results);
+        if (!failures.isEmpty()) {
+            String message = "索引重建失败，可继续同步任务重试: " + String.join(", ", failures);
+            response.setStatus("FAILED");
+            response.setErrorMessage(StringUtils.isBlank(response.getErrorMessage())
+                    ? message
+                    : response.getErrorMessage() + "; " + message);
+            taskService.failTask(taskId, response.getErrorMessage());
+        } else if ("COMPLETED".equals(response.getStatus())) {
+            taskService.updateTaskProgress(taskId, 100, "数据同步完成 已重建索引" + results.size() + "个");
+        }
+    }
+
+    /**
+     * 获取模拟执行生成的压缩脚本
+     */
+    public Resource getDryRunScript(String taskId) {
+        Task task = taskService.getTaskById(taskId);
+        if (task == null || !"data_sync".equals(task.getType())) {
+            throw new IllegalArgumentException("数据同步任务不存在: " + taskId);
+        }
+        Path file = dryRunScriptPath(task.getId());
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("任务没有模拟执行脚本: " + taskId);
+        }
+        return new FileSystemResource(file);
+    }
+
+    private Path dryRunScriptPath(String taskId) {
+        return Paths.get(basePath, diffsPath, "data", taskId + DRY_RUN_SCRIPT_SUFFIX);
+    }
+
+    private DataCompareRequest buildCompareRequest(DataSyncRequest request, List<String> tableNames, List<String> targetConnectionIds) {
+        return DataCompareRequest.builder()
+                .sourceConnectionId(request.getSourceConnectionId())
+                .targetConnectionId(request.getTargetConnectionId())
+                .targetConnectionIds(targetConnectionIds)
+                .tableNames(tableNames)
+                .options(DataCompareRequest.CompareOptions.builder()
+                        .compareContent(true)
+                        .batchSize(request.getOptions().getBatchSize())
+                        .ignoreCase(false)
+                        .ignoreTrimSpace(false)
+                        .maxRows(null)
+                        .build())
+                .build();
+    }
+
+    private TableDependencyGraph loadDependencyGraph(DataSource targetDataSource, Set<String> tables) {
+        try (Connection connection = targetDataSource.getConnection()) {
+            return TableDependencyGraph.load(connection, tables);
+        } catch (SQLException ex) {
+            log.warn("读取外键依赖失败 按请求顺序同步 {}", ex.getMessage());
+            return new TableDependencyGraph(tables);
+        }
+    }
+
+    private WriteThrottle createWriteThrottle(
+            DataSource targetDataSource,
+            DataSyncRequest.SyncOptions options,
+            Consumer<String> pauseListener) {
+
+        WriteThrottle.LagGuard lagGuard = StringUtils.isNotBlank(options.getLagQuery())
+                ? new WriteThrottle.LagGuard(
+                        targetDataSource,
+                        options.getLagQuery(),
+                        options.getMaxReplicationLagSeconds() != null ? options.getMaxReplicationLagSeconds() : DEFAULT_MAX_REPLICATION_LAG_SECONDS,
+                        options.getLagCheckIntervalMs() != null ? options.getLagCheckIntervalMs() : DEFAULT_LAG_CHECK_INTERVAL_MS)
+                : null;
+        return new WriteThrottle(options.getMaxRowsPerSecond(), options.getMaxBatchesPerSecond(), lagGuard, pauseListener);
+    }
+
+    private int resolveParallelism(DataSyncRequest.SyncOptions options) {
+        int requested = options.getMaxParallelTables() != null ? options.getMaxParallelTables() : DEFAULT_PARALLEL_TABLES;
+        return Math.min(MAX_PARALLEL_TABLES, Math.max(1, requested));
+    }
+
+    private void runPhase(
+            ExecutorService executor,
+            List<List<String>> levels,
+            Set<SyncAction> phaseActions,
+            TableSyncContext context) throws InterruptedException, ExecutionException {
+
+        for (List<String> level : levels) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (String tableName : level) {
+                futures.add(executor.submit(() -> syncTablePhase(tableName, phaseActions, context)));
+            }
+            // 同层全部完成后才进入下一层
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private void syncTablePhase(String tableName, Set<SyncAction> phaseActions, TableSyncContext context) {
+        long tableStart = System.currentTimeMillis();
+        DataSyncResponse.TableSyncResult phaseResult;
+        try {
+            phaseResult = processTableDiff(
+                    context.diffs().get(tableName),
+                    context.sourceConnection(),
+                    context.targetConnection(),
+                    context.sourceDialect(),
+                    context.dialect(),
+                    context.options(),
+                    context.dryRunScript(),
+                    phaseActions,
+                    context.checkpoints().get(tableName),
+                    context.throttle(),
+                    context.deferredTables().contains(tableName));
+        } catch (Exception ex) {
+            log.error("表{}同步失败 阶段{}", tableName, phaseActions, ex);
+            phaseResult = DataSyncResponse.TableSyncResult.builder()
+                    .tableName(tableName)
+                    .status("FAILED")
+                    .errorMessage(ex.getMessage())
+                    .build();
+        }
+        phaseResult.setExecutionTime(System.currentTimeMillis() - tableStart);
+        context.results().merge(tableName, phaseResult, this::mergeTableResults);
+
+        int finished = context.finishedSteps().incrementAndGet();
+        String message = String.format("表%s同步完成 %s", tableName, phaseActions);
+        if (context.throttle().isEnabled()) {
+            message += " " + context.throttle().summary();
+        }
+        reportProgress(context.taskId(), phaseProgress(finished, context.totalSteps()), message);
+    }
+
+    private int phaseProgress(int finishedSteps, int totalSteps) {
+        return Math.min(95, 5 + (int) Math.round(finishedSteps * 90.0 / Math.max(totalSteps, 1)));
+    }
+
+    private synchronized void reportProgress(String taskId, int progress, String message) {
+        taskService.updateTaskProgress(taskId, progress, message);
+    }
+
+    private DataSyncResponse.TableSyncResult mergeTableResults(
+            DataSyncResponse.TableSyncResult first,
+            DataSyncResponse.TableSyncResult second) {
+
+        String status;
+        if ("FAILED".equals(first.getStatus()) || "FAILED".equals(second.getStatus())) {
+            status = "FAILED";
+        } else if ("SUCCESS".equals(first.getStatus()) || "SUCCESS".equals(second.getStatus())) {
+            status = "SUCCESS";
+        } else {
+            status = first.getStatus();
+        }
+
+        String errorMessage = Stream.of(first.getErrorMessage(), second.getErrorMessage())
+                .filter(StringUtils::isNotBlank)
+                .distinct()
+                .collect(Collectors.joining("; "));
+
+        return DataSyncResponse.TableSyncResult.builder()
+                .tableName(first.getTableName())
+                .status(status)
+                .errorMessage(StringUtils.defaultIfBlank(errorMessage, null))
+                .insertedRows(sumNullable(first.getInsertedRows(), second.getInsertedRows()))
+                .updatedRows(sumNullable(first.getUpdatedRows(), second.getUpdatedRows()))
+                .deletedRows(sumNullable(first.getDeletedRows(), second.getDeletedRows()))
+                .executionTime(sumNullable(first.getExecutionTime(), second.getExecutionTime()))
+                .batchSizes(Stream.of(first.getBatchSizes(), second.getBatchSizes())
+                        .filter(Objects::nonNull)
+                        .flatMap(List::stream)
+                        .collect(Collectors.toList()))
+                .rowsPerSecond(ObjectUtils.firstNonNull(first.getRowsPerSecond(), second.getRowsPerSecond()))
+                .rejectedCount(sumNullable(first.getRejectedCount(), second.getRejectedCount()))
+                .rejectedRows(Stream.of(first.getRejectedRows(), second.getRejectedRows())
+                        .filter(Objects::nonNull)
+                        .flatMap(List::stream)
+                        .collect(Collectors.toList()))
+                .verifiedRows(sumNullable(first.getVerifiedRows(), second.getVerifiedRows()))
+                .mismatchedRows(sumNullable(first.getMismatchedRows(), second.getMismatchedRows()))
+                .mismatchedKeys(Stream.of(first.getMismatchedKeys(), second.getMismatchedKeys())
+                        .filter(Objects::nonNull)
+                        .flatMap(List::stream)
+                        .collect(Collectors.toList()))
+                .verificationMessage(StringUtils.defaultIfBlank(Stream.of(first.getVerificationMessage(), second.getVerificationMessage())
+                        .filter(StringUtils::isNotBlank)
+                        .distinct()
+                        .collect(Collectors.joining("; ")), null))
+                .build();
+    }
+
+    private Long sumNullable(Long first, Long second) {
+        if (first == null && second == null) {
+            return null;
+        }
+        return (first != null ? first : 0L) + (second != null ? second : 0L);
+    }
+
     private DataSyncResponse.TableSyncResult processTableDiff(
             TableDataDiff tableDiff,
-            DataSource sourceDataSource,
-            DataSource targetDataSource,
+            ConnectionDto sourceConnection,
+            ConnectionDto targetConnection,
+            DatabaseDialect sourceDialect,
             DatabaseDialect targetDialect,
             DataSyncRequest.SyncOptions options,
-            List<String> generatedSqls) throws Exception {
+            DryRunScriptWriter dryRunScript,
+            Set<SyncAction> phaseActions,
+            SyncCheckpointService.TableCheckpoint checkpoint,
+            WriteThrottle throttle,
+            boolean deferConstraints) throws Exception {
 
         String tableName = tableDiff.getTableName();
         if (!StringUtils.equalsIgnoreCase("SUCCESS", tableDiff.getStatus())) {
@@ -212,8 +782,8 @@ public class DataSyncService {
                     .build();
         }
 
-        List<SyncOperation> actionableOperations = filterOperationsByOptions(operations, options);
-        if (actionableOperations.isEmpty()) {
+        List<SyncOperation> enabledOperations = filterOperationsByOptions(operations, options);
+        if (enabledOperations.isEmpty()) {
             log.info("表{}所有操作被策略禁用", tableName);
             return DataSyncResponse.TableSyncResult.builder()
                     .tableName(tableName)
@@ -225,8 +795,25 @@ public class DataSyncService {
                     .build();
         }
 
+        // 继续同步时差异是重新比对得到的，已提交的行不会再出现，中断后再次变化或被拒绝的行仍需写入，不能按旧检查点过滤
+        List<SyncOperation> actionableOperations = enabledOperations.stream()
+                .filter(operation -> phaseActions.contains(operation.action()))
+                .collect(Collectors.toList());
+        actionableOperations.sort(SyncOperation.EXECUTION_ORDER);
+        if (actionableOperations.isEmpty()) {
+            return DataSyncResponse.TableSyncResult.builder()
+                    .tableName(tableName)
+                    .status("SUCCESS")
+                    .insertedRows(0L)
+                    .updatedRows(0L)
+                    .deletedRows(0L)
+                    .build();
+        }
+
         // 解析目标表结构以保持列顺序和主键信息
-        TableSyncMetadata metadata = resolveTableMetadata(tableName, primaryKeys, targetDataSource, sourceDataSource);
+        TableSyncMetadata metadata = resolveTableMetadata(tableName, primaryKeys, targetConnection, sourceConnection, sourceDialect, targetDialect);
+        DataSource sourceDataSource = connectionManager.getDataSource(sourceConnection);
+        DataSource targetDataSource = connectionManager.getDataSource(targetConnection);
         boolean dryRun = Boolean.TRUE.equals(options.getDryRun());
 
         long insertedCount = actionableOperations.stream().filter(op -> op.action() == SyncAction.INSERT).count();
@@ -234,9 +821,14 @@ public class DataSyncService {
         long deletedCount = actionableOperations.stream().filter(op -> op.action() == SyncAction.DELETE).count();
 
         if (dryRun) {
-            actionableOperations.stream()
-                    .map(operation -> buildDryRunSql(tableName, metadata, targetDialect, operation))
-                    .forEach(generatedSqls::add);
+            // 逐条写入压缩脚本文件，复用同一个 StringBuilder
+            dryRunScript.beginTable(tableName + " " + phaseActions);
+            StringBuilder sql = new StringBuilder(256);
+            for (SyncOperation operation : actionableOperations) {
+                sql.setLength(0);
+                appendDryRunSql(sql, tableName, metadata, targetDialect, operation);
+                dryRunScript.write(tableName, sql);
+            }
 
             log.info("表{}模拟生成SQL 插入{} 更新{} 删除{}", tableName, insertedCount, updatedCount, deletedCount);
             return DataSyncResponse.TableSyncResult.builder()
@@ -248,23 +840,104 @@ public class DataSyncService {
                     .build();
         }
 
-        SyncExecutionResult executionResult = executeOperations(
-                tableName,
-                metadata,
-                actionableOperations,
-                targetDataSource,
-                options,
-                targetDialect);
+        long writeStart = System.nanoTime();
+        SyncExecutionResult executionResult = shouldUseStagingMerge(actionableOperations, options)
+                ? executeStagingMerge(tableName, metadata, actionableOperations, targetDataSource, options, targetDialect, checkpoint, throttle, deferConstraints)
+                : executeOperations(
+                        tableName,
+                        metadata,
+                        actionableOperations,
+                        targetDataSource,
+                        options,
+                        targetDialect,
+                        checkpoint,
+                        throttle,
+                        deferConstraints);
 
         log.info("表{}同步完成 插入{} 更新{} 删除{}", tableName, executionResult.inserted(), executionResult.updated(), executionResult.deleted());
 
-        return DataSyncResponse.TableSyncResult.builder()
+        Double rowsPerSecond = executionResult.rowsPerSecond() != null
+                ? executionResult.rowsPerSecond()
+                : actionableOperations.size() * 1_000_000_000.0 / Math.max(1L, System.nanoTime() - writeStart);
+
+        DataSyncResponse.TableSyncResult result = DataSyncResponse.TableSyncResult.builder()
                 .tableName(tableName)
                 .status("SUCCESS")
                 .insertedRows(executionResult.inserted())
                 .updatedRows(executionResult.updated())
                 .deletedRows(executionResult.deleted())
+                .batchSizes(executionResult.batchSizes())
+                .rowsPerSecond(rowsPerSecond)
+                .rejectedCount((long) executionResult.rejected().size())
+                .rejectedRows(toRejectedRows(executionResult.rejected()))
                 .build();
+
+        if (Boolean.TRUE.equals(options.getVerifyAfterSync())) {
+            verifyTable(result, tableName, metadata, actionableOperations, executionResult.rejected(),
+                    sourceConnection, sourceDataSource, targetDataSource, sourceDialect, targetDialect, options);
+        }
+        return result;
+    }
+
+    /**
+     * 回查本次写入的主键，比对两侧服务端行哈希；校验失败不影响同步结果
+     */
+    private void verifyTable(
+            DataSyncResponse.TableSyncResult result,
+            String tableName,
+            TableSyncMetadata metadata,
+            List<SyncOperation> operations,
+            List<RejectedOperation> rejected,
+            ConnectionDto sourceConnection,
+            DataSource sourceDataSource,
+            DataSource targetDataSource,
+            DatabaseDialect sourceDialect,
+            DatabaseDialect targetDialect,
+            DataSyncRequest.SyncOptions options) {
+
+        if (sourceDialect != targetDialect) {
+            result.setVerificationMessage("源库与目标库类型不同，无法使用服务端哈希校验");
+            return;
+        }
+
+        Set<SyncOperation> rejectedOperations = Collections.newSetFromMap(new IdentityHashMap<>());
+        rejected.forEach(rejection -> rejectedOperations.add(rejection.operation()));
+        List<SyncOperation> written = operations.stream()
+                .filter(operation -> !rejectedOperations.contains(operation))
+                .collect(Collectors.toList());
+
+        try {
+            // 只对两侧都存在的列计算哈希
+            Set<String> sourceColumns = loadColumns(sourceConnection, tableName).stream()
+                    .map(ColumnMetadata::name)
+                    .collect(Collectors.toSet());
+            List<String> hashColumns = sourceColumns.isEmpty()
+                    ? metadata.columns()
+                    : metadata.columns().stream().filter(sourceColumns::contains).collect(Collectors.toList());
+
+            int batchSize = options.getVerifyBatchSize() != null ? options.getVerifyBatchSize() : DEFAULT_VERIFY_BATCH_SIZE;
+            SyncVerifier.Result verification = new SyncVerifier(
+                    targetDialect, tableName, hashColumns, metadata.primaryKeys(), metadata.binders(), batchSize)
+                    .verify(sourceDataSource, targetDataSource, written);
+
+            result.setVerifiedRows(verification.verified());
+            result.setMismatchedRows(verification.mismatched());
+            result.setMismatchedKeys(verification.mismatchSamples());
+        } catch (SQLException ex) {
+            log.warn("表{}同步校验失败 {}", tableName, ex.getMessage());
+            result.setVerificationMessage("校验失败: " + ex.getMessage());
+        }
+    }
+
+    private List<DataSyncResponse.RejectedRow> toRejectedRows(List<RejectedOperation> rejected) {
+        return rejected.stream()
+                .map(rejection -> DataSyncResponse.RejectedRow.builder()
+                        .action(rejection.operation().action().name())
+                        .primaryKey(rejection.operation().primaryKeyValues())
+                        .sqlState(rejection.error().getSQLState())
+                        .errorMessage(rejection.error().getMessage())
+                        .build())
+                .collect(Collectors.toList());
     }
 
     private List<SyncOperation> buildOperations(TableDataDiff tableDiff, List<String> primaryKeys) {
@@ -309,7 +982,10 @@ public class DataSyncService {
         if (StringUtils.isBlank(json)) {
             return null;
         }
-        return objectMapper.readValue(json, ROW_TYPE);
+        // 小数按 BigDecimal 读取，避免 DECIMAL 列经 double 丢失精度
+        return objectMapper.readerFor(ROW_TYPE)
+                .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .readValue(json);
     }
 
     private Map<String, Object> wrapRow(Map<String, Object> row) {
@@ -342,63 +1018,56 @@ public class DataSyncService {
     private TableSyncMetadata resolveTableMetadata(
             String tableName,
             List<String> primaryKeys,
-            DataSource primaryDataSource,
-            DataSource fallbackDataSource) throws SQLException {
+            ConnectionDto primaryConnection,
+            ConnectionDto fallbackConnection,
+            DatabaseDialect sourceDialect,
+            DatabaseDialect targetDialect) throws SQLException {
 
-        List<String> columns = resolveTableColumns(primaryDataSource, fallbackDataSource, tableName);
-        if (CollectionUtils.isEmpty(columns)) {
+        List<ColumnMetadata> columnMetadata = resolveTableColumns(primaryConnection, fallbackConnection, tableName);
+        if (CollectionUtils.isEmpty(columnMetadata)) {
             throw new IllegalStateException("无法读取表" + tableName + "的列信息");
         }
 
+        Map<String, ColumnMetadata> columnDefinitions = new LinkedHashMap<>();
+        columnMetadata.forEach(column -> columnDefinitions.put(column.name(), column));
+        List<String> columns = new ArrayList<>(columnDefinitions.keySet());
+
         Set<String> primaryKeySet = new LinkedHashSet<>(primaryKeys);
         List<String> nonPrimaryColumns = columns.stream()
                 .filter(column -> !primaryKeySet.contains(column))
                 .collect(Collectors.toList());
 
-        return new TableSyncMetadata(columns, nonPrimaryColumns, new ArrayList<>(primaryKeys));
+        // 跨方言时按源列和目标列类型组合取值转换，再按目标列类型预先选定参数绑定方式
+        ConversionPlan conversions = ConversionPlan.build(
+                sourceDialect,
+                loadColumns(fallbackConnection, tableName),
+                targetDialect,
+                columnDefinitions.values());
+        if (!conversions.steps().isEmpty()) {
+            log.info("表{}跨方言取值转换 {}", tableName, conversions.steps());
+        }
+        return new TableSyncMetadata(
+                columns,
+                nonPrimaryColumns,
+                new ArrayList<>(primaryKeys),
+                columnDefinitions,
+                new BinderPlan(columnDefinitions.values(), conversions));
     }
 
-    private List<String> resolveTableColumns(DataSource primaryDataSource, DataSource fallbackDataSource, String tableName) throws SQLException {
-        List<String> columns = loadColumns(primaryDataSource, tableName);
-        if (CollectionUtils.isEmpty(columns) && fallbackDataSource != null) {
-            columns = loadColumns(fallbackDataSource, tableName);
+    private List<ColumnMetadata> resolveTableColumns(ConnectionDto primaryConnection, ConnectionDto fallbackConnection, String tableName) throws SQLException {
+        List<ColumnMetadata> columns = loadColumns(primaryConnection, tableName);
+        if (CollectionUtils.isEmpty(columns) && fallbackConnection != null) {
+            columns = loadColumns(fallbackConnection, tableName);
         }
         return columns;
     }
 
-    private List<String> loadColumns(DataSource dataSource, String tableName) throws SQLException {
-        if (dataSource == null) {
+    private List<ColumnMetadata> loadColumns(ConnectionDto connection, String tableName) throws SQLException {
+        if (connection == null) {
             return Collections.emptyList();
         }
 
-        try (Connection connection = dataSource.getConnection()) {
-            DatabaseMetaData metaData = connection.getMetaData();
-            String catalog = connection.getCatalog();
-            String schema = connection.getSchema();
-
-            for (String candidate : buildCandidateTableNames(tableName)) {
-                List<String> columns = new ArrayList<>();
-                try (ResultSet rs = metaData.getColumns(catalog, schema, candidate, null)) {
-                    while (rs.next()) {
-                        columns.add(rs.getString("COLUMN_NAME"));
-                    }
-                }
-                if (CollectionUtils.isNotEmpty(columns)) {
-                    return columns;
-                }
-            }
-        }
-
-        return Collections.emptyList();
-    }
-
-    private List<String> buildCandidateTableNames(String tableName) {
-        return Stream.of(
-                        tableName,
-                        StringUtils.upperCase(tableName, Locale.ROOT),
-                        StringUtils.lowerCase(tableName, Locale.ROOT))
-                .distinct()
-                .collect(Collectors.toList());
+        return metadataCatalogCache.columns(connection, tableName);
     }
 
     private SyncExecutionResult executeOperations(
@@ -407,66 +1076,285 @@ public class DataSyncService {
             List<SyncOperation> operations,
             DataSource targetDataSource,
             DataSyncRequest.SyncOptions options,
-            DatabaseDialect dialect) throws SQLException {
+            DatabaseDialect dialect,
+            SyncCheckpointService.TableCheckpoint checkpoint,
+            WriteThrottle throttle,
+            boolean deferConstraints) throws SQLException, InterruptedException {
 
         int batchSize = Math.max(MIN_BATCH_SIZE, options.getBatchSize() != null ? options.getBatchSize() : DEFAULT_BATCH_SIZE);
+        AdaptiveBatchSizer batchSizer = createBatchSizer(batchSize, options);
         Map<SyncAction, Long> counters = new EnumMap<>(SyncAction.class);
-
-        // 使用批量PreparedStatement执行同步操作
+        boolean useTransaction = Boolean.TRUE.equals(options.getUseTransaction());
+        // 每 N 个批次提交并记录检查点；未开启事务时每个批次都已自动提交，默认每批记录一次
+        int commitInterval = options.getCommitInterval() != null ? Math.max(0, options.getCommitInterval()) : 0;
+        int checkpointInterval = commitInterval > 0 ? commitInterval : (useTransaction ? 0 : 1);
+
+        // 删除量达到阈值时改用集合式批量删除
+        List<SyncOperation> bulkDeletes = shouldBulkDelete(operations, options)
+                ? operations.stream().filter(op -> op.action() == SyncAction.DELETE).collect(Collectors.toList())
+                : Collections.emptyList();
+        List<SyncOperation> rowOperations = bulkDeletes.isEmpty()
+                ? operations
+                : operations.stream().filter(op -> op.action() != SyncAction.DELETE).collect(Collectors.toList());
+
+        // 使用批量PreparedStatement执行同步操作；非事务模式下每个批次独立提交，便于失败时整批回滚重试
         try (Connection connection = targetDataSource.getConnection()) {
-            boolean useTransaction = Boolean.TRUE.equals(options.getUseTransaction());
-            if (useTransaction) {
-                connection.setAutoCommit(false);
-            }
+            connection.setAutoCommit(false);
 
             Map<SyncAction, PreparedStatement> statements = prepareStatements(connection, tableName, metadata, options, dialect);
+            // UPDATE 按实际变化的列分组，每种列组合复用一个 PreparedStatement
+            UpdateStatementCache updateStatements = Boolean.TRUE.equals(options.getExecuteUpdate())
+                    && CollectionUtils.isNotEmpty(metadata.nonPrimaryColumns())
+                    ? new UpdateStatementCache(connection, columns -> buildUpdatePreparedSql(tableName, columns, metadata, dialect), UPDATE_STATEMENT_CACHE_SIZE)
+                    : null;
+            RetryingBatchExecutor batchExecutor = new RetryingBatchExecutor(
+                    connection,
+                    dialect,
+                    useTransaction,
+                    options.getMaxRetries() != null ? options.getMaxRetries() : DEFAULT_MAX_RETRIES,
+                    options.getRetryBackoffMs() != null ? options.getRetryBackoffMs() : DEFAULT_RETRY_BACKOFF_MS,
+                    options.getMaxRejectedRows() != null ? options.getMaxRejectedRows() : DEFAULT_MAX_REJECTED_ROWS);
+            RetryingBatchExecutor.BatchWriter writer = batch -> writeBatch(batch, metadata, statements, updateStatements);
+            // 约束检查在归还连接前恢复，恢复失败时守卫会把连接逐出连接池
+            ConstraintCheckGuard constraintGuard = deferConstraints
+                    ? ConstraintCheckGuard.disable(targetDataSource, connection, dialect)
+                    : ConstraintCheckGuard.none();
 
             try {
-                int pending = 0;
-                for (SyncOperation operation : operations) {
-                    PreparedStatement statement = statements.get(operation.action());
-                    if (statement == null) {
+                int flushedBatches = 0;
+                List<SyncOperation> batch = new ArrayList<>();
+                Set<SyncAction> uncommittedActions = EnumSet.noneOf(SyncAction.class);
+                for (SyncOperation operation : rowOperations) {
+                    boolean writable = operation.action() == SyncAction.UPDATE
+                            ? updateStatements != null
+                            : statements.get(operation.action()) != null;
+                    if (!writable) {
                         continue;
                     }
 
-                    bindStatement(statement, metadata, operation);
-                    statement.addBatch();
-                    counters.merge(operation.action(), 1L, Long::sum);
-                    pending++;
+                    batch.add(operation);
+                    if (batch.size() >= batchSizer.current()) {
+                        executeBatch(batch, batchExecutor, writer, batchSizer, throttle, counters, uncommittedActions);
+                        batch.clear();
+                        flushedBatches++;
 
-                    if (pending >= batchSize) {
-                        flushBatches(statements);
-                        pending = 0;
+                        if (checkpointInterval > 0 && flushedBatches % checkpointInterval == 0) {
+                            commitChunk(connection, checkpoint, uncommittedActions, counters);
+                        }
                     }
                 }
 
-                if (pending > 0) {
-                    flushBatches(statements);
+                if (!batch.isEmpty()) {
+                    executeBatch(batch, batchExecutor, writer, batchSizer, throttle, counters, uncommittedActions);
                 }
 
-                if (useTransaction) {
-                    connection.commit();
+                if (!bulkDeletes.isEmpty()) {
+                    throttle.acquire(bulkDeletes.size());
+                    long deleted = new BulkDeleteExecutor(connection, dialect, tableName, metadata.primaryKeyColumns(), batchSize)
+                            .execute(bulkDeletes);
+                    // 目标端已不存在的行不计入删除数
+                    counters.merge(SyncAction.DELETE, deleted, Long::sum);
+                    uncommittedActions.add(SyncAction.DELETE);
+                }
+
+                commitChunk(connection, checkpoint, uncommittedActions, counters);
+
+                if (batchSizer.history().size() > 1) {
+                    log.info("表{}批次大小自适应调整 {} 吞吐{}行/秒", tableName, batchSizer.history(), batchSizer.rowsPerSecond());
+                }
+                if (!batchExecutor.rejected().isEmpty()) {
+                    log.warn("表{}有{}行重试后仍失败 已跳过", tableName, batchExecutor.rejected().size());
                 }
 
                 return new SyncExecutionResult(
                         counters.getOrDefault(SyncAction.INSERT, 0L),
                         counters.getOrDefault(SyncAction.UPDATE, 0L),
-                        counters.getOrDefault(SyncAction.DELETE, 0L));
+                        counters.getOrDefault(SyncAction.DELETE, 0L),
+                        batchSizer.history(),
+                        bulkDeletes.isEmpty() ? batchSizer.rowsPerSecond() : null,
+                        batchExecutor.rejected());
 
-            } catch (SQLException ex) {
-                if (useTransaction) {
-                    connection.rollback();
-                }
+            } catch (SQLException | InterruptedException ex) {
+                connection.rollback();
                 throw ex;
             } finally {
+                constraintGuard.close();
                 closeStatements(statements);
-                if (useTransaction) {
-                    connection.setAutoCommit(true);
+                if (updateStatements != null) {
+                    updateStatements.close();
+                }
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void executeBatch(
+            List<SyncOperation> batch,
+            RetryingBatchExecutor batchExecutor,
+            RetryingBatchExecutor.BatchWriter writer,
+            AdaptiveBatchSizer batchSizer,
+            WriteThrottle throttle,
+            Map<SyncAction, Long> counters,
+            Set<SyncAction> uncommittedActions) throws SQLException, InterruptedException {
+
+        throttle.acquire(batch.size());
+        long flushStart = System.nanoTime();
+        List<RejectedOperation> rejected = batchExecutor.execute(batch, writer);
+        batchSizer.record(batch.size(), System.nanoTime() - flushStart);
+
+        Set<SyncOperation> rejectedOperations = Collections.newSetFromMap(new IdentityHashMap<>());
+        rejected.forEach(rejection -> rejectedOperations.add(rejection.operation()));
+        for (SyncOperation operation : batch) {
+            // 被拒绝的行没有写入，不计入已提交行数
+            if (!rejectedOperations.contains(operation)) {
+                counters.merge(operation.action(), 1L, Long::sum);
+                uncommittedActions.add(operation.action());
+            }
+        }
+    }
+
+    private void writeBatch(
+            List<SyncOperation> batch,
+            TableSyncMetadata metadata,
+            Map<SyncAction, PreparedStatement> statements,
+            UpdateStatementCache updateStatements) throws SQLException {
+
+        try {
+            for (SyncOperation operation : batch) {
+                PreparedStatement statement;
+                if (operation.action() == SyncAction.UPDATE) {
+                    List<String> changedColumns = operation.changedColumns(metadata.nonPrimaryColumns());
+                    statement = updateStatements.get(changedColumns);
+                    bindUpdate(statement, metadata.binders(), changedColumns, metadata.primaryKeys(), operation);
+                } else {
+                    statement = statements.get(operation.action());
+                    bindStatement(statement, metadata, operation);
                 }
+                statement.addBatch();
+            }
+            flushBatches(statements, updateStatements);
+        } catch (SQLException ex) {
+            // 丢弃未执行的批次，避免重试时重复写入
+            for (PreparedStatement statement : statements.values()) {
+                if (statement != null) {
+                    statement.clearBatch();
+                }
+            }
+            if (updateStatements != null) {
+                updateStatements.clear();
             }
+            throw ex;
         }
     }
 
+    private AdaptiveBatchSizer createBatchSizer(int batchSize, DataSyncRequest.SyncOptions options) {
+        if (!Boolean.TRUE.equals(options.getAdaptiveBatchSize())) {
+            return AdaptiveBatchSizer.fixed(batchSize);
+        }
+        return AdaptiveBatchSizer.adaptive(
+                batchSize,
+                options.getMinBatchSize() != null ? options.getMinBatchSize() : MIN_BATCH_SIZE,
+                options.getMaxBatchSize() != null ? options.getMaxBatchSize() : batchSize,
+                options.getTargetBatchLatencyMs() != null ? options.getTargetBatchLatencyMs() : DEFAULT_TARGET_BATCH_LATENCY_MS);
+    }
+
+    private void commitChunk(
+            Connection connection,
+            SyncCheckpointService.TableCheckpoint checkpoint,
+            Set<SyncAction> uncommittedActions,
+            Map<SyncAction, Long> counters) throws SQLException {
+
+        connection.commit();
+        if (!uncommittedActions.isEmpty()) {
+            Map<SyncAction, Long> rows = new EnumMap<>(SyncAction.class);
+            uncommittedActions.forEach(action -> rows.put(action, counters.getOrDefault(action, 0L)));
+            checkpoint.committed(rows);
+            uncommittedActions.clear();
+        }
+    }
+
+    private Map<SyncAction, Long> toCounters(SyncExecutionResult result) {
+        Map<SyncAction, Long> counters = new EnumMap<>(SyncAction.class);
+        counters.put(SyncAction.INSERT, result.inserted());
+        counters.put(SyncAction.UPDATE, result.updated());
+        counters.put(SyncAction.DELETE, result.deleted());
+        return counters;
+    }
+
+    private long affectedRows(DataSyncResponse.TableSyncResult result) {
+        return (result.getInsertedRows() != null ? result.getInsertedRows() : 0L)
+                + (result.getUpdatedRows() != null ? result.getUpdatedRows() : 0L)
+                + (result.getDeletedRows() != null ? result.getDeletedRows() : 0L);
+    }
+
+    private String writePayload(DataSyncRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (IOException ex) {
+            log.warn("序列化同步请求失败 任务将无法继续执行", ex);
+            return null;
+        }
+    }
+
+    private boolean shouldUseStagingMerge(List<SyncOperation> operations, DataSyncRequest.SyncOptions options) {
+        int threshold = options.getStagingMergeThreshold() != null ? options.getStagingMergeThreshold() : DEFAULT_STAGING_MERGE_THRESHOLD;
+        return threshold > 0 && operations.size() >= threshold;
+    }
+
+    private SyncExecutionResult executeStagingMerge(
+            String tableName,
+            TableSyncMetadata metadata,
+            List<SyncOperation> operations,
+            DataSource targetDataSource,
+            DataSyncRequest.SyncOptions options,
+            DatabaseDialect dialect,
+            SyncCheckpointService.TableCheckpoint checkpoint,
+            WriteThrottle throttle,
+            boolean deferConstraints) throws SQLException, InterruptedException {
+
+        int batchSize = Math.max(MIN_BATCH_SIZE, options.getBatchSize() != null ? options.getBatchSize() : DEFAULT_BATCH_SIZE);
+        List<SyncOperation> upserts = operations.stream()
+                .filter(op -> op.action() != SyncAction.DELETE)
+                .collect(Collectors.toList());
+        List<SyncOperation> deletes = operations.stream()
+                .filter(op -> op.action() == SyncAction.DELETE)
+                .collect(Collectors.toList());
+
+        log.info("表{}使用暂存表合并模式 写入{} 删除{}", tableName, upserts.size(), deletes.size());
+        // 集合式合并无法按批次拆分，整体计入配额，由后续写入偿还
+        throttle.acquire(operations.size());
+        try (Connection connection = targetDataSource.getConnection()) {
+            ConstraintCheckGuard constraintGuard = deferConstraints
+                    ? ConstraintCheckGuard.disable(targetDataSource, connection, dialect)
+                    : ConstraintCheckGuard.none();
+            try {
+                SyncExecutionResult result = new StagingMergeExecutor(
+                        connection,
+                        dialect,
+                        tableName,
+                        metadata.columns(),
+                        metadata.nonPrimaryColumns(),
+                        metadata.primaryKeyColumns(),
+                        metadata.binders(),
+                        batchSize)
+                        .execute(upserts, deletes, Boolean.TRUE.equals(options.getUseTransaction()));
+                checkpoint.committed(toCounters(result));
+                return result;
+            } finally {
+                constraintGuard.close();
+            }
+        }
+    }
+
+    private boolean shouldBulkDelete(List<SyncOperation> operations, DataSyncRequest.SyncOptions options) {
+        int threshold = options.getBulkDeleteThreshold() != null ? options.getBulkDeleteThreshold() : DEFAULT_BULK_DELETE_THRESHOLD;
+        if (threshold <= 0 || !Boolean.TRUE.equals(options.getExecuteDelete())) {
+            return false;
+        }
+        long deletes = operations.stream().filter(op -> op.action() == SyncAction.DELETE).count();
+        return deletes >= threshold;
+    }
+
     private Map<SyncAction, PreparedStatement> prepareStatements(
             Connection connection,
             String tableName,
@@ -481,11 +1369,6 @@ public class DataSyncService {
             statements.put(SyncAction.INSERT, connection.prepareStatement(sql));
         }
 
-        if (Boolean.TRUE.equals(options.getExecuteUpdate()) && CollectionUtils.isNotEmpty(metadata.nonPrimaryColumns())) {
-            String sql = buildUpdatePreparedSql(tableName, metadata, dialect);
-            statements.put(SyncAction.UPDATE, connection.prepareStatement(sql));
-        }
-
         if (Boolean.TRUE.equals(options.getExecuteDelete())) {
             String sql = buildDeletePreparedSql(tableName, metadata, dialect);
             statements.put(SyncAction.DELETE, connection.prepareStatement(sql));
@@ -496,44 +1379,35 @@ public class DataSyncService {
 
     private void bindStatement(PreparedStatement statement, TableSyncMetadata metadata, SyncOperation operation) throws SQLException {
         switch (operation.action()) {
-            case INSERT -> bindInsert(statement, metadata.columns(), operation);
-            case UPDATE -> bindUpdate(statement, metadata, operation);
-            case DELETE -> bindDelete(statement, metadata.primaryKeys(), operation);
+            case INSERT -> bindInsert(statement, metadata.binders(), metadata.columns(), operation);
+            case UPDATE -> bindUpdate(statement, metadata.binders(), operation.changedColumns(metadata.nonPrimaryColumns()), metadata.primaryKeys(), operation);
+            case DELETE -> bindDelete(statement, metadata.binders(), metadata.primaryKeys(), operation);
         }
     }
 
-    private void bindInsert(PreparedStatement statement, List<String> columns, SyncOperation operation) throws SQLException {
-        Map<String, Object> row = operation.rowForWrite();
-        for (int i = 0; i < columns.size(); i++) {
-            statement.setObject(i + 1, row.get(columns.get(i)));
-        }
+    private void bindInsert(PreparedStatement statement, BinderPlan binders, List<String> columns, SyncOperation operation) throws SQLException {
+        binders.bind(statement, 1, columns, operation.rowForWrite());
     }
 
-    private void bindUpdate(PreparedStatement statement, TableSyncMetadata metadata, SyncOperation operation) throws SQLException {
-        Map<String, Object> row = operation.rowForWrite();
-        int index = 1;
-        for (String column : metadata.nonPrimaryColumns()) {
-            statement.setObject(index++, row.get(column));
-        }
-        for (String pk : metadata.primaryKeys()) {
-            statement.setObject(index++, operation.primaryKeyValues().get(pk));
-        }
+    private void bindUpdate(PreparedStatement statement, BinderPlan binders, List<String> setColumns, List<String> primaryKeys, SyncOperation operation) throws SQLException {
+        int index = binders.bind(statement, 1, setColumns, operation.rowForWrite());
+        binders.bind(statement, index, primaryKeys, operation.primaryKeyValues());
     }
 
-    private void bindDelete(PreparedStatement statement, List<String> primaryKeys, SyncOperation operation) throws SQLException {
-        int index = 1;
-        for (String pk : primaryKeys) {
-            statement.setObject(index++, operation.primaryKeyValues().get(pk));
-        }
+    private void bindDelete(PreparedStatement statement, BinderPlan binders, List<String> primaryKeys, SyncOperation operation) throws SQLException {
+        binders.bind(statement, 1, primaryKeys, operation.primaryKeyValues());
     }
 
-    private void flushBatches(Map<SyncAction, PreparedStatement> statements) throws SQLException {
+    private void flushBatches(Map<SyncAction, PreparedStatement> statements, UpdateStatementCache updateStatements) throws SQLException {
         for (PreparedStatement statement : statements.values()) {
             if (statement != null) {
                 statement.executeBatch();
                 statement.clearBatch();
             }
         }
+        if (updateStatements != null) {
+            updateStatements.flush();
+        }
     }
 
     private void closeStatements(Map<SyncAction, PreparedStatement> statements) {
@@ -548,44 +1422,58 @@ public class DataSyncService {
         });
     }
 
-    private String buildDryRunSql(String tableName, TableSyncMetadata metadata, DatabaseDialect dialect, SyncOperation operation) {
-        return switch (operation.action()) {
-            case INSERT -> buildDryRunInsert(tableName, metadata, dialect, operation);
-            case UPDATE -> buildDryRunUpdate(tableName, metadata, dialect, operation);
-            case DELETE -> buildDryRunDelete(tableName, metadata, dialect, operation);
-        };
+    private void appendDryRunSql(StringBuilder sql, String tableName, TableSyncMetadata metadata, DatabaseDialect dialect, SyncOperation operation) {
+        switch (operation.action()) {
+            case INSERT -> appendDryRunInsert(sql, tableName, metadata, dialect, operation);
+            case UPDATE -> appendDryRunUpdate(sql, tableName, metadata, dialect, operation);
+            case DELETE -> appendDryRunDelete(sql, tableName, metadata, dialect, operation);
+        }
     }
 
-    private String buildDryRunInsert(String tableName, TableSyncMetadata metadata, DatabaseDialect dialect, SyncOperation operation) {
+    private void appendDryRunInsert(StringBuilder sql, String tableName, TableSyncMetadata metadata, DatabaseDialect dialect, SyncOperation operation) {
         Map<String, Object> row = operation.rowForWrite();
-        String columnPart = metadata.columns().stream()
-                .map(dialect::quote)
-                .collect(Collectors.joining(", "));
-        String valuePart = metadata.columns().stream()
-                .map(column -> formatLiteral(row.get(column)))
-                .collect(Collectors.joining(", "));
-        return "INSERT INTO " + dialect.table(tableName) + " (" + columnPart + ") VALUES (" + valuePart + ");";
+        sql.append("INSERT INTO ").append(dialect.table(tableName)).append(" (");
+        appendJoined(sql, metadata.columns(), ", ", column -> sql.append(dialect.quote(column)));
+        sql.append(") VALUES (");
+        appendJoined(sql, metadata.columns(), ", ", column -> appendLiteral(sql, row.get(column)));
+        sql.append(");");
     }
 
-    private String buildDryRunUpdate(String tableName, TableSyncMetadata metadata, DatabaseDialect dialect, SyncOperation operation) {
+    private void appendDryRunUpdate(StringBuilder sql, String tableName, TableSyncMetadata metadata, DatabaseDialect dialect, SyncOperation operation) {
         Map<String, Object> row = operation.rowForWrite();
         if (CollectionUtils.isEmpty(metadata.nonPrimaryColumns())) {
-            return "-- 表" + tableName + "无可更新列";
+            sql.append("-- 表").append(tableName).append("无可更新列");
+            return;
         }
-        String setPart = metadata.nonPrimaryColumns().stream()
-                .map(column -> dialect.quote(column) + " = " + formatLiteral(row.get(column)))
-                .collect(Collectors.joining(", "));
-        String wherePart = metadata.primaryKeys().stream()
-                .map(pk -> dialect.quote(pk) + " = " + formatLiteral(operation.primaryKeyValues().get(pk)))
-                .collect(Collectors.joining(" AND "));
-        return "UPDATE " + dialect.table(tableName) + " SET " + setPart + " WHERE " + wherePart + ";";
+        sql.append("UPDATE ").append(dialect.table(tableName)).append(" SET ");
+        appendJoined(sql, operation.changedColumns(metadata.nonPrimaryColumns()), ", ", column -> {
+            sql.append(dialect.quote(column)).append(" = ");
+            appendLiteral(sql, row.get(column));
+        });
+        appendDryRunWhere(sql, metadata, dialect, operation);
     }
 
-    private String buildDryRunDelete(String tableName, TableSyncMetadata metadata, DatabaseDialect dialect, SyncOperation operation) {
-        String wherePart = metadata.primaryKeys().stream()
-                .map(pk -> dialect.quote(pk) + " = " + formatLiteral(operation.primaryKeyValues().get(pk)))
-                .collect(Collectors.joining(" AND "));
-        return "DELETE FROM " + dialect.table(tableName) + " WHERE " + wherePart + ";";
+    private void appendDryRunDelete(StringBuilder sql, String tableName, TableSyncMetadata metadata, DatabaseDialect dialect, SyncOperation operation) {
+        sql.append("DELETE FROM ").append(dialect.table(tableName));
+        appendDryRunWhere(sql, metadata, dialect, operation);
+    }
+
+    private void appendDryRunWhere(StringBuilder sql, TableSyncMetadata metadata, DatabaseDialect dialect, SyncOperation operation) {
+        sql.append(" WHERE ");
+        appendJoined(sql, metadata.primaryKeys(), " AND ", pk -> {
+            sql.append(dialect.quote(pk)).append(" = ");
+            appendLiteral(sql, operation.primaryKeyValues().get(pk));
+        });
+        sql.append(';');
+    }
+
+    private void appendJoined(StringBuilder sql, List<String> items, String separator, Consumer<String> appender) {
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                sql.append(separator);
+            }
+            appender.accept(items.get(i));
+        }
     }
 
     private String buildInsertPreparedSql(String tableName, TableSyncMetadata metadata, DatabaseDialect dialect) {
@@ -598,11 +1486,11 @@ public class DataSyncService {
         return "INSERT INTO " + dialect.table(tableName) + " (" + columnPart + ") VALUES (" + placeholderPart + ")";
     }
 
-    private String buildUpdatePreparedSql(String tableName, TableSyncMetadata metadata, DatabaseDialect dialect) {
-        if (CollectionUtils.isEmpty(metadata.nonPrimaryColumns())) {
+    private String buildUpdatePreparedSql(String tableName, List<String> setColumns, TableSyncMetadata metadata, DatabaseDialect dialect) {
+        if (CollectionUtils.isEmpty(setColumns)) {
             throw new IllegalStateException("表" + tableName + "无可更新列");
         }
-        String setPart = metadata.nonPrimaryColumns().stream()
+        String setPart = setColumns.stream()
                 .map(column -> dialect.quote(column) + " = ?")
                 .collect(Collectors.joining(", "));
         String wherePart = metadata.primaryKeys().stream()
@@ -618,33 +1506,66 @@ public class DataSyncService {
         return "DELETE FROM " + dialect.table(tableName) + " WHERE " + wherePart;
     }
 
-    private String formatLiteral(Object value) {
+    private void appendLiteral(StringBuilder sql, Object value) {
         if (value == null) {
-            return "NULL";
+            sql.append("NULL");
+            return;
         }
         if (value instanceof Number || value instanceof Boolean) {
-            return value.toString();
-        }
-        if (value instanceof java.sql.Date || value instanceof java.sql.Time || value instanceof java.sql.Timestamp) {
-            return "'" + value + "'";
-        }
-        if (value instanceof TemporalAccessor) {
-            return "'" + value.toString() + "'";
+            sql.append(value);
+            return;
         }
         if (value instanceof byte[] bytes) {
-            return "X'" + HexFormat.of().formatHex(bytes) + "'";
+            sql.append("X'");
+            HexFormat.of().formatHex(sql, bytes);
+            sql.append('\'');
+            return;
+        }
+        // 日期时间与字符串一样按引号字面量输出，单引号转义
+        String text = value.toString();
+        sql.append('\'');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\'') {
+                sql.append('\'');
+            }
+            sql.append(c);
         }
-        String text = StringUtils.replace(value.toString(), "'", "''");
-        return "'" + text + "'";
+        sql.append('\'');
     }
 
     private <T> List<T> safeList(List<T> values) {
         return values != null ? values : Collections.emptyList();
     }
 
+    private record TableSyncContext(
+            String taskId,
+            ConnectionDto sourceConnection,
+            ConnectionDto targetConnection,
+            DatabaseDialect sourceDialect,
+            DatabaseDialect dialect,
+            DataSyncRequest.SyncOptions options,
+            DryRunScriptWriter dryRunScript,
+            Map<String, TableDataDiff> diffs,
+            Map<String, SyncCheckpointService.TableCheckpoint> checkpoints,
+            Map<String, DataSyncResponse.TableSyncResult> results,
+            AtomicInteger finishedSteps,
+            int totalSteps,
+            WriteThrottle throttle,
+            Set<String> deferredTables) {
+    }
+
     private record TableSyncMetadata(
             List<String> columns,
             List<String> nonPrimaryColumns,
-            List<String> primaryKeys) {
+            List<String> primaryKeys,
+            Map<String, ColumnMetadata> columnDefinitions,
+            BinderPlan binders) {
+
+        List<ColumnMetadata> primaryKeyColumns() {
+            return primaryKeys.stream()
+                    .map(pk -> columnDefinitions.getOrDefault(pk, new ColumnMetadata(pk, Types.OTHER, null)))
+                    .collect(Collectors.toList());
+        }
     }
 }
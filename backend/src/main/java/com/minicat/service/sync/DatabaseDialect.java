@@ -2,8 +2,20 @@ package com.minicat.service.sync;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 数据库方言定义
@@ -12,6 +24,15 @@ public enum DatabaseDialect {
     MYSQL("mysql", "`"),
     POSTGRESQL("postgresql", "\"");
 
+    private static final String CAPTURE_FUNCTION = "minicat_cdc_capture";
+    private static final String TRIGGER_PREFIX = "minicat_cdc_";
+
+    /**
+     * 触发器名（不含 _ins/_upd/_del 后缀）的最大字节数：PostgreSQL 标识符上限 63 字节，MySQL 为 64 个字符
+     */
+    private static final int MAX_TRIGGER_BASE_BYTES = 63 - "_ins".length();
+    private static final int TRIGGER_HASH_LENGTH = 8;
+
     private final String type;
     private final String quote;
 
@@ -38,4 +59,368 @@ public enum DatabaseDialect {
     public Locale locale() {
         return Locale.ROOT;
     }
+
+    /**
+     * 是否支持数组参数（= ANY(?)）
+     */
+    public boolean supportsArrayParameter() {
+        return this == POSTGRESQL;
+    }
+
+    /**
+     * 数组参数的元素类型名（PostgreSQL 的 serial 系列需映射为实际整数类型）
+     */
+    public String arrayElementType(String typeName) {
+        String normalized = StringUtils.lowerCase(typeName, Locale.ROOT);
+        return switch (StringUtils.defaultString(normalized)) {
+            case "serial" -> "int4";
+            case "bigserial" -> "int8";
+            case "smallserial" -> "int2";
+            case "" -> "text";
+            default -> normalized;
+        };
+    }
+
+    /**
+     * 创建与目标表指定列结构相同的会话级临时表
+     */
+    public String createTemporaryTableLike(String temporaryTable, String sourceTable, List<String> columns) {
+        String columnPart = columns.stream().map(this::quote).collect(Collectors.joining(", "));
+        return "CREATE TEMPORARY TABLE " + quote(temporaryTable)
+                + " AS SELECT " + columnPart + " FROM " + table(sourceTable) + " WHERE 1 = 0";
+    }
+
+    public String dropTemporaryTable(String temporaryTable) {
+        return switch (this) {
+            case MYSQL -> "DROP TEMPORARY TABLE IF EXISTS " + quote(temporaryTable);
+            case POSTGRESQL -> "DROP TABLE IF EXISTS " + quote(temporaryTable);
+        };
+    }
+
+    /**
+     * 按键表关联删除目标表中的行
+     */
+    public String deleteJoin(String tableName, String keyTable, List<String> keyColumns) {
+        String condition = keyColumns.stream()
+                .map(column -> "t." + quote(column) + " = k." + quote(column))
+                .collect(Collectors.joining(" AND "));
+        return switch (this) {
+            case MYSQL -> "DELETE t FROM " + table(tableName) + " t INNER JOIN " + quote(keyTable) + " k ON " + condition;
+            case POSTGRESQL -> "DELETE FROM " + table(tableName) + " t USING " + quote(keyTable) + " k WHERE " + condition;
+        };
+    }
+
+    /**
+     * 按暂存表关联更新目标表中已存在的行
+     */
+    public String updateFromStaging(String tableName, String stagingTable, List<String> setColumns, List<String> keyColumns) {
+        String condition = keyColumns.stream()
+                .map(column -> "t." + quote(column) + " = s." + quote(column))
+                .collect(Collectors.joining(" AND "));
+        return switch (this) {
+            case MYSQL -> "UPDATE " + table(tableName) + " t INNER JOIN " + quote(stagingTable) + " s ON " + condition
+                    + " SET " + setColumns.stream()
+                    .map(column -> "t." + quote(column) + " = s." + quote(column))
+                    .collect(Collectors.joining(", "));
+            case POSTGRESQL -> "UPDATE " + table(tableName) + " t SET " + setColumns.stream()
+                    .map(column -> quote(column) + " = s." + quote(column))
+                    .collect(Collectors.joining(", "))
+                    + " FROM " + quote(stagingTable) + " s WHERE " + condition;
+        };
+    }
+
+    /**
+     * 将暂存表中目标表不存在的键插入目标表（反连接）
+     */
+    public String insertFromStaging(String tableName, String stagingTable, List<String> columns, List<String> keyColumns) {
+        String columnPart = columns.stream().map(this::quote).collect(Collectors.joining(", "));
+        String selectPart = columns.stream().map(column -> "s." + quote(column)).collect(Collectors.joining(", "));
+        String condition = keyColumns.stream()
+                .map(column -> "t." + quote(column) + " = s." + quote(column))
+                .collect(Collectors.joining(" AND "));
+        return "INSERT INTO " + table(tableName) + " (" + columnPart + ") SELECT " + selectPart
+                + " FROM " + quote(stagingTable) + " s LEFT JOIN " + table(tableName) + " t ON " + condition
+                + " WHERE t." + quote(keyColumns.get(0)) + " IS NULL";
+    }
+
+    /**
+     * 临时表是否需要手动收集统计信息（PostgreSQL 的 autovacuum 不处理临时表）
+     */
+    public boolean requiresTemporaryTableAnalyze() {
+        return this == POSTGRESQL;
+    }
+
+    /**
+     * 查询表上的非唯一二级索引（不含主键和约束使用的索引），参数为表名
+     * MySQL 每列一行：索引名、列名、前缀长度、排序、索引类型；PostgreSQL 每个索引一行：索引名、完整定义
+     */
+    public String secondaryIndexQuery() {
+        return switch (this) {
+            case MYSQL -> "SELECT INDEX_NAME, COLUMN_NAME, SUB_PART, COLLATION, INDEX_TYPE FROM information_schema.STATISTICS"
+                    + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND NON_UNIQUE = 1 AND INDEX_NAME <> 'PRIMARY'"
+                    + " ORDER BY INDEX_NAME, SEQ_IN_INDEX";
+            case POSTGRESQL -> "SELECT i.relname, pg_get_indexdef(x.indexrelid) FROM pg_index x"
+                    + " JOIN pg_class i ON i.oid = x.indexrelid"
+                    + " JOIN pg_class t ON t.oid = x.indrelid"
+                    + " JOIN pg_namespace n ON n.oid = t.relnamespace"
+                    + " WHERE t.relname = ? AND n.nspname = current_schema()"
+                    + " AND NOT x.indisprimary AND NOT x.indisunique"
+                    + " AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conindid = x.indexrelid)"
+                    + " ORDER BY i.relname";
+        };
+    }
+
+    public String dropIndex(String tableName, String indexName) {
+        return switch (this) {
+            case MYSQL -> "DROP INDEX " + quote(indexName) + " ON " + table(tableName);
+            case POSTGRESQL -> "DROP INDEX " + quote(indexName);
+        };
+    }
+
+    /**
+     * 关闭当前会话的外键检查（PostgreSQL 以 replica 角色运行，同时跳过普通触发器，需要超级用户权限）
+     */
+    public String disableConstraintChecks() {
+        return switch (this) {
+            case MYSQL -> "SET FOREIGN_KEY_CHECKS = 0";
+            case POSTGRESQL -> "SET session_replication_role = replica";
+        };
+    }
+
+    public String enableConstraintChecks() {
+        return switch (this) {
+            case MYSQL -> "SET FOREIGN_KEY_CHECKS = 1";
+            case POSTGRESQL -> "SET session_replication_role = DEFAULT";
+        };
+    }
+
+    /**
+     * 行哈希表达式：各列转为文本（NULL 以固定标记代替）后以分隔符拼接再取 MD5
+     */
+    public String rowHashExpression(List<String> columns) {
+        String separator = "'|'";
+        String nullMarker = "'#NULL#'";
+        return switch (this) {
+            case MYSQL -> "MD5(CONCAT_WS(" + separator + ", " + columns.stream()
+                    .map(column -> "COALESCE(CAST(" + quote(column) + " AS CHAR), " + nullMarker + ")")
+                    .collect(Collectors.joining(", ")) + "))";
+            case POSTGRESQL -> "md5(concat_ws(" + separator + ", " + columns.stream()
+                    .map(column -> "COALESCE(" + quote(column) + "::text, " + nullMarker + ")")
+                    .collect(Collectors.joining(", ")) + "))";
+        };
+    }
+
+    /**
+     * 按主键存在与否插入或更新一行
+     */
+    public String upsert(String tableName, List<String> columns, List<String> keyColumns) {
+        String columnPart = columns.stream().map(this::quote).collect(Collectors.joining(", "));
+        String placeholders = columns.stream().map(column -> "?").collect(Collectors.joining(", "));
+        List<String> updateColumns = columns.stream()
+                .filter(column -> !keyColumns.contains(column))
+                .collect(Collectors.toList());
+        String insert = "INSERT INTO " + table(tableName) + " (" + columnPart + ") VALUES (" + placeholders + ")";
+        return switch (this) {
+            case MYSQL -> insert + " ON DUPLICATE KEY UPDATE " + (updateColumns.isEmpty()
+                    ? quote(keyColumns.get(0)) + " = " + quote(keyColumns.get(0))
+                    : updateColumns.stream()
+                    .map(column -> quote(column) + " = VALUES(" + quote(column) + ")")
+                    .collect(Collectors.joining(", ")));
+            case POSTGRESQL -> insert + " ON CONFLICT (" + keyColumns.stream().map(this::quote).collect(Collectors.joining(", "))
+                    + ") " + (updateColumns.isEmpty()
+                    ? "DO NOTHING"
+                    : "DO UPDATE SET " + updateColumns.stream()
+                    .map(column -> quote(column) + " = EXCLUDED." + quote(column))
+                    .collect(Collectors.joining(", ")));
+        };
+    }
+
+    /**
+     * 变更日志表：触发器写入变更行的主键 JSON 和操作类型（U 插入/更新，D 删除）
+     */
+    public List<String> changelogTableDdl(String changelogTable) {
+        return switch (this) {
+            case MYSQL -> List.of("CREATE TABLE IF NOT EXISTS " + quote(changelogTable) + " ("
+                    + quote("id") + " BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, "
+                    + quote("table_name") + " VARCHAR(255) NOT NULL, "
+                    + quote("pk_json") + " TEXT NOT NULL, "
+                    + quote("op") + " CHAR(1) NOT NULL, "
+                    + quote("changed_at") + " TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                    + "KEY " + quote("idx_" + changelogTable + "_table") + " (" + quote("table_name") + ", " + quote("id") + "))");
+            case POSTGRESQL -> List.of(
+                    "CREATE TABLE IF NOT EXISTS " + quote(changelogTable) + " ("
+                            + quote("id") + " BIGSERIAL PRIMARY KEY, "
+                            + quote("table_name") + " VARCHAR(255) NOT NULL, "
+                            + quote("pk_json") + " TEXT NOT NULL, "
+                            + quote("op") + " CHAR(1) NOT NULL, "
+                            + quote("changed_at") + " TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)",
+                    "CREATE INDEX IF NOT EXISTS " + quote("idx_" + changelogTable + "_table")
+                            + " ON " + quote(changelogTable) + " (" + quote("table_name") + ", " + quote("id") + ")");
+        };
+    }
+
+    /**
+     * 在表上安装变更捕获触发器；主键被修改时旧键记为删除、新键记为更新
+     */
+    public List<String> captureTriggerDdl(String changelogTable, String tableName, List<String> keyColumns) {
+        List<String> statements = new ArrayList<>(dropCaptureTriggerDdl(tableName));
+        switch (this) {
+            case MYSQL -> {
+                String logPrefix = "INSERT INTO " + quote(changelogTable) + " (" + quote("table_name") + ", "
+                        + quote("pk_json") + ", " + quote("op") + ") VALUES (" + literal(tableName) + ", ";
+                String keyChanged = keyColumns.stream()
+                        .map(column -> "NEW." + quote(column) + " <=> OLD." + quote(column))
+                        .collect(Collectors.joining(" AND "));
+                statements.add("CREATE TRIGGER " + quote(triggerName(tableName) + "_ins") + " AFTER INSERT ON " + table(tableName)
+                        + " FOR EACH ROW " + logPrefix + jsonKey("NEW", keyColumns) + ", 'U')");
+                statements.add("CREATE TRIGGER " + quote(triggerName(tableName) + "_upd") + " AFTER UPDATE ON " + table(tableName)
+                        + " FOR EACH ROW BEGIN"
+                        + " IF NOT (" + keyChanged + ") THEN " + logPrefix + jsonKey("OLD", keyColumns) + ", 'D'); END IF;"
+                        + " " + logPrefix + jsonKey("NEW", keyColumns) + ", 'U');"
+                        + " END");
+                statements.add("CREATE TRIGGER " + quote(triggerName(tableName) + "_del") + " AFTER DELETE ON " + table(tableName)
+                        + " FOR EACH ROW " + logPrefix + jsonKey("OLD", keyColumns) + ", 'D')");
+            }
+            case POSTGRESQL -> {
+                statements.add("CREATE OR REPLACE FUNCTION " + quote(CAPTURE_FUNCTION) + "() RETURNS trigger AS $$"
+                        + " DECLARE new_key jsonb := '{}'::jsonb; old_key jsonb := '{}'::jsonb; i int;"
+                        + " BEGIN"
+                        + " FOR i IN 1 .. TG_NARGS - 1 LOOP"
+                        + " IF TG_OP <> 'DELETE' THEN new_key := new_key || jsonb_build_object(TG_ARGV[i], to_jsonb(NEW) -> TG_ARGV[i]); END IF;"
+                        + " IF TG_OP <> 'INSERT' THEN old_key := old_key || jsonb_build_object(TG_ARGV[i], to_jsonb(OLD) -> TG_ARGV[i]); END IF;"
+                        + " END LOOP;"
+                        + " IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND old_key IS DISTINCT FROM new_key) THEN"
+                        + " INSERT INTO " + quote(changelogTable) + " (table_name, pk_json, op) VALUES (TG_ARGV[0], old_key::text, 'D');"
+                        + " END IF;"
+                        + " IF TG_OP <> 'DELETE' THEN"
+                        + " INSERT INTO " + quote(changelogTable) + " (table_name, pk_json, op) VALUES (TG_ARGV[0], new_key::text, 'U');"
+                        + " END IF;"
+                        + " RETURN NULL;"
+                        + " END; $$ LANGUAGE plpgsql");
+                String arguments = Stream.concat(Stream.of(tableName), keyColumns.stream())
+                        .map(this::literal)
+                        .collect(Collectors.joining(", "));
+                statements.add("CREATE TRIGGER " + quote(triggerName(tableName)) + " AFTER INSERT OR UPDATE OR DELETE ON "
+                        + table(tableName) + " FOR EACH ROW EXECUTE PROCEDURE " + quote(CAPTURE_FUNCTION) + "(" + arguments + ")");
+            }
+        }
+        return statements;
+    }
+
+    public List<String> dropCaptureTriggerDdl(String tableName) {
+        return switch (this) {
+            case MYSQL -> Stream.of("_ins", "_upd", "_del")
+                    .map(suffix -> "DROP TRIGGER IF EXISTS " + quote(triggerName(tableName) + suffix))
+                    .collect(Collectors.toList());
+            case POSTGRESQL -> List.of("DROP TRIGGER IF EXISTS " + quote(triggerName(tableName)) + " ON " + table(tableName));
+        };
+    }
+
+    /**
+     * 触发器名超长时截断表名并追加表名哈希，避免超出标识符上限或截断后与其他表重名
+     */
+    private String triggerName(String tableName) {
+        String name = TRIGGER_PREFIX + tableName;
+        if (name.getBytes(StandardCharsets.UTF_8).length <= MAX_TRIGGER_BASE_BYTES) {
+            return name;
+        }
+        int maxBytes = MAX_TRIGGER_BASE_BYTES - TRIGGER_HASH_LENGTH - 1;
+        StringBuilder truncated = new StringBuilder();
+        int bytes = 0;
+        for (int i = 0; i < name.length(); ) {
+            int codePoint = name.codePointAt(i);
+            int length = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (bytes + length > maxBytes) {
+                break;
+            }
+            truncated.appendCodePoint(codePoint);
+            bytes += length;
+            i += Character.charCount(codePoint);
+        }
+        return truncated + "_" + sha256(tableName).substring(0, TRIGGER_HASH_LENGTH);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * 观测当前进行中事务的标记：PostgreSQL 为快照 xmax，MySQL 为数据库当前时间
+     */
+    public String transactionMarkerSql() {
+        return switch (this) {
+            case MYSQL -> "SELECT NOW()";
+            case POSTGRESQL -> "SELECT txid_snapshot_xmax(txid_current_snapshot())";
+        };
+    }
+
+    /**
+     * 观测标记时已开始的事务中仍未结束的数量，参数为 {@link #transactionMarkerSql()} 的结果；
+     * MySQL 需要 PROCESS 权限读取 INNODB_TRX
+     */
+    public String pendingTransactionsSql() {
+        return switch (this) {
+            case MYSQL -> "SELECT COUNT(*) FROM information_schema.INNODB_TRX WHERE trx_started <= ?";
+            case POSTGRESQL -> "SELECT CASE WHEN txid_snapshot_xmin(txid_current_snapshot()) < ? THEN 1 ELSE 0 END";
+        };
+    }
+
+    private String jsonKey(String row, List<String> keyColumns) {
+        return "JSON_OBJECT(" + keyColumns.stream()
+                .map(column -> literal(column) + ", " + row + "." + quote(column))
+                .collect(Collectors.joining(", ")) + ")";
+    }
+
+    private String literal(String value) {
+        return "'" + StringUtils.replace(value, "'", "''") + "'";
+    }
+
+    /**
+     * 是否为可重试的并发冲突错误（死锁、锁等待超时、序列化失败），会沿异常链查找
+     */
+    public boolean isRetryable(SQLException ex) {
+        for (SQLException current : exceptionChain(ex)) {
+            String sqlState = StringUtils.defaultString(current.getSQLState());
+            boolean retryable = switch (this) {
+                case MYSQL -> current.getErrorCode() == 1213
+                        || current.getErrorCode() == 1205
+                        || "40001".equals(sqlState);
+                case POSTGRESQL -> "40P01".equals(sqlState)
+                        || "40001".equals(sqlState)
+                        || "55P03".equals(sqlState);
+            };
+            if (retryable) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否为连接级错误（SQLSTATE 08 类），此时拆分重试没有意义
+     */
+    public boolean isConnectionFailure(SQLException ex) {
+        return exceptionChain(ex).stream()
+                .anyMatch(current -> StringUtils.startsWith(current.getSQLState(), "08"));
+    }
+
+    private List<SQLException> exceptionChain(SQLException ex) {
+        List<SQLException> chain = new ArrayList<>();
+        Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Throwable current = ex;
+        while (current != null && visited.add(current)) {
+            if (current instanceof SQLException sqlException) {
+                chain.add(sqlException);
+                current = sqlException.getNextException() != null ? sqlException.getNextException() : sqlException.getCause();
+            } else {
+                current = current.getCause();
+            }
+        }
+        return chain;
+    }
 }
@@ -0,0 +1,88 @@
+package com.minicat.service.sync;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 模拟执行脚本写入器
+ *
+ * 按表顺序将生成的 SQL 流式写入 gzip 压缩文件，内存中只保留前若干条预览和各表语句数
+ */
+public class DryRunScriptWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final int previewLimit;
+    private final Writer writer;
+    private final List<String> preview = new ArrayList<>();
+    private final Map<String, Long> tableStatementCounts = new LinkedHashMap<>();
+    private long statementCount;
+
+    public DryRunScriptWriter(Path file, int previewLimit) throws IOException {
+        this.file = file;
+        this.previewLimit = Math.max(0, previewLimit);
+        Files.createDirectories(file.getParent());
+        this.writer = new BufferedWriter(
+                new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file), BUFFER_SIZE), StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+    }
+
+    /**
+     * 写入表分隔注释
+     */
+    public synchronized void beginTable(String tableName) {
+        try {
+            writer.append("\n-- 表 ").append(tableName).append('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public synchronized void write(String tableName, CharSequence statement) {
+        try {
+            writer.append(statement).append('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        statementCount++;
+        tableStatementCounts.merge(tableName, 1L, Long::sum);
+        if (preview.size() < previewLimit) {
+            preview.add(statement.toString());
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public synchronized long statementCount() {
+        return statementCount;
+    }
+
+    public synchronized Map<String, Long> tableStatementCounts() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(tableStatementCounts));
+    }
+
+    public synchronized List<String> preview() {
+        return List.copyOf(preview);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,9 @@
+package com.minicat.service.sync;
+
+import java.sql.SQLException;
+
+/**
+ * 重试与拆分后仍然失败的同步操作
+ */
+public record RejectedOperation(SyncOperation operation, SQLException error) {
+}
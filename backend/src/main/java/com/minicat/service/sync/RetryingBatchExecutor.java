@@ -0,0 +1,154 @@
+package com.minicat.service.sync;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带重试与拆分的批次执行器
+ *
+ * 死锁、锁等待超时等可重试错误按指数退避加随机抖动重试；重试耗尽或遇到不可重试错误时将批次对半拆分，
+ * 直到定位到单行，单行仍失败则记入拒绝列表而不中断整表同步。
+ * 事务模式下每个批次前设置保存点，失败时只回滚到保存点；非事务模式下每个批次独立提交。
+ * 连接级错误、保存点已失效（如 MySQL 死锁回滚了整个事务）或拒绝行数超过上限时直接抛出
+ */
+@Slf4j
+public class RetryingBatchExecutor {
+
+    /**
+     * 将一组操作绑定并写入目标库；失败时须丢弃已添加的批次
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(List<SyncOperation> operations) throws SQLException;
+    }
+
+    private final Connection connection;
+    private final DatabaseDialect dialect;
+    private final boolean transactional;
+    private final int maxRetries;
+    private final long backoffMillis;
+    private final int maxRejectedRows;
+    private final List<RejectedOperation> rejected = new ArrayList<>();
+
+    public RetryingBatchExecutor(
+            Connection connection,
+            DatabaseDialect dialect,
+            boolean transactional,
+            int maxRetries,
+            long backoffMillis,
+            int maxRejectedRows) {
+        this.connection = connection;
+        this.dialect = dialect;
+        this.transactional = transactional;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.backoffMillis = Math.max(1L, backoffMillis);
+        this.maxRejectedRows = Math.max(0, maxRejectedRows);
+    }
+
+    /**
+     * 执行一个批次
+     *
+     * @return 本批次中被拒绝的操作
+     */
+    public List<RejectedOperation> execute(List<SyncOperation> batch, BatchWriter writer) throws SQLException, InterruptedException {
+        int before = rejected.size();
+        executeOrSplit(batch, writer);
+        return rejected.size() == before
+                ? Collections.emptyList()
+                : List.copyOf(rejected.subList(before, rejected.size()));
+    }
+
+    public List<RejectedOperation> rejected() {
+        return Collections.unmodifiableList(rejected);
+    }
+
+    private void executeOrSplit(List<SyncOperation> batch, BatchWriter writer) throws SQLException, InterruptedException {
+        SQLException failure = executeWithRetry(batch, writer);
+        if (failure == null) {
+            return;
+        }
+
+        if (batch.size() == 1) {
+            reject(batch.get(0), failure);
+            return;
+        }
+
+        int middle = batch.size() / 2;
+        log.debug("批次执行失败 拆分为{}和{}行重试 {}", middle, batch.size() - middle, failure.getMessage());
+        executeOrSplit(batch.subList(0, middle), writer);
+        executeOrSplit(batch.subList(middle, batch.size()), writer);
+    }
+
+    /**
+     * @return 最终失败的异常，成功返回 null
+     */
+    private SQLException executeWithRetry(List<SyncOperation> batch, BatchWriter writer) throws SQLException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            Savepoint savepoint = transactional ? connection.setSavepoint() : null;
+            try {
+                writer.write(batch);
+                if (savepoint != null) {
+                    releaseQuietly(savepoint);
+                } else {
+                    connection.commit();
+                }
+                return null;
+            } catch (SQLException ex) {
+                rollback(savepoint, ex);
+                if (dialect.isConnectionFailure(ex)) {
+                    throw ex;
+                }
+                if (!dialect.isRetryable(ex) || attempt >= maxRetries) {
+                    return ex;
+                }
+
+                long delay = backoff(attempt);
+                log.warn("批次{}行遇到可重试错误 {}ms后第{}次重试 {}", batch.size(), delay, attempt + 1, ex.getMessage());
+                TimeUnit.MILLISECONDS.sleep(delay);
+            }
+        }
+    }
+
+    private void rollback(Savepoint savepoint, SQLException cause) throws SQLException {
+        try {
+            if (savepoint != null) {
+                connection.rollback(savepoint);
+            } else {
+                connection.rollback();
+            }
+        } catch (SQLException rollbackEx) {
+            // 保存点已随事务回滚失效，之前的批次已丢失，只能整体失败
+            cause.addSuppressed(rollbackEx);
+            throw cause;
+        }
+    }
+
+    private void releaseQuietly(Savepoint savepoint) {
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException ex) {
+            log.debug("释放保存点失败 {}", ex.getMessage());
+        }
+    }
+
+    private void reject(SyncOperation operation, SQLException error) throws SQLException {
+        rejected.add(new RejectedOperation(operation, error));
+        log.warn("同步行被拒绝 {} 主键{} {}", operation.action(), operation.primaryKeyValues(), error.getMessage());
+        if (rejected.size() > maxRejectedRows) {
+            throw new SQLException("拒绝行数超过上限" + maxRejectedRows + " 中止同步", error.getSQLState(), error);
+        }
+    }
+
+    private long backoff(int attempt) {
+        long ceiling = backoffMillis << Math.min(attempt, 10);
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+}
@@ -0,0 +1,11 @@
+package com.minicat.service.sync;
+
+/**
+ * 可延迟重建的二级索引
+ *
+ * @param tableName       表名
+ * @param name            索引名
+ * @param createStatement 重建语句
+ */
+public record SecondaryIndex(String tableName, String name, String createStatement) {
+}
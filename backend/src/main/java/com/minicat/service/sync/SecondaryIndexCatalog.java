@@ -0,0 +1,77 @@
+package com.minicat.service.sync;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 读取表上的非唯一二级索引并生成重建语句
+ * 唯一索引承担约束语义，不在延迟范围内；MySQL 的函数索引无法从列信息还原，同样跳过
+ */
+public final class SecondaryIndexCatalog {
+
+    private SecondaryIndexCatalog() {
+    }
+
+    public static List<SecondaryIndex> load(Connection connection, DatabaseDialect dialect, String tableName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(dialect.secondaryIndexQuery())) {
+            statement.setString(1, tableName);
+            try (ResultSet rs = statement.executeQuery()) {
+                return switch (dialect) {
+                    case MYSQL -> readMysql(rs, dialect, tableName);
+                    case POSTGRESQL -> readPostgresql(rs, tableName);
+                };
+            }
+        }
+    }
+
+    private static List<SecondaryIndex> readPostgresql(ResultSet rs, String tableName) throws SQLException {
+        List<SecondaryIndex> indexes = new ArrayList<>();
+        while (rs.next()) {
+            indexes.add(new SecondaryIndex(tableName, rs.getString(1), rs.getString(2)));
+        }
+        return indexes;
+    }
+
+    private static List<SecondaryIndex> readMysql(ResultSet rs, DatabaseDialect dialect, String tableName) throws SQLException {
+        Map<String, List<String>> columns = new LinkedHashMap<>();
+        Map<String, String> types = new LinkedHashMap<>();
+        List<String> unsupported = new ArrayList<>();
+        while (rs.next()) {
+            String indexName = rs.getString(1);
+            String columnName = rs.getString(2);
+            if (columnName == null) {
+                unsupported.add(indexName);
+                continue;
+            }
+            int prefixLength = rs.getInt(3);
+            String part = dialect.quote(columnName)
+                    + (rs.wasNull() ? "" : "(" + prefixLength + ")")
+                    + ("D".equals(rs.getString(4)) ? " DESC" : "");
+            columns.computeIfAbsent(indexName, name -> new ArrayList<>()).add(part);
+            types.put(indexName, rs.getString(5));
+        }
+
+        List<SecondaryIndex> indexes = new ArrayList<>();
+        columns.forEach((indexName, parts) -> {
+            if (unsupported.contains(indexName)) {
+                return;
+            }
+            String kind = switch (StringUtils.upperCase(types.get(indexName))) {
+                case "FULLTEXT" -> "FULLTEXT ";
+                case "SPATIAL" -> "SPATIAL ";
+                default -> "";
+            };
+            indexes.add(new SecondaryIndex(tableName, indexName, "CREATE " + kind + "INDEX " + dialect.quote(indexName)
+                    + " ON " + dialect.table(tableName) + " (" + String.join(", ", parts) + ")"));
+        });
+        return indexes;
+    }
+}
@@ -0,0 +1,142 @@
+package com.minicat.service.sync;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 暂存表合并同步
+ *
+ * 先把需要写入的源数据批量装载到目标库的会话临时表，再用少量集合式语句合并到正式表：
+ * UPDATE ... JOIN/FROM 处理已存在的键，INSERT ... SELECT 反连接处理新键，删除交给 {@link BulkDeleteExecutor}
+ */
+@Slf4j
+public class StagingMergeExecutor {
+
+    private final Connection connection;
+    private final DatabaseDialect dialect;
+    private final String tableName;
+    private final List<String> columns;
+    private final List<String> nonPrimaryColumns;
+    private final List<ColumnMetadata> primaryKeyColumns;
+    private final BinderPlan binders;
+    private final int batchSize;
+
+    public StagingMergeExecutor(
+            Connection connection,
+            DatabaseDialect dialect,
+            String tableName,
+            List<String> columns,
+            List<String> nonPrimaryColumns,
+            List<ColumnMetadata> primaryKeyColumns,
+            BinderPlan binders,
+            int batchSize) {
+        this.connection = connection;
+        this.dialect = dialect;
+        this.tableName = tableName;
+        this.columns = columns;
+        this.nonPrimaryColumns = nonPrimaryColumns;
+        this.primaryKeyColumns = primaryKeyColumns;
+        this.binders = binders;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * 执行合并
+     *
+     * @param upserts        INSERT/UPDATE 操作（按源数据写入暂存表）
+     * @param deletes        DELETE 操作
+     * @param useTransaction 合并阶段是否放在一个事务中
+     * @return 执行结果，计数为数据库实际影响的行数
+     */
+    public SyncExecutionResult execute(List<SyncOperation> upserts, List<SyncOperation> deletes, boolean useTransaction) throws SQLException {
+        List<String> keyNames = primaryKeyColumns.stream().map(ColumnMetadata::name).collect(Collectors.toList());
+        String stagingTable = "minicat_stg_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        long updateCount = upserts.stream().filter(op -> op.action() == SyncAction.UPDATE).count();
+        long insertCount = upserts.size() - updateCount;
+        long updated = 0;
+        long inserted = 0;
+        long deleted = 0;
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(dialect.createTemporaryTableLike(stagingTable, tableName, columns));
+            try {
+                // 装载阶段只写会话临时表，不锁正式表
+                loadStaging(stagingTable, upserts);
+                statement.execute("ALTER TABLE " + dialect.quote(stagingTable) + " ADD PRIMARY KEY ("
+                        + keyNames.stream().map(dialect::quote).collect(Collectors.joining(", ")) + ")");
+                if (dialect.requiresTemporaryTableAnalyze()) {
+                    statement.execute("ANALYZE " + dialect.quote(stagingTable));
+                }
+
+                if (useTransaction) {
+                    connection.setAutoCommit(false);
+                }
+                try {
+                    if (updateCount > 0 && !nonPrimaryColumns.isEmpty()) {
+                        updated = statement.executeUpdate(dialect.updateFromStaging(tableName, stagingTable, nonPrimaryColumns, keyNames));
+                    }
+                    inserted = insertCount > 0
+                            ? statement.executeUpdate(dialect.insertFromStaging(tableName, stagingTable, columns, keyNames))
+                            : 0L;
+                    deleted = new BulkDeleteExecutor(connection, dialect, tableName, primaryKeyColumns, batchSize)
+                            .execute(deletes);
+                    if (useTransaction) {
+                        connection.commit();
+                    }
+                    log.info("表{}暂存表合并完成 插入{} 更新{} 删除{}", tableName, inserted, updated, deleted);
+                } catch (SQLException ex) {
+                    if (useTransaction) {
+                        connection.rollback();
+                    }
+                    throw ex;
+                } finally {
+                    if (useTransaction) {
+                        connection.setAutoCommit(true);
+                    }
+                }
+            } finally {
+                dropStaging(statement, stagingTable);
+            }
+        }
+
+        return new SyncExecutionResult(inserted, updated, deleted);
+    }
+
+    private void loadStaging(String stagingTable, List<SyncOperation> upserts) throws SQLException {
+        String sql = "INSERT INTO " + dialect.quote(stagingTable) + " ("
+                + columns.stream().map(dialect::quote).collect(Collectors.joining(", "))
+                + ") VALUES (" + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            int pending = 0;
+            for (SyncOperation operation : upserts) {
+                binders.bind(insert, 1, columns, operation.rowForWrite());
+                insert.addBatch();
+                if (++pending >= batchSize) {
+                    insert.executeBatch();
+                    insert.clearBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                insert.executeBatch();
+            }
+        }
+        log.info("表{}暂存表装载完成 行数{}", tableName, upserts.size());
+    }
+
+    private void dropStaging(Statement statement, String stagingTable) {
+        try {
+            statement.execute(dialect.dropTemporaryTable(stagingTable));
+        } catch (SQLException ex) {
+            log.warn("删除暂存表{}失败 {}", stagingTable, ex.getMessage());
+        }
+    }
+}
@@ -1,9 +1,25 @@
 package com.minicat.service.sync;
 
+import java.util.List;
+
 /**
  * 同步执行结果
+ *
+ * @param batchSizes    批次大小变化序列
+ * @param rowsPerSecond 写入吞吐（行/秒）
+ * @param rejected      重试和拆分后仍失败而被跳过的操作
  */
-public record SyncExecutionResult(long inserted, long updated, long deleted) {
+public record SyncExecutionResult(
+        long inserted,
+        long updated,
+        long deleted,
+        List<Integer> batchSizes,
+        Double rowsPerSecond,
+        List<RejectedOperation> rejected) {
+
+    public SyncExecutionResult(long inserted, long updated, long deleted) {
+        this(inserted, updated, deleted, List.of(), null, List.of());
+    }
 
     public static SyncExecutionResult empty() {
         return new SyncExecutionResult(0L, 0L, 0L);
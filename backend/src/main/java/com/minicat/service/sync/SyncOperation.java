@@ -1,6 +1,11 @@
 package com.minicat.service.sync;
 
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * 同步操作实体
@@ -11,7 +16,55 @@ public record SyncOperation(
         Map<String, Object> targetRow,
         Map<String, Object> primaryKeyValues) {
 
+    /**
+     * 按动作、主键排序，保证分块提交后检查点之前的操作都已提交
+     */
+    public static final Comparator<SyncOperation> EXECUTION_ORDER = Comparator
+            .comparing(SyncOperation::action)
+            .thenComparing((left, right) -> comparePrimaryKeys(left.primaryKeyValues(), right.primaryKeyValues()));
+
     public Map<String, Object> rowForWrite() {
         return action == SyncAction.DELETE ? targetRow : sourceRow;
     }
+
+    /**
+     * 计算 UPDATE 实际变化的列（保持候选列顺序），无法判断时返回全部候选列
+     */
+    public List<String> changedColumns(List<String> candidateColumns) {
+        if (action != SyncAction.UPDATE || sourceRow == null || targetRow == null) {
+            return candidateColumns;
+        }
+        List<String> changed = candidateColumns.stream()
+                .filter(column -> !targetRow.containsKey(column)
+                        || !Objects.equals(sourceRow.get(column), targetRow.get(column)))
+                .collect(Collectors.toList());
+        return changed.isEmpty() ? candidateColumns : changed;
+    }
+
+    /**
+     * 逐列比较主键值（数值按大小比较，其余按自然顺序或字符串比较）
+     */
+    public static int comparePrimaryKeys(Map<String, Object> left, Map<String, Object> right) {
+        for (Map.Entry<String, Object> entry : left.entrySet()) {
+            int result = compareValues(entry.getValue(), right.get(entry.getKey()));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object left, Object right) {
+        if (left == null || right == null) {
+            return left == null ? (right == null ? 0 : -1) : 1;
+        }
+        if (left instanceof Number && right instanceof Number) {
+            return new BigDecimal(left.toString()).compareTo(new BigDecimal(right.toString()));
+        }
+        if (left instanceof Comparable && left.getClass() == right.getClass()) {
+            return ((Comparable) left).compareTo(right);
+        }
+        return left.toString().compareTo(right.toString());
+    }
 }
@@ -0,0 +1,160 @@
+package com.minicat.service.sync;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 同步后校验
+ *
+ * 只回查本次写入涉及的主键，按批在源库和目标库分别计算行哈希（服务端 MD5），
+ * INSERT/UPDATE 要求两侧哈希一致，DELETE 要求目标库不再存在该行。
+ * 哈希的文本表示依赖数据库实现，因此只支持同类型数据库之间的校验
+ */
+@Slf4j
+public class SyncVerifier {
+
+    private static final int MAX_MISMATCH_SAMPLES = 20;
+    private static final String HASH_ALIAS = "minicat_row_hash";
+
+    private final DatabaseDialect dialect;
+    private final String tableName;
+    private final List<String> hashColumns;
+    private final List<String> primaryKeys;
+    private final BinderPlan binders;
+    private final int batchSize;
+
+    public SyncVerifier(
+            DatabaseDialect dialect,
+            String tableName,
+            List<String> hashColumns,
+            List<String> primaryKeys,
+            BinderPlan binders,
+            int batchSize) {
+        this.dialect = dialect;
+        this.tableName = tableName;
+        this.hashColumns = hashColumns;
+        this.primaryKeys = primaryKeys;
+        this.binders = binders;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * 校验结果
+     *
+     * @param verified        校验一致的行数
+     * @param mismatched      不一致的行数
+     * @param mismatchSamples 不一致行的主键样例
+     */
+    public record Result(long verified, long mismatched, List<Map<String, Object>> mismatchSamples) {
+    }
+
+    public Result verify(DataSource sourceDataSource, DataSource targetDataSource, List<SyncOperation> operations) throws SQLException {
+        List<SyncOperation> upserts = operations.stream()
+                .filter(operation -> operation.action() != SyncAction.DELETE)
+                .collect(Collectors.toList());
+        List<SyncOperation> deletes = operations.stream()
+                .filter(operation -> operation.action() == SyncAction.DELETE)
+                .collect(Collectors.toList());
+
+        long verified = 0;
+        long mismatched = 0;
+        List<Map<String, Object>> samples = new ArrayList<>();
+
+        try (Connection source = upserts.isEmpty() ? null : sourceDataSource.getConnection();
+             Connection target = targetDataSource.getConnection()) {
+
+            for (int from = 0; from < upserts.size(); from += batchSize) {
+                List<SyncOperation> chunk = upserts.subList(from, Math.min(from + batchSize, upserts.size()));
+                Map<List<String>, String> sourceHashes = loadHashes(source, chunk);
+                Map<List<String>, String> targetHashes = loadHashes(target, chunk);
+                long matched = 0;
+                for (Map.Entry<List<String>, String> entry : sourceHashes.entrySet()) {
+                    if (Objects.equals(entry.getValue(), targetHashes.get(entry.getKey()))) {
+                        matched++;
+                    } else {
+                        addSample(samples, entry.getKey());
+                    }
+                }
+                // 源库中已不存在的行同样计为不一致
+                verified += matched;
+                mismatched += chunk.size() - matched;
+            }
+
+            for (int from = 0; from < deletes.size(); from += batchSize) {
+                List<SyncOperation> chunk = deletes.subList(from, Math.min(from + batchSize, deletes.size()));
+                Map<List<String>, String> remaining = loadHashes(target, chunk);
+                remaining.keySet().forEach(key -> addSample(samples, key));
+                mismatched += remaining.size();
+                verified += chunk.size() - remaining.size();
+            }
+        }
+
+        if (mismatched > 0) {
+            log.warn("表{}同步校验不一致 一致{} 不一致{} 样例{}", tableName, verified, mismatched, samples);
+        } else {
+            log.info("表{}同步校验通过 {}行", tableName, verified);
+        }
+        return new Result(verified, mismatched, samples);
+    }
+
+    /**
+     * @return 主键文本值 -> 行哈希
+     */
+    private Map<List<String>, String> loadHashes(Connection connection, List<SyncOperation> chunk) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(buildHashSql(chunk.size()))) {
+            int index = 1;
+            for (SyncOperation operation : chunk) {
+                index = binders.bind(statement, index, primaryKeys, operation.primaryKeyValues());
+            }
+
+            // 主键按服务端文本表示比较，两侧为同类型数据库，表示一致
+            Map<List<String>, String> hashes = new HashMap<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    List<String> key = new ArrayList<>(primaryKeys.size());
+                    for (int i = 1; i <= primaryKeys.size(); i++) {
+                        key.add(rs.getString(i));
+                    }
+                    hashes.put(key, rs.getString(HASH_ALIAS));
+                }
+            }
+            return hashes;
+        }
+    }
+
+    private String buildHashSql(int keyCount) {
+        String keyList = primaryKeys.stream().map(dialect::quote).collect(Collectors.joining(", "));
+        String condition;
+        if (primaryKeys.size() == 1) {
+            condition = dialect.quote(primaryKeys.get(0)) + " IN (" + String.join(", ", Collections.nCopies(keyCount, "?")) + ")";
+        } else {
+            String tuple = "(" + String.join(", ", Collections.nCopies(primaryKeys.size(), "?")) + ")";
+            condition = "(" + keyList + ") IN (" + String.join(", ", Collections.nCopies(keyCount, tuple)) + ")";
+        }
+        return "SELECT " + keyList + ", " + dialect.rowHashExpression(hashColumns) + " AS " + HASH_ALIAS
+                + " FROM " + dialect.table(tableName) + " WHERE " + condition;
+    }
+
+    private void addSample(List<Map<String, Object>> samples, List<String> key) {
+        if (samples.size() < MAX_MISMATCH_SAMPLES) {
+            Map<String, Object> sample = new LinkedHashMap<>();
+            for (int i = 0; i < primaryKeys.size(); i++) {
+                sample.put(primaryKeys.get(i), key.get(i));
+            }
+            samples.add(sample);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.minicat.service.sync;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 通过 JDBC 元数据读取表结构，表名依次尝试原样、大写、小写
+ */
+public final class TableMetadataLoader {
+
+    private TableMetadataLoader() {
+    }
+
+    public static List<ColumnMetadata> loadColumns(Connection connection, String tableName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String catalog = connection.getCatalog();
+        String schema = connection.getSchema();
+
+        for (String candidate : candidateTableNames(tableName)) {
+            List<ColumnMetadata> columns = new ArrayList<>();
+            try (ResultSet rs = metaData.getColumns(catalog, schema, candidate, null)) {
+                while (rs.next()) {
+                    columns.add(new ColumnMetadata(
+                            rs.getString("COLUMN_NAME"),
+                            rs.getInt("DATA_TYPE"),
+                            rs.getString("TYPE_NAME")));
+                }
+            }
+            if (CollectionUtils.isNotEmpty(columns)) {
+                return columns;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * 按 KEY_SEQ 顺序返回主键列
+     */
+    public static List<String> loadPrimaryKeys(Connection connection, String tableName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String catalog = connection.getCatalog();
+        String schema = connection.getSchema();
+
+        for (String candidate : candidateTableNames(tableName)) {
+            Map<Integer, String> keys = new TreeMap<>();
+            try (ResultSet rs = metaData.getPrimaryKeys(catalog, schema, candidate)) {
+                while (rs.next()) {
+                    keys.put(rs.getInt("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+                }
+            }
+            if (!keys.isEmpty()) {
+                return new ArrayList<>(keys.values());
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private static List<String> candidateTableNames(String tableName) {
+        return Stream.of(
+                        tableName,
+                        StringUtils.upperCase(tableName, Locale.ROOT),
+                        StringUtils.lowerCase(tableName, Locale.ROOT))
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
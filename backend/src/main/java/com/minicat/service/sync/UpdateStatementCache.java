@@ -0,0 +1,86 @@
+package com.minicat.service.sync;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 按变更列集合缓存的 UPDATE 语句
+ * 每种列组合对应一个 PreparedStatement，超出容量时按 LRU 淘汰（淘汰前先执行其待提交批次）
+ */
+@Slf4j
+public class UpdateStatementCache implements AutoCloseable {
+
+    private final Connection connection;
+    private final Function<List<String>, String> sqlBuilder;
+    private final int capacity;
+    private final LinkedHashMap<List<String>, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    public UpdateStatementCache(Connection connection, Function<List<String>, String> sqlBuilder, int capacity) {
+        this.connection = connection;
+        this.sqlBuilder = sqlBuilder;
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public PreparedStatement get(List<String> columns) throws SQLException {
+        PreparedStatement statement = statements.get(columns);
+        if (statement != null) {
+            return statement;
+        }
+        if (statements.size() >= capacity) {
+            evictEldest();
+        }
+        statement = connection.prepareStatement(sqlBuilder.apply(columns));
+        statements.put(List.copyOf(columns), statement);
+        return statement;
+    }
+
+    public void flush() throws SQLException {
+        for (PreparedStatement statement : statements.values()) {
+            statement.executeBatch();
+            statement.clearBatch();
+        }
+    }
+
+    /**
+     * 丢弃所有语句中尚未执行的批次（批次失败重试前调用）
+     */
+    public void clear() throws SQLException {
+        for (PreparedStatement statement : statements.values()) {
+            statement.clearBatch();
+        }
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    private void evictEldest() throws SQLException {
+        Iterator<Map.Entry<List<String>, PreparedStatement>> iterator = statements.entrySet().iterator();
+        Map.Entry<List<String>, PreparedStatement> eldest = iterator.next();
+        iterator.remove();
+        try (PreparedStatement statement = eldest.getValue()) {
+            statement.executeBatch();
+        }
+        log.debug("淘汰UPDATE语句缓存 列{}", eldest.getKey());
+    }
+
+    @Override
+    public void close() {
+        statements.values().forEach(statement -> {
+            try {
+                statement.close();
+            } catch (SQLException ex) {
+                log.error("关闭PreparedStatement失败", ex);
+            }
+        });
+        statements.clear();
+    }
+}
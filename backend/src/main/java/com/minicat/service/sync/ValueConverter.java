@@ -0,0 +1,22 @@
+package com.minicat.service.sync;
+
+/**
+ * 绑定参数前对单列取值的转换
+ */
+@FunctionalInterface
+public interface ValueConverter {
+
+    ValueConverter IDENTITY = value -> value;
+
+    Object convert(Object value);
+
+    default ValueConverter andThen(ValueConverter next) {
+        if (this == IDENTITY) {
+            return next;
+        }
+        if (next == IDENTITY) {
+            return this;
+        }
+        return value -> next.convert(convert(value));
+    }
+}
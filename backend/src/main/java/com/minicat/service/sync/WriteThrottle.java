@@ -0,0 +1,191 @@
+package com.minicat.service.sync;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 目标库写入限流器
+ *
+ * 一次同步任务共享一个实例（并行表之间共用配额）：
+ * 行/秒、批次/秒两个令牌桶限制写入速率，可选的复制延迟守卫在延迟超过阈值时暂停写入
+ */
+@Slf4j
+public class WriteThrottle {
+
+    private final TokenBucket rowBucket;
+    private final TokenBucket batchBucket;
+    private final LagGuard lagGuard;
+    private final Consumer<String> pauseListener;
+    private final long startNanos = System.nanoTime();
+
+    private long writtenRows;
+    private long throttledNanos;
+    private long lagPausedNanos;
+    private int lagPauses;
+
+    public WriteThrottle(Double maxRowsPerSecond, Double maxBatchesPerSecond, LagGuard lagGuard, Consumer<String> pauseListener) {
+        this.rowBucket = maxRowsPerSecond != null && maxRowsPerSecond > 0 ? new TokenBucket(maxRowsPerSecond) : null;
+        this.batchBucket = maxBatchesPerSecond != null && maxBatchesPerSecond > 0 ? new TokenBucket(maxBatchesPerSecond) : null;
+        this.lagGuard = lagGuard;
+        this.pauseListener = pauseListener != null ? pauseListener : message -> { };
+    }
+
+    public static WriteThrottle unlimited() {
+        return new WriteThrottle(null, null, null, null);
+    }
+
+    public boolean isEnabled() {
+        return rowBucket != null || batchBucket != null || lagGuard != null;
+    }
+
+    /**
+     * 执行一个批次前调用，必要时阻塞直到允许写入
+     *
+     * @param rows 批次行数
+     */
+    public void acquire(int rows) throws InterruptedException {
+        if (!isEnabled()) {
+            return;
+        }
+
+        if (lagGuard != null) {
+            long paused = lagGuard.awaitBelowThreshold(pauseListener);
+            if (paused > 0) {
+                synchronized (this) {
+                    lagPausedNanos += paused;
+                    lagPauses++;
+                }
+            }
+        }
+
+        long waitNanos = Math.max(
+                rowBucket != null ? rowBucket.reserve(rows) : 0L,
+                batchBucket != null ? batchBucket.reserve(1) : 0L);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+
+        synchronized (this) {
+            throttledNanos += waitNanos;
+            writtenRows += rows;
+        }
+    }
+
+    /**
+     * 自创建以来的有效写入吞吐（行/秒）
+     */
+    public synchronized double effectiveRowsPerSecond() {
+        long elapsed = Math.max(1L, System.nanoTime() - startNanos);
+        return writtenRows * 1_000_000_000.0 / elapsed;
+    }
+
+    /**
+     * 限流与暂停情况摘要，用于任务进度信息
+     */
+    public synchronized String summary() {
+        return String.format("有效吞吐%.1f行/秒 限流等待%dms 延迟暂停%d次共%dms",
+                effectiveRowsPerSecond(),
+                TimeUnit.NANOSECONDS.toMillis(throttledNanos),
+                lagPauses,
+                TimeUnit.NANOSECONDS.toMillis(lagPausedNanos));
+    }
+
+    /**
+     * 令牌桶：容量为一秒的配额，允许透支，透支部分由后续调用者等待偿还
+     */
+    private static final class TokenBucket {
+
+        private final double permitsPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double permitsPerSecond) {
+            this.permitsPerNano = permitsPerSecond / 1_000_000_000.0;
+            this.capacity = Math.max(1.0, permitsPerSecond);
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized long reserve(int permits) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+            lastRefill = now;
+
+            // 只需等待此前的透支被补足，本次消耗计入后续调用者的等待
+            long waitNanos = tokens >= 0 ? 0L : (long) Math.ceil(-tokens / permitsPerNano);
+            tokens -= permits;
+            return waitNanos;
+        }
+    }
+
+    /**
+     * 复制延迟守卫：定期在目标库执行延迟查询（首行首列，单位秒），超过阈值时暂停写入
+     */
+    public static final class LagGuard {
+
+        private final DataSource dataSource;
+        private final String lagQuery;
+        private final double maxLagSeconds;
+        private final long checkIntervalMillis;
+        private long lastCheckNanos;
+        private double lastLag;
+
+        public LagGuard(DataSource dataSource, String lagQuery, double maxLagSeconds, long checkIntervalMillis) {
+            this.dataSource = dataSource;
+            this.lagQuery = lagQuery;
+            this.maxLagSeconds = maxLagSeconds;
+            this.checkIntervalMillis = Math.max(100L, checkIntervalMillis);
+        }
+
+        /**
+         * 阻塞直到延迟低于阈值
+         *
+         * @return 暂停时长（纳秒），未暂停返回 0
+         */
+        synchronized long awaitBelowThreshold(Consumer<String> pauseListener) throws InterruptedException {
+            long pauseStart = 0L;
+            while (true) {
+                long now = System.nanoTime();
+                if (lastCheckNanos == 0L || now - lastCheckNanos >= TimeUnit.MILLISECONDS.toNanos(checkIntervalMillis)) {
+                    lastLag = queryLag();
+                    lastCheckNanos = now;
+                }
+                if (lastLag <= maxLagSeconds) {
+                    return pauseStart == 0L ? 0L : System.nanoTime() - pauseStart;
+                }
+
+                if (pauseStart == 0L) {
+                    pauseStart = now;
+                }
+                String message = String.format("目标库复制延迟%.1f秒 超过阈值%.1f秒 暂停写入", lastLag, maxLagSeconds);
+                log.warn(message);
+                pauseListener.accept(message);
+                TimeUnit.MILLISECONDS.sleep(checkIntervalMillis);
+            }
+        }
+
+        private double queryLag() {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (resultSet.next()) {
+                    double lag = resultSet.getDouble(1);
+                    return resultSet.wasNull() ? 0.0 : lag;
+                }
+                return 0.0;
+            } catch (SQLException ex) {
+                // 查询失败时不阻塞同步，仅记录
+                log.warn("复制延迟查询失败 忽略延迟检查 {}", ex.getMessage());
+                return 0.0;
+            }
+        }
+    }
+}